@@ -0,0 +1,117 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.MessageFactory;
+import org.intuit.runtime.ConsumerAutoscaler;
+import org.intuit.runtime.PipelineRuntime;
+import org.intuit.runtime.ThreadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bursty load on I/O-bound consumers: one producer publishes {@code burst}
+ * messages back to back, then pauses {@code gapMillis}; each message costs
+ * a consumer {@code ioMillis} of waiting.
+ * <ul>
+ *     <li>{@code FIXED_MIN} – {@code minConsumers} consumers, falls behind during bursts.</li>
+ *     <li>{@code FIXED_MAX} – {@code maxConsumers} consumers, mostly idle between bursts.</li>
+ *     <li>{@code AUTOSCALE} – starts at {@code minConsumers}; a
+ *     {@link ConsumerAutoscaler} sampling every {@code sampleMillis} grows
+ *     and shrinks the pool within the bounds.</li>
+ * </ul>
+ * Latency is measured from message creation, so backlog shows up there.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class AutoscaleBenchmark {
+
+    static final int MESSAGES_PER_RUN = 2_000;
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({"FIXED_MIN", "FIXED_MAX", "AUTOSCALE"})
+    public String pool;
+
+    @Param({"2"})
+    public int minConsumers;
+
+    @Param({"16"})
+    public int maxConsumers;
+
+    @Param({"200"})
+    public int burst;
+
+    @Param({"50"})
+    public long gapMillis;
+
+    @Param({"1"})
+    public long ioMillis;
+
+    @Param({"10"})
+    public long sampleMillis;
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1024);
+        LongAdder consumed = new LongAdder();
+        long ioNanos = TimeUnit.MILLISECONDS.toNanos(ioMillis);
+
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(), message -> {
+            LockSupport.parkNanos(ioNanos);
+            PipelineBenchmark.received(message, consumed);
+        }, 0, 1000);
+        ConsumerAutoscaler autoscaler = pool.equals("AUTOSCALE")
+                ? new ConsumerAutoscaler(runtime, queue, minConsumers, maxConsumers, 0.01, 0.05) : null;
+        runtime.start(1, id -> () -> bursts(queue),
+                pool.equals("FIXED_MAX") ? maxConsumers : minConsumers,
+                (id, handler) -> new Consumer<>(autoscaler == null ? queue : autoscaler.watch(queue), id, handler,
+                        0, false));
+        if (autoscaler != null) {
+            autoscaler.start(sampleMillis, null);
+        }
+
+        while (consumed.sum() < MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        if (autoscaler != null) {
+            autoscaler.close();
+        }
+        runtime.shutdown();
+        return consumed.sum();
+    }
+
+    private void bursts(BlockingQueue<String> queue) {
+        MessageFactory<String> factory = TimestampedMessages.factory(32);
+        try {
+            for (int sequence = 0; !Thread.currentThread().isInterrupted(); ) {
+                for (int i = 0; i < burst; i++) {
+                    queue.put(factory.create(1, sequence++));
+                }
+                Thread.sleep(gapMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.intuit.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with {@link LatencyProfiler} always enabled, so every
+ * result reports p50/p99/p99.9 latency next to throughput. Accepts the usual
+ * JMH command-line options, e.g.
+ * {@code java -jar target/benchmarks.jar -p producers=8 -prof gc}.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(LatencyProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,91 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.EnvelopeConsumer;
+import org.intuit.logging.PipelineLog;
+import org.intuit.producer.BatchProducer;
+import org.intuit.producer.BatchPublisher;
+import org.intuit.queue.QueueType;
+import org.intuit.queue.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link PipelineBenchmark} with {@link BatchProducer}s that publish each
+ * batch as one envelope ({@link BatchPublisher#envelopes}) and
+ * {@link EnvelopeConsumer}s, i.e. one queue operation per batch on both
+ * sides. {@code bufferSize} counts envelopes; latency is per message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopePipelineBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"1", "4"})
+    public int producers;
+
+    @Param({"1", "4"})
+    public int consumers;
+
+    @Param({"16", "1024"})
+    public int bufferSize;
+
+    @Param({"32"})
+    public int messageSize;
+
+    @Param({"ARRAY_BLOCKING", "MPMC_RING"})
+    public QueueType queueType;
+
+    @Param({"16", "64"})
+    public int producerBatch;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<List<String>> queue = queueType.create(bufferSize, WaitStrategy.BLOCK);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new BatchProducer(BatchPublisher.envelopes(queue), i,
+                    TimestampedMessages.factory(messageSize), producerBatch, 1, 0, PipelineLog.off())));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new EnvelopeConsumer(queue, i,
+                    message -> PipelineBenchmark.received(message, consumed), PipelineLog.off())));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
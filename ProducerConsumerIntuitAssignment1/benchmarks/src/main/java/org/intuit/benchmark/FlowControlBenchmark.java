@@ -0,0 +1,103 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.flow.FlowControl;
+import org.intuit.flow.OverflowPolicy;
+import org.intuit.flow.WatermarkThrottle;
+import org.intuit.producer.Producer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Overload: unpaced producers feed consumers that spend {@code workTokens}
+ * of CPU per message, so the buffer is always full. Messages are
+ * timestamped when created, before {@code put}, so the latency figures
+ * include the time a producer holds a message while waiting for space.
+ * <ul>
+ *     <li>{@code BLOCK}, {@code DROP_NEWEST}, {@code DROP_OLDEST},
+ *     {@code TIMEOUT} – the {@link OverflowPolicy} with that name.</li>
+ *     <li>{@code THROTTLE} – {@code BLOCK} plus a {@link WatermarkThrottle}
+ *     at 50 % / 80 % occupancy.</li>
+ * </ul>
+ * The score counts consumed messages only; dropped ones are lost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlowControlBenchmark {
+
+    static final int MESSAGES_PER_RUN = 20_000;
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"BLOCK", "DROP_NEWEST", "DROP_OLDEST", "TIMEOUT", "THROTTLE"})
+    public String policy;
+
+    @Param({"4"})
+    public int producers;
+
+    @Param({"2"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int bufferSize;
+
+    @Param({"500"})
+    public long workTokens;
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+        FlowControl control = policy.equals("THROTTLE")
+                ? new FlowControl(OverflowPolicy.BLOCK, 0, null, null, new WatermarkThrottle(0.5, 0.8, 10))
+                : new FlowControl(OverflowPolicy.valueOf(policy), 1, null, null, null);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(control.forProducer(queue, i), i, TimestampedMessages.factory(32),
+                    0, false)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new Consumer<>(queue, i, message -> {
+                Blackhole.consumeCPU(workTokens);
+                PipelineBenchmark.received(message, consumed);
+            }, 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
@@ -0,0 +1,53 @@
+package org.intuit.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.profile.InternalProfiler;
+import org.openjdk.jmh.results.AggregationPolicy;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.ScalarResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JMH profiler that adds end-to-end latency percentiles from
+ * {@link LatencyRecorder} to every iteration result:
+ * {@code latency.p50}, {@code latency.p99}, {@code latency.p99.9} and
+ * {@code latency.max}, in microseconds.
+ */
+public class LatencyProfiler implements InternalProfiler {
+
+    @Override
+    public String getDescription() {
+        return "End-to-end message latency percentiles";
+    }
+
+    @Override
+    public void beforeIteration(BenchmarkParams benchmarkParams, IterationParams iterationParams) {
+        LatencyRecorder.takeInterval();   // drop anything recorded between iterations
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")   // InternalProfiler declares the raw Result
+    public Collection<? extends Result> afterIteration(BenchmarkParams benchmarkParams,
+                                                       IterationParams iterationParams,
+                                                       IterationResult result) {
+        Histogram h = LatencyRecorder.takeInterval();
+        if (h.getTotalCount() == 0) {
+            return List.of();
+        }
+        return List.of(
+                micros("latency.p50", h.getValueAtPercentile(50)),
+                micros("latency.p99", h.getValueAtPercentile(99)),
+                micros("latency.p99.9", h.getValueAtPercentile(99.9)),
+                micros("latency.max", h.getMaxValue())
+        );
+    }
+
+    private static ScalarResult micros(String label, long nanos) {
+        return new ScalarResult(label, nanos / 1000.0, "us", AggregationPolicy.AVG);
+    }
+}
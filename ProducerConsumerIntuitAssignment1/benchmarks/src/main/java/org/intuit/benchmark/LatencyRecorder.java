@@ -0,0 +1,29 @@
+package org.intuit.benchmark;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Process-wide end-to-end latency histogram, in nanoseconds.
+ * <p>
+ * Consumers record from any number of threads without locking;
+ * {@link LatencyProfiler} reads and resets it once per JMH iteration.
+ */
+final class LatencyRecorder {
+
+    private static final Recorder RECORDER = new Recorder(3);
+
+    private LatencyRecorder() {
+    }
+
+    static void record(long nanos) {
+        RECORDER.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * Returns everything recorded since the previous call and starts a new interval.
+     */
+    static Histogram takeInterval() {
+        return RECORDER.getIntervalHistogram();
+    }
+}
@@ -0,0 +1,112 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.logging.AsyncLog;
+import org.intuit.logging.LogLevel;
+import org.intuit.logging.PipelineLog;
+import org.intuit.producer.Producer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline throughput with every message logged by its producer and its
+ * consumer, as in {@code Main}.
+ * <ul>
+ *     <li>{@code OFF} – no logging, the baseline.</li>
+ *     <li>{@code SYNC} – {@link PipelineLog#printing}: each worker formats
+ *     and prints on its own thread, taking turns on the synchronized
+ *     {@link PrintStream}.</li>
+ *     <li>{@code ASYNC} – {@link AsyncLog}: workers enqueue records, one
+ *     writer thread formats and writes them in batches. Records that do
+ *     not fit in the buffer are dropped, not waited for.</li>
+ * </ul>
+ * Both sinks write to a discarding stream, so the figures show the cost of
+ * formatting and of the shared lock, not of the terminal or disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"OFF", "SYNC", "ASYNC"})
+    public String logging;
+
+    @Param({"4"})
+    public int producers;
+
+    @Param({"4"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int bufferSize;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+        AsyncLog asyncLog = null;
+        PipelineLog log;
+        switch (logging) {
+            case "SYNC":
+                log = PipelineLog.printing(new PrintStream(OutputStream.nullOutputStream()), LogLevel.DEBUG);
+                break;
+            case "ASYNC":
+                asyncLog = new AsyncLog(Writer.nullWriter(), true, LogLevel.DEBUG, 1, AsyncLog.DEFAULT_CAPACITY);
+                log = asyncLog;
+                break;
+            default:
+                log = PipelineLog.off();
+        }
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(queue, i, (id, sequence) -> "[P" + id + "] Message #" + sequence,
+                    0, log)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new Consumer<>(queue, i, message -> consumed.increment(), 0, log)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        if (asyncLog != null) {
+            asyncLog.close();
+        }
+        return consumed.sum();
+    }
+}
@@ -0,0 +1,107 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.consumer.MessageHandler;
+import org.intuit.message.Message;
+import org.intuit.message.MessagePool;
+import org.intuit.producer.MessageFactory;
+import org.intuit.producer.Producer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cost of the message representation on an otherwise identical pipeline.
+ * <ul>
+ *     <li>{@code FORMATTED} – {@link Producer#defaultMessage} strings, the
+ *     original demo format: {@code String.format} plus a {@code LocalDateTime}.
+ *     Latency is not recorded, the timestamp has only microsecond resolution.</li>
+ *     <li>{@code TYPED} – a new {@link Message} per send.</li>
+ *     <li>{@code POOLED} – {@link Message}s recycled through a {@link MessagePool}.</li>
+ * </ul>
+ * Typed variants record end-to-end latency from the message's own nanoTime stamp.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageTypeBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"FORMATTED", "TYPED", "POOLED"})
+    public String messages;
+
+    @Param({"2"})
+    public int producers;
+
+    @Param({"2"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int bufferSize;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        LongAdder consumed = new LongAdder();
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        if (messages.equals("FORMATTED")) {
+            BlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+            start(threads, queue, Producer::defaultMessage, message -> consumed.increment());
+        } else {
+            BlockingQueue<Message<Integer>> queue = new ArrayBlockingQueue<>(bufferSize);
+            MessageHandler<Message<Integer>> received = message -> {
+                LatencyRecorder.record(message.ageNanos());
+                consumed.increment();
+            };
+            if (messages.equals("POOLED")) {
+                MessagePool<Integer> pool = new MessagePool<>(bufferSize + producers + consumers);
+                start(threads, queue, pool.factory(sequence -> null), pool.recycling(received));
+            } else {
+                start(threads, queue, (id, sequence) -> new Message<>(id, sequence, null), received);
+            }
+        }
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+
+    private <T> void start(List<Thread> threads, BlockingQueue<T> queue, MessageFactory<T> factory,
+                           MessageHandler<T> handler) {
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(queue, i, factory, 0, false)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new Consumer<>(queue, i, handler, 0, false)));
+        }
+        threads.forEach(Thread::start);
+    }
+}
@@ -0,0 +1,93 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.metrics.PipelineMetrics;
+import org.intuit.producer.Producer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Cost of {@link PipelineMetrics} instrumentation on the {@link PipelineBenchmark}
+ * topology ({@link ArrayBlockingQueue}, per-message producers and consumers).
+ * <p>
+ * {@code latencySampleEvery} 0 runs without metrics; otherwise every worker
+ * gets an instrumented queue and one in {@code latencySampleEvery} messages
+ * is tracked end to end through the side table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"0", "1", "64"})
+    public int latencySampleEvery;
+
+    @Param({"2"})
+    public int producers;
+
+    @Param({"2"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int bufferSize;
+
+    @Param({"32"})
+    public int messageSize;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+        PipelineMetrics metrics = latencySampleEvery == 0 ? null : new PipelineMetrics(queue, latencySampleEvery);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            BlockingQueue<String> producerQueue = metrics == null ? queue : metrics.forProducer(queue, i);
+            threads.add(new Thread(new Producer<>(producerQueue, i, TimestampedMessages.factory(messageSize), 0, false)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            BlockingQueue<String> consumerQueue = metrics == null ? queue : metrics.forConsumer(queue, i);
+            threads.add(new Thread(new Consumer<>(consumerQueue, i,
+                    message -> PipelineBenchmark.received(message, consumed), 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            if (metrics != null) {
+                metrics.sampleQueueDepth();
+            }
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
@@ -0,0 +1,147 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.consumer.MessageHandler;
+import org.intuit.producer.MessageFactory;
+import org.intuit.queue.PersistentQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Cost of durability: the same pipeline on an in-memory and on a
+ * {@link PersistentQueue} in a temporary directory.
+ * <ul>
+ *     <li>{@code MEMORY} – an unbounded {@link LinkedBlockingQueue}, which
+ *     like the persistent queue never blocks producers.</li>
+ *     <li>{@code MMAP} – {@link PersistentQueue} leaving writeback to the OS.</li>
+ *     <li>{@code MMAP_FSYNC} – {@link PersistentQueue} forcing the log and
+ *     checkpoint to disk every {@code syncEvery} messages.</li>
+ * </ul>
+ * Consumers of a {@link PersistentQueue} commit each message after handling it.
+ * Each producer sends exactly its share of {@link PipelineBenchmark#MESSAGES_PER_RUN},
+ * so the unbounded queues end every invocation empty.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistentQueueBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"MEMORY", "MMAP", "MMAP_FSYNC"})
+    public String backend;
+
+    @Param({"1000"})
+    public int syncEvery;
+
+    @Param({"2"})
+    public int producers;
+
+    @Param({"2"})
+    public int consumers;
+
+    @Param({"64"})
+    public int messageSize;
+
+    private Path dir;
+    private BlockingQueue<String> queue;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("persistent-queue-benchmark");
+        switch (backend) {
+            case "MMAP":
+                queue = new PersistentQueue(dir, PersistentQueue.DEFAULT_SEGMENT_BYTES, 0);
+                break;
+            case "MMAP_FSYNC":
+                queue = new PersistentQueue(dir, PersistentQueue.DEFAULT_SEGMENT_BYTES, syncEvery);
+                break;
+            default:
+                queue = new LinkedBlockingQueue<>();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (queue instanceof PersistentQueue) {
+            ((PersistentQueue) queue).close();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        LongAdder consumed = new LongAdder();
+        MessageHandler<String> commit = queue instanceof PersistentQueue ? ((PersistentQueue) queue)::commit
+                : message -> { };
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        int share = PipelineBenchmark.MESSAGES_PER_RUN / producers;
+        for (int i = 1; i <= producers; i++) {
+            int id = i;
+            int count = id == producers ? PipelineBenchmark.MESSAGES_PER_RUN - share * (producers - 1) : share;
+            MessageFactory<String> factory = TimestampedMessages.factory(messageSize);
+            threads.add(new Thread(() -> {
+                try {
+                    for (int sequence = 0; sequence < count; sequence++) {
+                        queue.put(factory.create(id, sequence));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new Consumer<>(queue, i,
+                    message -> {
+                        PipelineBenchmark.received(message, consumed);
+                        commit.handle(message);
+                    }, 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
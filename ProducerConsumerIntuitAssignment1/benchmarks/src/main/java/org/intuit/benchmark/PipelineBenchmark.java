@@ -0,0 +1,127 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.logging.PipelineLog;
+import org.intuit.producer.BatchProducer;
+import org.intuit.producer.BatchPublisher;
+import org.intuit.producer.Producer;
+import org.intuit.queue.QueueType;
+import org.intuit.queue.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Throughput and end-to-end latency of the {@link Producer}/{@link Consumer}
+ * topology that {@code Main} builds, with pacing and logging turned off.
+ * <p>
+ * One invocation starts the producer and consumer threads on a fresh queue,
+ * waits until {@value #MESSAGES_PER_RUN} messages have been consumed and
+ * then stops every thread by interrupting it, like {@code Main} does. The
+ * score is messages per second. Producers run unthrottled, so the queue is
+ * mostly full and the latency figures describe a saturated pipeline.
+ * <p>
+ * {@code queueType} and {@code waitStrategy} select the buffer; the wait
+ * strategy only affects {@link QueueType#MPMC_RING}, so for the other types
+ * the default run repeats the same configuration once per strategy. Narrow
+ * it on the command line, e.g. {@code -p waitStrategy=BLOCK}.
+ * <p>
+ * {@code consumerBatch} 1 runs consumers in per-message mode ({@code take()});
+ * larger values use batch mode ({@code drainTo}) with no linger.
+ * {@code producerBatch} 1 runs {@link Producer}; larger values run
+ * {@link BatchProducer}, which claims whole batches on {@code MPMC_RING} and
+ * falls back to one put per message on the other queue types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    static final int MESSAGES_PER_RUN = 100_000;
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"1", "4"})
+    public int producers;
+
+    @Param({"1", "4"})
+    public int consumers;
+
+    @Param({"16", "1024"})
+    public int bufferSize;
+
+    @Param({"32", "512"})
+    public int messageSize;
+
+    @Param({"ARRAY_BLOCKING", "LINKED_BLOCKING", "LINKED_TRANSFER", "MPMC_RING"})
+    public QueueType queueType;
+
+    @Param({"BLOCK", "SPIN_THEN_PARK", "YIELD"})
+    public WaitStrategy waitStrategy;
+
+    @Param({"1", "64"})
+    public int consumerBatch;
+
+    @Param({"1", "64"})
+    public int producerBatch;
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = queueType.create(bufferSize, waitStrategy);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(producerBatch == 1
+                    ? new Producer<>(queue, i, TimestampedMessages.factory(messageSize), 0, false)
+                    : new BatchProducer(BatchPublisher.forQueue(queue), i, TimestampedMessages.factory(messageSize),
+                    producerBatch, 1, 0, PipelineLog.off())));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(consumerBatch == 1
+                    ? new Consumer<>(queue, i, message -> received(message, consumed), 0, false)
+                    : new Consumer<>(queue, i, batch -> {
+                        for (String message : batch) {
+                            received(message, consumed);
+                        }
+                    }, consumerBatch, 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+
+    static void received(String message, LongAdder consumed) {
+        LatencyRecorder.record(System.nanoTime() - TimestampedMessages.sentAt(message));
+        consumed.increment();
+    }
+}
@@ -0,0 +1,89 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.RingConsumer;
+import org.intuit.producer.RingProducer;
+import org.intuit.queue.MessageEvent;
+import org.intuit.queue.RingBuffer;
+import org.intuit.queue.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link PipelineBenchmark} for the preallocated {@link RingBuffer}:
+ * {@link RingProducer}s write {@link MessageEvent} slots in place and
+ * {@link RingConsumer}s read them in batches, so the hot path allocates
+ * nothing. Latency is measured from the slot's creation
+ * timestamp. Run both with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RingPipelineBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"1", "4"})
+    public int producers;
+
+    @Param({"1", "4"})
+    public int consumers;
+
+    @Param({"16", "1024"})
+    public int bufferSize;
+
+    @Param({"1", "16"})
+    public int batchSize;
+
+    @Param({"BLOCK", "SPIN_THEN_PARK", "YIELD"})
+    public WaitStrategy waitStrategy;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        RingBuffer<MessageEvent> ring = new RingBuffer<>(MessageEvent::new, bufferSize, waitStrategy);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(new Thread(new RingConsumer<>(ring, i, (event, sequence, endOfBatch) -> {
+                LatencyRecorder.record(System.nanoTime() - event.getCreatedNanos());
+                consumed.increment();
+            }, consumers)));
+        }
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new RingProducer<>(ring, i, MessageEvent::writeDefault,
+                    Math.min(batchSize, bufferSize), 0)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
@@ -0,0 +1,95 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.QueueType;
+import org.intuit.queue.ShardedQueue;
+import org.intuit.queue.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link PipelineBenchmark} with a {@link ShardedQueue}: producers route each
+ * message by key (the message itself, so keys spread evenly) and every
+ * consumer takes only from the shards it owns. {@code shards} 0 is the
+ * unsharded baseline, one queue shared by everybody. {@code bufferSize} is
+ * per shard.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardedPipelineBenchmark {
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"4"})
+    public int producers;
+
+    @Param({"1", "4"})
+    public int consumers;
+
+    @Param({"0", "4", "16"})
+    public int shards;
+
+    @Param({"256"})
+    public int bufferSize;
+
+    @Param({"ARRAY_BLOCKING", "MPMC_RING"})
+    public QueueType queueType;
+
+    @Benchmark
+    @OperationsPerInvocation(PipelineBenchmark.MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue;
+        ShardedQueue sharded = null;
+        if (shards > 0) {
+            sharded = new ShardedQueue(shards, i -> queueType.create(bufferSize, WaitStrategy.BLOCK), message -> message);
+            queue = sharded;
+        } else {
+            queue = queueType.create(bufferSize, WaitStrategy.BLOCK);
+        }
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(queue, i, TimestampedMessages.factory(32), 0, false)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            BlockingQueue<String> source = sharded != null ? sharded.ownedBy(i, consumers) : queue;
+            threads.add(new Thread(new Consumer<>(source, i,
+                    message -> PipelineBenchmark.received(message, consumed), 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < PipelineBenchmark.MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
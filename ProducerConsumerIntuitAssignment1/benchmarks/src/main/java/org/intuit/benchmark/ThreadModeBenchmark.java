@@ -0,0 +1,95 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.runtime.ThreadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Platform versus virtual threads for I/O-bound consumers.
+ * <p>
+ * Each consumer "waits on I/O" for {@code ioMillis} after every message (the
+ * {@link Consumer} pause), so throughput is bounded by how many consumers can
+ * be blocked at once. One invocation starts the threads, waits for
+ * {@value #MESSAGES_PER_RUN} messages and shuts down by interrupt-and-join,
+ * so thread start-up and teardown are part of the score.
+ * <p>
+ * {@code VIRTUAL} needs a Java 21+ JVM; on older JVMs those runs fail in
+ * setup and the {@code PLATFORM} runs still complete.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    static final int MESSAGES_PER_RUN = 10_000;
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Param({"10", "100", "10000"})
+    public int consumers;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threadMode;
+
+    @Param({"1"})
+    public long ioMillis;
+
+    private ThreadFactory threadFactory;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        threadFactory = threadMode.threadFactory();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1024);
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(consumers + 1);
+        threads.add(threadFactory.newThread(new Producer<>(queue, 1, TimestampedMessages.factory(32), 0, false)));
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(threadFactory.newThread(new Consumer<>(queue, i,
+                    message -> PipelineBenchmark.received(message, consumed), ioMillis, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
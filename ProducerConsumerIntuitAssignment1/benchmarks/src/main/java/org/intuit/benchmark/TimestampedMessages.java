@@ -0,0 +1,48 @@
+package org.intuit.benchmark;
+
+import org.intuit.producer.MessageFactory;
+
+import java.util.Arrays;
+
+/**
+ * Benchmark messages that carry their send time.
+ * <p>
+ * Each message is exactly {@code messageSize} characters long: the first
+ * 16 are {@link System#nanoTime()} at creation in hex, the rest is padding.
+ * Consumers read the timestamp back with {@link #sentAt(String)} to measure
+ * end-to-end latency without any side table.
+ */
+final class TimestampedMessages {
+
+    static final int TIMESTAMP_CHARS = 16;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TimestampedMessages() {
+    }
+
+    /**
+     * Returns a factory for one producer. The factory reuses a char buffer,
+     * so it must not be shared between producers.
+     */
+    static MessageFactory<String> factory(int messageSize) {
+        char[] buffer = new char[Math.max(TIMESTAMP_CHARS, messageSize)];
+        Arrays.fill(buffer, 'x');
+        return (producerId, sequence) -> {
+            long now = System.nanoTime();
+            for (int i = TIMESTAMP_CHARS - 1; i >= 0; i--) {
+                buffer[i] = HEX[(int) (now & 0xF)];
+                now >>>= 4;
+            }
+            return new String(buffer);
+        };
+    }
+
+    static long sentAt(String message) {
+        long value = 0;
+        for (int i = 0; i < TIMESTAMP_CHARS; i++) {
+            value = (value << 4) | Character.digit(message.charAt(i), 16);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,120 @@
+package org.intuit.benchmark;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.ShardedQueue;
+import org.intuit.queue.WorkStealingQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+/**
+ * Consumer scheduling under skewed processing cost: consumer 1 spends
+ * {@code slowFactor} times as much CPU per message as the others.
+ * <ul>
+ *     <li>{@code SHARED} – one {@link ArrayBlockingQueue} for everybody.</li>
+ *     <li>{@code PARTITIONED} – a {@link ShardedQueue} with one shard per
+ *     consumer; consumer 1's share waits for consumer 1.</li>
+ *     <li>{@code WORK_STEALING} – a {@link WorkStealingQueue}; idle consumers
+ *     take over consumer 1's backlog.</li>
+ * </ul>
+ * All variants hold {@code bufferSize} messages in total.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkStealingBenchmark {
+
+    static final int MESSAGES_PER_RUN = 20_000;
+
+    private static final long POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    @Param({"SHARED", "PARTITIONED", "WORK_STEALING"})
+    public String scheduling;
+
+    @Param({"2"})
+    public int producers;
+
+    @Param({"4"})
+    public int consumers;
+
+    @Param({"1024"})
+    public int bufferSize;
+
+    @Param({"200"})
+    public long workTokens;
+
+    @Param({"20"})
+    public int slowFactor;
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES_PER_RUN)
+    public long transfer() throws InterruptedException {
+        BlockingQueue<String> queue;
+        IntFunction<BlockingQueue<String>> consumerQueue;
+        int perConsumer = Math.max(1, bufferSize / consumers);
+        switch (scheduling) {
+            case "PARTITIONED":
+                ShardedQueue sharded = new ShardedQueue(consumers, i -> new ArrayBlockingQueue<>(perConsumer), m -> m);
+                queue = sharded;
+                consumerQueue = id -> sharded.ownedBy(id, consumers);
+                break;
+            case "WORK_STEALING":
+                WorkStealingQueue stealing = new WorkStealingQueue(consumers, perConsumer);
+                queue = stealing;
+                consumerQueue = stealing::forConsumer;
+                break;
+            default:
+                BlockingQueue<String> shared = new ArrayBlockingQueue<>(bufferSize);
+                queue = shared;
+                consumerQueue = id -> shared;
+        }
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(queue, i, TimestampedMessages.factory(32), 0, false)));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            long tokens = i == 1 ? workTokens * slowFactor : workTokens;
+            threads.add(new Thread(new Consumer<>(consumerQueue.apply(i), i, message -> {
+                Blackhole.consumeCPU(tokens);
+                PipelineBenchmark.received(message, consumed);
+            }, 0, false)));
+        }
+        threads.forEach(Thread::start);
+
+        while (consumed.sum() < MESSAGES_PER_RUN) {
+            LockSupport.parkNanos(POLL_NANOS);
+        }
+
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        return consumed.sum();
+    }
+}
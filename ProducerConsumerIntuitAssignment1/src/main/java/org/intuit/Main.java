@@ -1,25 +1,157 @@
 package org.intuit;
 
 import org.intuit.consumer.Consumer;
+import org.intuit.consumer.MessageHandler;
+import org.intuit.flow.FlowControl;
+import org.intuit.flow.OverflowPolicy;
+import org.intuit.flow.RateLimiter;
+import org.intuit.flow.WatermarkThrottle;
+import org.intuit.logging.AsyncLog;
+import org.intuit.logging.LogLevel;
+import org.intuit.logging.PipelineLog;
+import org.intuit.metrics.MetricsReporter;
+import org.intuit.metrics.MetricsSnapshot;
+import org.intuit.metrics.PipelineMetrics;
 import org.intuit.producer.Producer;
+import org.intuit.queue.PersistentQueue;
+import org.intuit.queue.QueueType;
+import org.intuit.queue.ShardedQueue;
+import org.intuit.queue.WaitStrategy;
+import org.intuit.queue.WorkStealingQueue;
+import org.intuit.runtime.ConsumerAutoscaler;
+import org.intuit.runtime.PipelineRuntime;
+import org.intuit.runtime.ShutdownReport;
+import org.intuit.runtime.ThreadMode;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.IntFunction;
 
 /**
  * Main class to execute the multi-producer and multi-consumer system.
  * <p>
  * Features:
  * - Takes user input for number of producers, consumers, and buffer size.
- * - Uses ArrayBlockingQueue for thread-safe blocking queue operations.
- * - Starts all producers and consumers as independent threads.
- * - Automatically stops all threads after a user-specified duration.
+ * - Uses ArrayBlockingQueue for thread-safe blocking queue operations by default.
+ * - Starts all producers and consumers on executors ({@link PipelineRuntime}).
+ * - After a user-specified duration, or on Ctrl+C, stops the producers, lets the
+ *   consumers drain the buffer and then stops them, reporting what was drained,
+ *   dropped (retained with {@code --persist-dir}) and still in flight.
+ * <p>
+ * The queue implementation can be chosen with command-line options:
+ * <pre>
+ *   --queue=array_blocking|linked_blocking|linked_transfer|mpmc_ring   (default array_blocking)
+ *   --wait=block|spin_then_park|yield                                  (mpmc_ring only, default block)
+ *   --threads=platform|virtual                                         (default platform; virtual needs Java 21+)
+ *   --drain-ms=N                                                       (time to drain the buffer, default 2000)
+ *   --hard-stop-ms=N                                                   (time to wait for stopped threads, default 1000)
+ *   --shards=N                                                         (N queues of buffer size each, routed by producer;
+ *                                                                       needs N >= consumers; default 0 = one shared queue)
+ *   --scheduling=shared|work_stealing                                  (work_stealing: one deque per consumer, idle
+ *                                                                       consumers steal; ignores --queue; default shared)
+ *   --metrics-ms=N                                                     (print queue depth, per-worker rates, blocked time
+ *                                                                       and latency percentiles every N ms; default 0 = off)
+ *   --metrics-sample=N                                                 (time one in N messages end to end; default 64)
+ *   --log=async|sync                                                   (async: workers hand log lines to a writer thread;
+ *                                                                       sync: each worker prints itself; default async)
+ *   --log-level=debug|info|off                                         (debug: every message, info: lifecycle only;
+ *                                                                       default debug)
+ *   --log-sample=N                                                     (async: log one in N messages; default 1)
+ *   --log-file=PATH                                                    (async: write the log to PATH instead of stdout)
+ *   --overflow=block|drop_newest|drop_oldest|timeout                   (producer behaviour on a full buffer; default block)
+ *   --offer-timeout-ms=N                                               (wait of --overflow=timeout, default 100)
+ *   --rate=N                                                           (messages per second per producer, replacing
+ *                                                                       the fixed pause; default 0 = fixed pause)
+ *   --global-rate=N                                                    (messages per second of all producers; default 0 = off)
+ *   --high-watermark=PCT                                               (slow producers down from PCT% buffer occupancy;
+ *                                                                       default 0 = off)
+ *   --low-watermark=PCT                                                (speed them up again below PCT%, default PCT/2)
+ *   --max-consumers=N                                                  (autoscale consumers between the number entered
+ *                                                                       and N by buffer occupancy; shared queue only;
+ *                                                                       default 0 = fixed pool)
+ *   --autoscale-ms=N                                                   (autoscaler sampling interval, default 500)
+ *   --persist-dir=PATH                                                 (keep the buffer in memory-mapped files under PATH;
+ *                                                                       unbounded, messages left or not yet handled at exit
+ *                                                                       are consumed by the next run; shared queue only;
+ *                                                                       ignores --queue)
+ *   --fsync-every=N                                                    (force the files to disk every N messages;
+ *                                                                       default 0 = let the OS write back)
+ * </pre>
+ * Enum values are case-insensitive and '-' may be used instead of '_'.
  */
 public class Main {
 
+    /**
+     * How consumers get their messages.
+     */
+    enum Scheduling {
+        /** Every consumer takes from the shared queue (or its own shards). */
+        SHARED,
+        /** Each consumer has a local deque and steals from the others when idle. */
+        WORK_STEALING
+    }
+
+    /**
+     * How workers write their log lines.
+     */
+    enum Logging {
+        /** Through an {@link AsyncLog} writer thread. */
+        ASYNC,
+        /** Each worker prints to {@code System.out} itself. */
+        SYNC
+    }
+
+    static final long DEFAULT_DRAIN_MILLIS = 2000;
+    static final long DEFAULT_HARD_STOP_MILLIS = 1000;
+    static final long METRICS_SAMPLE_MILLIS = 10;
+    static final long DEFAULT_OFFER_TIMEOUT_MILLIS = 100;
+    static final long MAX_THROTTLE_MILLIS = 100;
+    static final long DEFAULT_AUTOSCALE_MILLIS = 500;
+    static final double AUTOSCALE_LOW_WATERMARK = 0.1;
+    static final double AUTOSCALE_HIGH_WATERMARK = 0.5;
+
     public static void main(String[] args) {
 
+        QueueType queueType = option(args, "--queue=", QueueType.class, QueueType.ARRAY_BLOCKING);
+        WaitStrategy waitStrategy = option(args, "--wait=", WaitStrategy.class, WaitStrategy.BLOCK);
+        ThreadFactory threadFactory = option(args, "--threads=", ThreadMode.class, ThreadMode.PLATFORM).threadFactory();
+        long drainMillis = longOption(args, "--drain-ms=", DEFAULT_DRAIN_MILLIS);
+        long hardStopMillis = longOption(args, "--hard-stop-ms=", DEFAULT_HARD_STOP_MILLIS);
+        int shards = (int) longOption(args, "--shards=", 0);
+        Scheduling scheduling = option(args, "--scheduling=", Scheduling.class, Scheduling.SHARED);
+        long metricsMillis = longOption(args, "--metrics-ms=", 0);
+        int metricsSample = (int) longOption(args, "--metrics-sample=", PipelineMetrics.DEFAULT_LATENCY_SAMPLE_EVERY);
+        Logging logging = option(args, "--log=", Logging.class, Logging.ASYNC);
+        LogLevel logLevel = option(args, "--log-level=", LogLevel.class, LogLevel.DEBUG);
+        int logSample = (int) longOption(args, "--log-sample=", 1);
+        String logFile = stringOption(args, "--log-file=", null);
+        FlowControl flowControl = flowControl(args);
+        long producerPause = longOption(args, "--rate=", 0) > 0 ? 0 : Producer.DEFAULT_PAUSE_MILLIS;
+        int maxConsumers = (int) longOption(args, "--max-consumers=", 0);
+        long autoscaleMillis = longOption(args, "--autoscale-ms=", DEFAULT_AUTOSCALE_MILLIS);
+        String persistDir = stringOption(args, "--persist-dir=", null);
+        int fsyncEvery = (int) longOption(args, "--fsync-every=", 0);
+        if (persistDir != null && (shards > 0 || scheduling == Scheduling.WORK_STEALING)) {
+            throw new IllegalArgumentException("--persist-dir needs the shared queue");
+        }
+        if (maxConsumers > 0 && (shards > 0 || scheduling == Scheduling.WORK_STEALING)) {
+            throw new IllegalArgumentException("--max-consumers needs the shared queue; consumers of shards and"
+                    + " work-stealing deques are not interchangeable");
+        }
+        if (logSample < 1) {
+            throw new IllegalArgumentException("--log-sample must be >= 1");
+        }
+        if (metricsSample < 1) {
+            throw new IllegalArgumentException("--metrics-sample must be >= 1");
+        }
+        if (shards > 0 && scheduling == Scheduling.WORK_STEALING) {
+            throw new IllegalArgumentException("--shards and --scheduling=work_stealing cannot be combined");
+        }
+
         Scanner sc = new Scanner(System.in);
 
         int numProducers = readPositiveInt(sc, "number of producers (>= 1)");
@@ -29,52 +161,187 @@ public class Main {
 
         sc.close();
 
-        // Shared BlockingQueue
-        List<Thread> threads = getThreads(bufferSize, numProducers, numConsumers);
+        // Shared BlockingQueue, or shards keyed by the "[P<id>]" tag so each producer's messages stay in order
+        BlockingQueue<String> queue;
+        IntFunction<BlockingQueue<String>> consumerQueue;
+        PersistentQueue persistent = persistDir == null ? null : openPersistentQueue(persistDir, fsyncEvery);
+        if (persistent != null) {
+            if (!persistent.isEmpty()) {
+                System.out.println("=== Resuming with " + persistent.size() + " messages from " + persistDir + " ===");
+            }
+            queue = persistent;
+            consumerQueue = id -> persistent;
+        } else if (scheduling == Scheduling.WORK_STEALING) {
+            // Same total capacity as the shared buffer, split over the consumers' deques
+            WorkStealingQueue stealing = new WorkStealingQueue(numConsumers,
+                    Math.max(1, (bufferSize + numConsumers - 1) / numConsumers));
+            queue = stealing;
+            consumerQueue = stealing::forConsumer;
+        } else if (shards > 0) {
+            ShardedQueue sharded = new ShardedQueue(shards, i -> queueType.create(bufferSize, waitStrategy),
+                    message -> message.substring(0, message.indexOf(']') + 1));
+            sharded.ownedBy(numConsumers, numConsumers);   // fail fast if there are fewer shards than consumers
+            queue = sharded;
+            consumerQueue = id -> sharded.ownedBy(id, numConsumers);
+        } else {
+            queue = queueType.create(bufferSize, waitStrategy);
+            consumerQueue = id -> queue;
+        }
 
-        // Allow program to run for specified duration
-        try {
-            Thread.sleep(duration * 1000L);
-        } catch (InterruptedException ignored) {
+        // Optional instrumentation: each worker gets a decorated view of its queue
+        PipelineMetrics metrics = metricsMillis > 0 ? new PipelineMetrics(queue, metricsSample) : null;
+        IntFunction<BlockingQueue<String>> instrumentedProducerQueue = metrics == null ? id -> queue
+                : id -> metrics.forProducer(queue, id);
+        IntFunction<BlockingQueue<String>> producerQueue = flowControl == null ? instrumentedProducerQueue
+                : id -> flowControl.forProducer(instrumentedProducerQueue.apply(id), id);
+        IntFunction<BlockingQueue<String>> instrumentedConsumerQueue = metrics == null ? consumerQueue
+                : id -> metrics.forConsumer(consumerQueue.apply(id), id);
+        MetricsSnapshot started = metrics == null ? null : metrics.snapshot();
+        MetricsReporter reporter = metrics == null ? null
+                : metrics.startReporter(Math.min(METRICS_SAMPLE_MILLIS, metricsMillis), metricsMillis, System.out);
+
+        AsyncLog asyncLog = logging == Logging.ASYNC ? openLog(logFile, logLevel, logSample) : null;
+        PipelineLog log = asyncLog != null ? asyncLog : PipelineLog.printing(System.out, logLevel);
+
+        // A persisted message is committed only once its consumer has handled it, so a crash redelivers it
+        MessageHandler<String> commit = persistent == null ? message -> { } : persistent::commit;
+        PipelineRuntime runtime = new PipelineRuntime(queue, threadFactory, commit, drainMillis, hardStopMillis);
+        ConsumerAutoscaler autoscaler = maxConsumers == 0 ? null : new ConsumerAutoscaler(runtime, queue,
+                numConsumers, Math.max(numConsumers, maxConsumers), AUTOSCALE_LOW_WATERMARK, AUTOSCALE_HIGH_WATERMARK,
+                bufferSize);   // full scale for the unbounded linked_transfer and persistent queues
+        IntFunction<BlockingQueue<String>> watchedConsumerQueue = autoscaler == null ? instrumentedConsumerQueue
+                : id -> autoscaler.watch(instrumentedConsumerQueue.apply(id));
+        runtime.start(numProducers, id -> new Producer<>(producerQueue.apply(id), id,
+                        Producer::compactMessage, producerPause, log),
+                numConsumers, (id, handler) -> new Consumer<>(watchedConsumerQueue.apply(id), id, handler,
+                        Consumer.DEFAULT_PAUSE_MILLIS, log));
+        if (autoscaler != null) {
+            autoscaler.start(Math.max(1, autoscaleMillis), System.out);
         }
 
-        System.out.println("\n=== Stopping all threads ===");
+        // Run for the specified duration (or until Ctrl+C / interrupt), then drain and stop
+        ShutdownReport report = runtime.awaitShutdown(duration * 1000L);
+        if (autoscaler != null) {
+            autoscaler.close();
+        }
+        if (asyncLog != null) {
+            asyncLog.close();   // write out the buffered tail before the summary
+        }
 
-        // Interrupt all producer and consumer threads
-        for (Thread t : threads) {
-            t.interrupt();
+        if (reporter != null) {
+            reporter.close();
+            metrics.sampleQueueDepth();
+            System.out.println("=== Whole run: " + metrics.snapshot().format(started) + " ===");
+        }
+        if (flowControl != null) {
+            System.out.println("=== Flow control: " + flowControl + " ===");
+        }
+        if (persistent != null) {
+            System.out.println("=== " + persistent.size() + " messages kept in " + persistDir + " for the next run ===");
+            persistent.close();
         }
+        System.out.println("\n=== All threads stopped: " + report + " ===");
+    }
 
-        // Wait for all threads to complete
-        for (Thread t : threads) {
-            try {
-                t.join();
-            } catch (InterruptedException ignored) {
-            }
+    /**
+     * Builds the producers' flow control from the options, or returns null
+     * when none is asked for.
+     */
+    static FlowControl flowControl(String[] args) {
+        OverflowPolicy overflow = option(args, "--overflow=", OverflowPolicy.class, OverflowPolicy.BLOCK);
+        long offerTimeout = longOption(args, "--offer-timeout-ms=", DEFAULT_OFFER_TIMEOUT_MILLIS);
+        long rate = longOption(args, "--rate=", 0);
+        long globalRate = longOption(args, "--global-rate=", 0);
+        long high = longOption(args, "--high-watermark=", 0);
+        long low = longOption(args, "--low-watermark=", high / 2);
+        if (high > 100 || (high > 0 && low >= high)) {
+            throw new IllegalArgumentException("Watermarks must satisfy --low-watermark < --high-watermark <= 100");
+        }
+        if (overflow == OverflowPolicy.BLOCK && rate == 0 && globalRate == 0 && high == 0) {
+            return null;
         }
+        // Buckets hold a tenth of a second's worth of messages, so short bursts pass unthrottled
+        return new FlowControl(overflow, offerTimeout,
+                globalRate > 0 ? new RateLimiter(globalRate, (int) Math.max(1, globalRate / 10)) : null,
+                rate > 0 ? id -> new RateLimiter(rate, (int) Math.max(1, rate / 10)) : null,
+                high > 0 ? new WatermarkThrottle(low / 100.0, high / 100.0, MAX_THROTTLE_MILLIS) : null);
+    }
 
-        System.out.println("=== All threads stopped. Program exiting. ===");
+    /**
+     * Returns the enum constant named by the first argument starting with {@code prefix},
+     * or {@code defaultValue} when there is none.
+     *
+     * @throws IllegalArgumentException if the value names no constant
+     */
+    static <E extends Enum<E>> E option(String[] args, String prefix, Class<E> type, E defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                String value = arg.substring(prefix.length()).trim().replace('-', '_');
+                try {
+                    return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown " + prefix + " value '" + value
+                            + "', expected one of " + Arrays.toString(type.getEnumConstants()));
+                }
+            }
+        }
+        return defaultValue;
     }
 
-    private static List<Thread> getThreads(int bufferSize, int numProducers, int numConsumers) {
-        BlockingQueue<String> queue = new ArrayBlockingQueue<>(bufferSize);
+    /**
+     * Returns the non-negative number given by the first argument starting with {@code prefix},
+     * or {@code defaultValue} when there is none.
+     *
+     * @throws IllegalArgumentException if the value is not a non-negative number
+     */
+    static long longOption(String[] args, String prefix, long defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                String value = arg.substring(prefix.length()).trim();
+                try {
+                    long parsed = Long.parseLong(value);
+                    if (parsed >= 0) {
+                        return parsed;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // reported below
+                }
+                throw new IllegalArgumentException("Invalid " + prefix + " value '" + value + "', expected a number >= 0");
+            }
+        }
+        return defaultValue;
+    }
 
-        List<Thread> threads = new ArrayList<>();
+    /**
+     * Returns the value of the first argument starting with {@code prefix},
+     * or {@code defaultValue} when there is none.
+     */
+    static String stringOption(String[] args, String prefix, String defaultValue) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length()).trim();
+            }
+        }
+        return defaultValue;
+    }
 
-        // Start producers
-        for (int i = 1; i <= numProducers; i++) {
-            Thread t = new Thread(new Producer(queue, i));
-            threads.add(t);
-            t.start();
+    private static AsyncLog openLog(String file, LogLevel level, int sampleEvery) {
+        if (file == null) {
+            return AsyncLog.to(System.out, level, sampleEvery);
+        }
+        try {
+            return AsyncLog.toFile(Path.of(file), level, sampleEvery);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open log file " + file, e);
         }
+    }
 
-        // Start consumers
-        for (int i = 1; i <= numConsumers; i++) {
-            Thread t = new Thread(new Consumer(queue, i));
-            threads.add(t);
-            t.start();
+    private static PersistentQueue openPersistentQueue(String dir, int syncEvery) {
+        try {
+            return new PersistentQueue(Path.of(dir), PersistentQueue.DEFAULT_SEGMENT_BYTES, syncEvery);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open persistent queue in " + dir, e);
         }
-        return threads;
     }
 
     /**
@@ -0,0 +1,18 @@
+package org.intuit.consumer;
+
+import java.util.List;
+
+/**
+ * Processes the batches a {@link Consumer} in batch mode drains from the queue.
+ * <p>
+ * Each consumer calls its handler from its own thread only, with messages in
+ * the order they were taken. The list is reused for the next batch, so copy
+ * it if it must outlive the call.
+ *
+ * @param <T> message type
+ */
+@FunctionalInterface
+public interface BatchHandler<T> {
+
+    void handle(List<T> batch);
+}
@@ -1,7 +1,12 @@
 package org.intuit.consumer;
 
-import java.time.LocalDateTime;
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Consumer class removes messages from a shared BlockingQueue and "processes" them.
@@ -11,34 +16,188 @@ import java.util.concurrent.BlockingQueue;
  * - Consumes messages generated by producers.
  * - Blocks until messages are available.
  * - Stops gracefully when interrupted.
+ * <p>
+ * A {@link MessageHandler}, the pause after each message and logging can be
+ * configured, e.g. to run the pipeline at full speed in benchmarks. Log
+ * records go to a {@link PipelineLog}; an {@link org.intuit.logging.AsyncLog}
+ * keeps the consumer off the synchronized {@code System.out}.
+ * <p>
+ * In batch mode (a {@link BatchHandler}) the consumer blocks for the first
+ * message, then drains up to {@code batchSize - 1} more with
+ * {@link BlockingQueue#drainTo(java.util.Collection, int)}, lingering up to
+ * {@code lingerMillis} for the batch to fill, and hands the whole batch over
+ * at once. That is one queue lock acquisition and at most one park per
+ * batch instead of per message.
+ *
+ * @param <T> message type
  */
-public class Consumer implements Runnable {
+public class Consumer<T> implements Runnable {
 
-    private final BlockingQueue<String> queue;  // Shared buffer
+    /** Pause after each message used by the demo application. */
+    public static final long DEFAULT_PAUSE_MILLIS = 800;
+
+    private final BlockingQueue<T> queue;       // Shared buffer
     private final int consumerId;               // Unique identifier for each consumer
+    private final MessageHandler<T> handler;    // null in batch mode
+    private final long pauseMillis;             // 0 = consume as fast as messages arrive
+    private final PipelineLog log;
+
+    private final BatchHandler<T> batchHandler; // null in per-message mode
+    private final int batchSize;
+    private final long lingerNanos;
+
+    public Consumer(BlockingQueue<T> queue, int consumerId) {
+        this(queue, consumerId, message -> { }, DEFAULT_PAUSE_MILLIS, true);
+    }
+
+    /**
+     * @param handler     processes each message
+     * @param pauseMillis sleep after each message; 0 disables pacing
+     * @param logging     whether to print every consumed message and the shutdown notice
+     */
+    public Consumer(BlockingQueue<T> queue, int consumerId, MessageHandler<T> handler,
+                    long pauseMillis, boolean logging) {
+        this(queue, consumerId, handler, pauseMillis, logging ? PipelineLog.console() : PipelineLog.off());
+    }
 
-    public Consumer(BlockingQueue<String> queue, int consumerId) {
+    /**
+     * @param handler     processes each message
+     * @param pauseMillis sleep after each message; 0 disables pacing
+     * @param log         receives every consumed message and the shutdown notice
+     */
+    public Consumer(BlockingQueue<T> queue, int consumerId, MessageHandler<T> handler,
+                    long pauseMillis, PipelineLog log) {
         this.queue = queue;
         this.consumerId = consumerId;
+        this.handler = handler;
+        this.pauseMillis = pauseMillis;
+        this.log = log;
+        this.batchHandler = null;
+        this.batchSize = 1;
+        this.lingerNanos = 0;
+    }
+
+    /**
+     * Batch mode.
+     *
+     * @param batchHandler processes each batch
+     * @param batchSize    maximum messages per batch (>= 1)
+     * @param lingerMillis how long to wait for a partial batch to fill after its
+     *                     first message; 0 hands over whatever is queued at once
+     * @param logging      whether to print every consumed message and the shutdown notice
+     */
+    public Consumer(BlockingQueue<T> queue, int consumerId, BatchHandler<T> batchHandler,
+                    int batchSize, long lingerMillis, boolean logging) {
+        this(queue, consumerId, batchHandler, batchSize, lingerMillis,
+                logging ? PipelineLog.console() : PipelineLog.off());
+    }
+
+    /**
+     * Batch mode.
+     *
+     * @param batchHandler processes each batch
+     * @param batchSize    maximum messages per batch (>= 1)
+     * @param lingerMillis how long to wait for a partial batch to fill after its
+     *                     first message; 0 hands over whatever is queued at once
+     * @param log          receives every consumed message and the shutdown notice
+     */
+    public Consumer(BlockingQueue<T> queue, int consumerId, BatchHandler<T> batchHandler,
+                    int batchSize, long lingerMillis, PipelineLog log) {
+        if (batchSize < 1 || lingerMillis < 0) {
+            throw new IllegalArgumentException("batchSize must be >= 1 and lingerMillis >= 0");
+        }
+        this.queue = queue;
+        this.consumerId = consumerId;
+        this.handler = null;
+        this.pauseMillis = 0;
+        this.log = log;
+        this.batchHandler = batchHandler;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
     }
 
     @Override
     public void run() {
+        if (batchHandler != null) {
+            runBatched();
+            return;
+        }
         try {
             // Continue consuming until thread is interrupted
             while (!Thread.currentThread().isInterrupted()) {
 
                 // Blocks if queue is empty
-                String message = queue.take();
+                T message = queue.take();
+
+                // Logged first: the handler may release a pooled message for reuse
+                log.log(LogEvent.CONSUMED, consumerId, message);
 
-                System.out.println(LocalDateTime.now() + "     [CONSUMED by C" + consumerId + "] -> " + message);
+                handler.handle(message);
 
-                Thread.sleep(800);
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
             }
 
         } catch (InterruptedException e) {
-            System.out.println("Consumer " + consumerId + " interrupted.");
+            log.log(LogEvent.CONSUMER_STOPPED, consumerId, null);
             Thread.currentThread().interrupt();
         }
     }
+
+    private void runBatched() {
+        List<T> batch = new ArrayList<>(batchSize);
+        boolean interrupted = false;
+        try {
+            while (!interrupted && !Thread.currentThread().isInterrupted()) {
+
+                // Blocks if queue is empty
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                if (batch.size() < batchSize && lingerNanos > 0) {
+                    interrupted = linger(batch);
+                }
+
+                for (T message : batch) {
+                    log.log(LogEvent.CONSUMED, consumerId, message);
+                }
+
+                // Messages already taken off the queue are always processed, even when interrupted
+                batchHandler.handle(batch);
+                batch.clear();
+            }
+
+        } catch (InterruptedException e) {
+            // Interrupted in take() with an empty batch: nothing to hand over
+        }
+        log.log(LogEvent.CONSUMER_STOPPED, consumerId, null);
+        Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Waits up to the linger time for {@code batch} to fill.
+     *
+     * @return whether the thread was interrupted meanwhile
+     */
+    private boolean linger(List<T> batch) {
+        long deadline = System.nanoTime() + lingerNanos;
+        try {
+            while (batch.size() < batchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                T message = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (message == null) {
+                    break;
+                }
+                batch.add(message);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package org.intuit.consumer;
+
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * {@link Consumer} for queues of batch envelopes, as published by
+ * {@link org.intuit.producer.BatchPublisher#envelopes}. Takes one envelope
+ * per queue operation and hands its messages to a {@link MessageHandler} in
+ * order. Stops when interrupted; an envelope already taken is finished first.
+ */
+public class EnvelopeConsumer implements Runnable {
+
+    private final BlockingQueue<List<String>> queue;
+    private final int consumerId;
+    private final MessageHandler<String> handler;
+    private final PipelineLog log;
+
+    /**
+     * @param log receives every consumed message and the shutdown notice
+     */
+    public EnvelopeConsumer(BlockingQueue<List<String>> queue, int consumerId, MessageHandler<String> handler,
+                            PipelineLog log) {
+        this.queue = queue;
+        this.consumerId = consumerId;
+        this.handler = handler;
+        this.log = log;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+
+                // Blocks if queue is empty
+                List<String> envelope = queue.take();
+
+                for (String message : envelope) {
+                    handler.handle(message);
+                    log.log(LogEvent.CONSUMED, consumerId, message);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            log.log(LogEvent.CONSUMER_STOPPED, consumerId, null);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.intuit.consumer;
+
+/**
+ * Processes {@link org.intuit.queue.RingBuffer} slots in place.
+ *
+ * @param <E> slot type
+ */
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * @param event      published slot; only valid until this call returns
+     * @param sequence   ring sequence of the slot
+     * @param endOfBatch {@code true} for the last event this consumer gets from
+     *                   the currently published batch, e.g. to flush buffered work
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch);
+}
@@ -0,0 +1,14 @@
+package org.intuit.consumer;
+
+/**
+ * Processes each message a {@link Consumer} takes from the queue.
+ * <p>
+ * Each consumer calls its handler from its own thread only.
+ *
+ * @param <T> message type
+ */
+@FunctionalInterface
+public interface MessageHandler<T> {
+
+    void handle(T message);
+}
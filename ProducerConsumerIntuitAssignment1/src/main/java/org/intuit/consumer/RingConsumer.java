@@ -0,0 +1,83 @@
+package org.intuit.consumer;
+
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+import org.intuit.queue.RingBuffer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Consumer} counterpart for a {@link RingBuffer}: waits for published
+ * slots and hands every available one to an {@link EventHandler} in a single
+ * batch, without copying.
+ * <p>
+ * Like {@link Consumer}, each message is processed by exactly one of the
+ * {@code consumerCount} consumers sharing the ring: consumer {@code i} (1-based)
+ * handles the sequences where {@code sequence % consumerCount == i - 1}. Every
+ * consumer still walks the whole ring, so producers wait for the slowest one.
+ * <p>
+ * Registers with the ring on construction, so create all consumers before
+ * starting the producers. Stops when interrupted.
+ *
+ * @param <E> slot type
+ */
+public class RingConsumer<E> implements Runnable {
+
+    private final RingBuffer<E> ring;
+    private final int consumerId;
+    private final EventHandler<E> handler;
+    private final int consumerCount;
+    private final AtomicLong sequence;
+    private final PipelineLog log;
+
+    /**
+     * @param consumerId    1..consumerCount
+     * @param consumerCount number of consumers sharing the ring
+     */
+    public RingConsumer(RingBuffer<E> ring, int consumerId, EventHandler<E> handler, int consumerCount) {
+        this(ring, consumerId, handler, consumerCount, PipelineLog.console());
+    }
+
+    /**
+     * @param consumerId    1..consumerCount
+     * @param consumerCount number of consumers sharing the ring
+     * @param log           receives the shutdown notice
+     */
+    public RingConsumer(RingBuffer<E> ring, int consumerId, EventHandler<E> handler, int consumerCount,
+                        PipelineLog log) {
+        if (consumerId < 1 || consumerId > consumerCount) {
+            throw new IllegalArgumentException("consumerId must be in 1.." + consumerCount + " but was " + consumerId);
+        }
+        this.ring = ring;
+        this.consumerId = consumerId;
+        this.handler = handler;
+        this.consumerCount = consumerCount;
+        this.log = log;
+        this.sequence = ring.addConsumer();
+    }
+
+    @Override
+    public void run() {
+        long ordinal = consumerId - 1;
+        try {
+            long next = sequence.get() + 1;
+            while (!Thread.currentThread().isInterrupted()) {
+
+                // Blocks until at least one slot is published
+                long available = ring.waitFor(next);
+
+                for (long s = next; s <= available; s++) {
+                    if (s % consumerCount == ordinal) {
+                        handler.onEvent(ring.get(s), s, s + consumerCount > available);
+                    }
+                }
+                ring.release(sequence, available);
+                next = available + 1;
+            }
+
+        } catch (InterruptedException e) {
+            log.log(LogEvent.CONSUMER_STOPPED, consumerId, null);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
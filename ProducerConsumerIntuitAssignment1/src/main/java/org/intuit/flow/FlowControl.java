@@ -0,0 +1,117 @@
+package org.intuit.flow;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Flow control for producers: rate limits, occupancy-driven throttling
+ * and a policy for a full queue.
+ * <p>
+ * Producers are put under flow control by handing them the queue returned
+ * by {@link #forProducer}; {@code Producer} itself is unchanged. Every
+ * {@code put} through that queue
+ * <ol>
+ *     <li>takes a permit from the producer's own {@link RateLimiter}, if any,</li>
+ *     <li>takes a permit from the global {@link RateLimiter} shared by all producers, if any,</li>
+ *     <li>waits the delay the {@link WatermarkThrottle} asks for, if any,</li>
+ *     <li>and then inserts according to the {@link OverflowPolicy}.</li>
+ * </ol>
+ * With any policy other than {@link OverflowPolicy#BLOCK}, a producer never
+ * waits for consumers for longer than the offer timeout, so latency stays
+ * bounded under overload at the price of losing messages; the losses are
+ * counted here. Components passed as {@code null} are disabled.
+ */
+public class FlowControl {
+
+    private final OverflowPolicy overflow;
+    private final long offerTimeoutNanos;
+    private final RateLimiter globalLimit;
+    private final IntFunction<RateLimiter> producerLimit;
+    private final WatermarkThrottle throttle;
+
+    final LongAdder dropped = new LongAdder();
+    final LongAdder evicted = new LongAdder();
+    final LongAdder throttledNanos = new LongAdder();
+
+    /**
+     * @param overflow           what to do when the queue is full
+     * @param offerTimeoutMillis how long {@link OverflowPolicy#TIMEOUT} waits for space
+     * @param globalLimit        limit shared by all producers, or null
+     * @param producerLimit      creates each producer's own limit from its id, or null
+     * @param throttle           occupancy-driven throttle shared by all producers, or null
+     */
+    public FlowControl(OverflowPolicy overflow, long offerTimeoutMillis, RateLimiter globalLimit,
+                       IntFunction<RateLimiter> producerLimit, WatermarkThrottle throttle) {
+        if (offerTimeoutMillis < 0) {
+            throw new IllegalArgumentException("offerTimeoutMillis must be >= 0 but was " + offerTimeoutMillis);
+        }
+        this.overflow = overflow;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.globalLimit = globalLimit;
+        this.producerLimit = producerLimit;
+        this.throttle = throttle;
+    }
+
+    /**
+     * Queue for producer {@code producerId}: {@code put} is flow-controlled,
+     * every other operation goes straight to {@code queue}.
+     */
+    public <E> BlockingQueue<E> forProducer(BlockingQueue<E> queue, int producerId) {
+        RateLimiter own = producerLimit == null ? null : producerLimit.apply(producerId);
+        return new FlowControlledQueue<>(queue, this, own);
+    }
+
+    /**
+     * Waits for the rate limits and the throttle before a message is published.
+     */
+    void admit(BlockingQueue<?> queue, RateLimiter own) throws InterruptedException {
+        long waited = 0;
+        if (own != null) {
+            waited += own.acquire();
+        }
+        if (globalLimit != null) {
+            waited += globalLimit.acquire();
+        }
+        if (throttle != null) {
+            long delay = throttle.delayFor(queue);
+            if (delay > 0) {
+                TimeUnit.NANOSECONDS.sleep(delay);
+                waited += delay;
+            }
+        }
+        if (waited > 0) {
+            throttledNanos.add(waited);
+        }
+    }
+
+    OverflowPolicy getOverflow() {
+        return overflow;
+    }
+
+    long getOfferTimeoutNanos() {
+        return offerTimeoutNanos;
+    }
+
+    /** Messages discarded by {@link OverflowPolicy#DROP_NEWEST} or {@link OverflowPolicy#TIMEOUT}. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Queued messages evicted by {@link OverflowPolicy#DROP_OLDEST}. */
+    public long getEvictedCount() {
+        return evicted.sum();
+    }
+
+    /** Total time producers waited for rate limits and the throttle. */
+    public long getThrottledNanos() {
+        return throttledNanos.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "overflow=" + overflow + ", dropped=" + getDroppedCount() + ", evicted=" + getEvictedCount()
+                + ", throttled " + TimeUnit.NANOSECONDS.toMillis(getThrottledNanos()) + " ms";
+    }
+}
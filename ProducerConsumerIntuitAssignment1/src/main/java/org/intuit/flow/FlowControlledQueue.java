@@ -0,0 +1,116 @@
+package org.intuit.flow;
+
+import org.intuit.queue.EvictingQueue;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One producer's view of a queue under {@link FlowControl}. Only
+ * {@link #put} is controlled; everything else is forwarded unchanged.
+ */
+class FlowControlledQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final BlockingQueue<E> delegate;
+    private final FlowControl control;
+    private final RateLimiter own;
+
+    FlowControlledQueue(BlockingQueue<E> delegate, FlowControl control, RateLimiter own) {
+        this.delegate = delegate;
+        this.control = control;
+        this.own = own;
+    }
+
+    /**
+     * Waits for the rate limits and the throttle, then inserts according to
+     * the overflow policy. Returns normally when the message was dropped.
+     */
+    @Override
+    public void put(E e) throws InterruptedException {
+        control.admit(delegate, own);
+        switch (control.getOverflow()) {
+            case BLOCK:
+                delegate.put(e);
+                break;
+            case DROP_NEWEST:
+                if (!delegate.offer(e)) {
+                    control.dropped.increment();
+                }
+                break;
+            case DROP_OLDEST:
+                while (!delegate.offer(e)) {
+                    if (EvictingQueue.evictOldest(delegate, e) != null) {
+                        control.evicted.increment();
+                    }
+                }
+                break;
+            case TIMEOUT:
+                if (!delegate.offer(e, control.getOfferTimeoutNanos(), TimeUnit.NANOSECONDS)) {
+                    control.dropped.increment();
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown overflow policy " + control.getOverflow());
+        }
+    }
+
+    // ---- unchanged ----
+
+    @Override
+    public boolean offer(E e) {
+        return delegate.offer(e);
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.offer(e, timeout, unit);
+    }
+
+    @Override
+    public E poll() {
+        return delegate.poll();
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        return delegate.take();
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.poll(timeout, unit);
+    }
+
+    @Override
+    public E peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return delegate.drainTo(c);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        return delegate.drainTo(c, maxElements);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return delegate.remainingCapacity();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return delegate.iterator();
+    }
+}
@@ -0,0 +1,20 @@
+package org.intuit.flow;
+
+/**
+ * What a flow-controlled producer does when the queue is full.
+ */
+public enum OverflowPolicy {
+    /** Wait for space, as a plain {@code put} does. Latency is unbounded under overload. */
+    BLOCK,
+    /** Discard the message being published. */
+    DROP_NEWEST,
+    /**
+     * Evict the oldest queued messages until the new one fits. A
+     * {@link org.intuit.queue.ShardedQueue} evicts from the shard the new
+     * message is routed to; other queues with several internal queues
+     * (work-stealing) take from whichever one {@code poll()} serves next.
+     */
+    DROP_OLDEST,
+    /** Wait up to the offer timeout, then discard the message being published. */
+    TIMEOUT
+}
@@ -0,0 +1,79 @@
+package org.intuit.flow;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket: {@code permitsPerSecond} tokens are added
+ * continuously, up to {@code burst} tokens are stored, and each permit
+ * takes one. Safe to share between threads; a limiter shared by all
+ * producers is a global limit.
+ * <p>
+ * The bucket is a single timestamp: the time from which the stored tokens
+ * have been accruing. Taking a permit moves it forward by one token's worth
+ * with a CAS, so a waiting caller has already reserved its permit and only
+ * sleeps out the difference.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;   // time to earn one token
+    private final long burstNanos;      // time to fill the bucket
+    private final AtomicLong accruingSince;
+
+    /**
+     * @param permitsPerSecond sustained rate (> 0)
+     * @param burst            tokens the bucket holds (>= 1); the bucket starts full
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0) || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0 and burst >= 1");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.accruingSince = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * Takes a permit, waiting until one is available.
+     *
+     * @return nanoseconds waited
+     * @throws InterruptedException if interrupted while waiting; the permit is spent
+     */
+    public long acquire() throws InterruptedException {
+        long now = System.nanoTime();
+        long since;
+        long next;
+        do {
+            since = accruingSince.get();
+            next = Math.max(since, now - burstNanos) + intervalNanos;
+        } while (!accruingSince.compareAndSet(since, next));
+
+        long deadline = next;   // the reserved token is earned at this time
+        long waited = Math.max(0, deadline - now);
+        while (deadline - System.nanoTime() > 0) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return waited;
+    }
+
+    /**
+     * Takes a permit if one is available now.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long since = accruingSince.get();
+            long next = Math.max(since, now - burstNanos) + intervalNanos;
+            if (next - now > 0) {
+                return false;
+            }
+            if (accruingSince.compareAndSet(since, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.intuit.flow;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive producer throttling driven by queue occupancy.
+ * <p>
+ * Each publish first checks how full the queue is. At or above the high
+ * watermark the delay imposed on producers doubles (starting at
+ * {@value #MIN_DELAY_MICROS} µs, capped at {@code maxDelayMillis}); at or
+ * below the low watermark it halves back towards zero; in between it is
+ * kept. Producers therefore slow down smoothly before the queue is full,
+ * instead of piling up in {@code put}, and speed up again once consumers
+ * catch up. One throttle shared by all producers reacts to their combined
+ * pressure.
+ */
+public class WatermarkThrottle {
+
+    static final long MIN_DELAY_MICROS = 100;
+
+    private final double lowWatermark;
+    private final double highWatermark;
+    private final long maxDelayNanos;
+    private final AtomicLong delayNanos = new AtomicLong();
+
+    /**
+     * @param lowWatermark   occupancy (0–1) at or below which producers speed up
+     * @param highWatermark  occupancy (0–1) at or above which producers slow down
+     * @param maxDelayMillis largest delay per message (>= 1)
+     */
+    public WatermarkThrottle(double lowWatermark, double highWatermark, long maxDelayMillis) {
+        if (!(0 <= lowWatermark && lowWatermark < highWatermark && highWatermark <= 1) || maxDelayMillis < 1) {
+            throw new IllegalArgumentException("0 <= lowWatermark < highWatermark <= 1 and maxDelayMillis >= 1 required");
+        }
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    /**
+     * Adjusts the delay for the occupancy of {@code queue} and returns it.
+     * Unbounded queues never count as full.
+     */
+    long delayFor(BlockingQueue<?> queue) {
+        int size = queue.size();
+        long capacity = (long) size + queue.remainingCapacity();
+        double occupancy = capacity == 0 ? 1 : (double) size / capacity;
+        long delay = delayNanos.get();
+        if (occupancy >= highWatermark) {
+            long slower = delay == 0 ? TimeUnit.MICROSECONDS.toNanos(MIN_DELAY_MICROS) : Math.min(maxDelayNanos, delay * 2);
+            delayNanos.compareAndSet(delay, slower);   // lost races are fine: another producer adjusted it
+            return slower;
+        }
+        if (occupancy <= lowWatermark && delay > 0) {
+            long faster = delay / 2 < TimeUnit.MICROSECONDS.toNanos(MIN_DELAY_MICROS) ? 0 : delay / 2;
+            delayNanos.compareAndSet(delay, faster);
+            return faster;
+        }
+        return delay;
+    }
+
+    /** Current delay per message, in nanoseconds. */
+    public long getDelayNanos() {
+        return delayNanos.get();
+    }
+}
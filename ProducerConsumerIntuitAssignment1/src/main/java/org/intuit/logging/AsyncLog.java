@@ -0,0 +1,204 @@
+package org.intuit.logging;
+
+import org.intuit.queue.MpmcRingBuffer;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PipelineLog} that never makes a worker wait for I/O.
+ * <p>
+ * {@link #log} only captures the event, the time and the message and
+ * offers them to a lock-free {@link MpmcRingBuffer}. A {@code String}
+ * message is kept by reference; any other message, such as a pooled
+ * {@link org.intuit.message.Message} that is reused once released, is
+ * rendered with {@code toString()} before {@code log} returns. A single writer
+ * thread takes records in batches of up to {@value #BATCH_SIZE}, formats
+ * them and writes each batch with one write and one flush. When the buffer
+ * is full the record is dropped and counted instead of blocking the worker;
+ * the writer reports drops in the output.
+ * <p>
+ * Events below the configured {@link LogLevel} are discarded up front.
+ * With {@code sampleEvery} > 1, only a random one in {@code sampleEvery}
+ * per-message events is kept; lifecycle events are never sampled.
+ * <p>
+ * {@link #close()} writes everything still buffered and stops the writer.
+ * Records logged after that are ignored.
+ */
+public class AsyncLog implements PipelineLog, AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    static final int BATCH_SIZE = 1024;
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    private final MpmcRingBuffer<LogRecord> buffer;
+    private final Writer out;
+    private final boolean closeOut;
+    private final LogLevel level;
+    private final int sampleEvery;
+    private final Thread writer;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private volatile boolean closed;
+    private long droppedReported;   // writer thread only
+
+    /**
+     * @param out         destination; written only by the writer thread
+     * @param closeOut    whether {@link #close()} also closes {@code out}
+     * @param level       lowest level written
+     * @param sampleEvery keep one in this many per-message events (>= 1)
+     * @param capacity    records buffered before new ones are dropped
+     */
+    public AsyncLog(Writer out, boolean closeOut, LogLevel level, int sampleEvery, int capacity) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be >= 1 but was " + sampleEvery);
+        }
+        this.buffer = new MpmcRingBuffer<>(capacity);
+        this.out = out;
+        this.closeOut = closeOut;
+        this.level = level;
+        this.sampleEvery = sampleEvery;
+        this.writer = new Thread(this::writeLoop, "pipeline-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Logs to {@code stream}, which is left open on close.
+     */
+    public static AsyncLog to(PrintStream stream, LogLevel level, int sampleEvery) {
+        return new AsyncLog(new OutputStreamWriter(stream, Charset.defaultCharset()), false, level, sampleEvery,
+                DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Logs to {@code file} (UTF-8), replacing its contents. The file is closed on close.
+     */
+    public static AsyncLog toFile(Path file, LogLevel level, int sampleEvery) throws IOException {
+        // FileOutputStream rather than a channel-based writer: channels close themselves on interrupt
+        Writer fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file.toFile()),
+                StandardCharsets.UTF_8));
+        return new AsyncLog(fileWriter, true, level, sampleEvery, DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void log(LogEvent event, int workerId, Object message) {
+        if (closed || !event.isEnabled(level)) {
+            return;
+        }
+        if (sampleEvery > 1 && event.isSampled() && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return;
+        }
+        // Only immutable Strings may be formatted later on the writer thread
+        Object captured = message == null || message instanceof String ? message : message.toString();
+        if (!buffer.offer(new LogRecord(event, System.currentTimeMillis(), workerId, captured))) {
+            dropped.increment();
+        }
+    }
+
+    /** Records dropped because the buffer was full or the output failed. */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /** Records written so far. */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Stops accepting records, waits for the writer to write everything
+     * still buffered, and closes the output if it is owned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;   // finish closing; the log must not lose its tail
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+        StringBuilder text = new StringBuilder(BATCH_SIZE * 96);
+        boolean failed = false;
+        while (!closed || !buffer.isEmpty()) {
+            try {
+                LogRecord first = buffer.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                closed = true;   // nobody else interrupts the writer; treat it as close()
+                continue;
+            }
+            buffer.drainTo(batch, BATCH_SIZE - 1);
+            if (failed) {
+                dropped.add(batch.size());
+            } else {
+                failed = !write(batch, text);
+            }
+            batch.clear();
+        }
+        if (!failed && dropped.sum() > droppedReported) {
+            write(batch, text);   // report drops that no later record carried out
+        }
+        if (closeOut) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                System.err.println("Closing the pipeline log failed: " + e);
+            }
+        }
+    }
+
+    /**
+     * Formats and writes one batch.
+     *
+     * @return false if the output failed; the batch is then counted as dropped
+     */
+    private boolean write(List<LogRecord> batch, StringBuilder text) {
+        text.setLength(0);
+        for (LogRecord record : batch) {
+            record.event.format(text, record.epochMillis, record.workerId, record.message);
+            text.append(System.lineSeparator());
+        }
+        long droppedNow = dropped.sum();
+        if (droppedNow > droppedReported) {
+            text.append("[log] ").append(droppedNow - droppedReported)
+                    .append(" records dropped, log buffer full").append(System.lineSeparator());
+            droppedReported = droppedNow;
+        }
+        try {
+            out.append(text);
+            out.flush();
+            written.add(batch.size());
+            return true;
+        } catch (IOException e) {
+            System.err.println("Writing the pipeline log failed, dropping further records: " + e);
+            dropped.add(batch.size());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.intuit.logging;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * What a worker logs. Each event knows its level, whether it may be
+ * sampled away and how it is rendered, so workers hand over only the raw
+ * parts and the formatting can happen on another thread.
+ */
+public enum LogEvent {
+
+    PRODUCED(LogLevel.DEBUG, true) {
+        @Override
+        void format(StringBuilder out, long epochMillis, int workerId, Object message) {
+            timestamp(out, epochMillis).append(" [PRODUCED by P").append(workerId).append("] -> ").append(message);
+        }
+    },
+
+    CONSUMED(LogLevel.DEBUG, true) {
+        @Override
+        void format(StringBuilder out, long epochMillis, int workerId, Object message) {
+            timestamp(out, epochMillis).append("     [CONSUMED by C").append(workerId).append("] -> ").append(message);
+        }
+    },
+
+    PRODUCER_STOPPED(LogLevel.INFO, false) {
+        @Override
+        void format(StringBuilder out, long epochMillis, int workerId, Object message) {
+            out.append("Producer ").append(workerId).append(" interrupted.");
+        }
+    },
+
+    CONSUMER_STOPPED(LogLevel.INFO, false) {
+        @Override
+        void format(StringBuilder out, long epochMillis, int workerId, Object message) {
+            out.append("Consumer ").append(workerId).append(" interrupted.");
+        }
+    };
+
+    private final LogLevel level;
+    private final boolean sampled;
+
+    LogEvent(LogLevel level, boolean sampled) {
+        this.level = level;
+        this.sampled = sampled;
+    }
+
+    public LogLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Whether a sampling log may skip this event. Lifecycle events are always written.
+     */
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    boolean isEnabled(LogLevel threshold) {
+        return threshold != LogLevel.OFF && level.compareTo(threshold) >= 0;
+    }
+
+    /**
+     * Appends the rendered line, without a line separator.
+     *
+     * @param message the message the event is about; may be null for lifecycle events
+     */
+    abstract void format(StringBuilder out, long epochMillis, int workerId, Object message);
+
+    private static StringBuilder timestamp(StringBuilder out, long epochMillis) {
+        return out.append(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,13 @@
+package org.intuit.logging;
+
+/**
+ * Severity of a {@link LogEvent}. A log configured for a level writes
+ * events of that level and above; {@link #OFF} writes nothing.
+ */
+public enum LogLevel {
+    /** Per-message records: every message produced or consumed. */
+    DEBUG,
+    /** Lifecycle records, e.g. a worker stopping. */
+    INFO,
+    OFF
+}
@@ -0,0 +1,19 @@
+package org.intuit.logging;
+
+/**
+ * One event waiting in an {@link AsyncLog} buffer, still unformatted.
+ */
+final class LogRecord {
+
+    final LogEvent event;
+    final long epochMillis;
+    final int workerId;
+    final Object message;
+
+    LogRecord(LogEvent event, long epochMillis, int workerId, Object message) {
+        this.event = event;
+        this.epochMillis = epochMillis;
+        this.workerId = workerId;
+        this.message = message;
+    }
+}
@@ -0,0 +1,47 @@
+package org.intuit.logging;
+
+import java.io.PrintStream;
+
+/**
+ * Where producers and consumers report what they do.
+ * <p>
+ * {@link #printing} writes each record synchronously, which is how the
+ * workers have always logged; {@link AsyncLog} hands records to a writer
+ * thread instead, so workers never wait for I/O.
+ */
+@FunctionalInterface
+public interface PipelineLog {
+
+    /**
+     * @param workerId id of the calling producer or consumer
+     * @param message  the message the event is about; null for lifecycle events. It
+     *                 may be mutable and reused once this call returns, so an
+     *                 implementation must not keep it unless it is a {@code String}
+     */
+    void log(LogEvent event, int workerId, Object message);
+
+    /** Discards everything. */
+    static PipelineLog off() {
+        return (event, workerId, message) -> { };
+    }
+
+    /** Writes every event to {@link System#out} synchronously. */
+    static PipelineLog console() {
+        return printing(System.out, LogLevel.DEBUG);
+    }
+
+    /**
+     * Writes events of {@code level} and above to {@code out} on the calling
+     * thread. {@code PrintStream} is synchronized, so concurrent workers take
+     * turns on it.
+     */
+    static PipelineLog printing(PrintStream out, LogLevel level) {
+        return (event, workerId, message) -> {
+            if (event.isEnabled(level)) {
+                StringBuilder line = new StringBuilder(64);
+                event.format(line, System.currentTimeMillis(), workerId, message);
+                out.println(line);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package org.intuit.message;
+
+/**
+ * Typed message: who sent it, its per-producer sequence number, when it
+ * was created and a payload.
+ * <p>
+ * Creating one costs a {@link System#nanoTime()} call and no formatting,
+ * unlike {@link org.intuit.producer.Producer#defaultMessage}, and the
+ * timestamp gives consumers an exact end-to-end latency ({@link #ageNanos()}).
+ * <p>
+ * Messages from a {@link MessagePool} are recycled: after
+ * {@link MessagePool#release} the same instance carries another message,
+ * so it must not be kept. Producers and consumers log a message before
+ * handing it on, and {@link org.intuit.logging.AsyncLog} renders
+ * non-{@code String} messages before returning, so log lines always show
+ * the message as it was logged.
+ *
+ * @param <T> payload type
+ */
+public class Message<T> {
+
+    private int producerId;
+    private long sequence;
+    private long timestampNanos;
+    private T payload;
+    boolean free;   // in the pool; guards against releasing twice
+
+    /**
+     * Unpooled message, timestamped now.
+     */
+    public Message(int producerId, long sequence, T payload) {
+        set(producerId, sequence, payload);
+    }
+
+    void set(int producerId, long sequence, T payload) {
+        this.producerId = producerId;
+        this.sequence = sequence;
+        this.payload = payload;
+        this.timestampNanos = System.nanoTime();
+    }
+
+    void clear() {
+        this.payload = null;   // let the payload be collected while the shell waits in the pool
+    }
+
+    public int getProducerId() {
+        return producerId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /** {@link System#nanoTime()} when the message was created. */
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    public T getPayload() {
+        return payload;
+    }
+
+    /** Nanoseconds since the message was created. */
+    public long ageNanos() {
+        return System.nanoTime() - timestampNanos;
+    }
+
+    /**
+     * {@code [P<id>] Message #<n>}, followed by the payload if there is one.
+     */
+    @Override
+    public String toString() {
+        return "[P" + producerId + "] Message #" + sequence + (payload == null ? "" : " " + payload);
+    }
+}
@@ -0,0 +1,58 @@
+package org.intuit.metrics;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}.
+ */
+public class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long min;
+    private final long max;
+    private final long sum;
+
+    HistogramSnapshot(long[] counts, long count, long min, long max, long sum) {
+        this.counts = counts;
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /** Smallest recorded value, 0 if empty. */
+    public long getMin() {
+        return min;
+    }
+
+    /** Largest recorded value, 0 if empty. */
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Value at {@code percentile} (0–100): the upper bound of the bucket holding
+     * that rank, capped at the recorded maximum. 0 if empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, LatencyHistogram.highestValueAt(i));
+            }
+        }
+        return max;
+    }
+}
@@ -0,0 +1,188 @@
+package org.intuit.metrics;
+
+import org.intuit.queue.EvictingQueue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator that records one worker's queue operations into
+ * {@link PipelineMetrics}. Created by {@link PipelineMetrics#forProducer}
+ * and {@link PipelineMetrics#forConsumer}; every operation is forwarded
+ * to the wrapped queue unchanged. A message a producer evicts is not
+ * counted as consumed and its latency sample is discarded.
+ */
+class InstrumentedQueue extends AbstractQueue<String> implements EvictingQueue<String> {
+
+    private final BlockingQueue<String> delegate;
+    private final PipelineMetrics metrics;
+    private final WorkerStats stats;
+    private final boolean producer;
+    private long offers;   // sampling counter; each worker uses its queue from one thread
+
+    InstrumentedQueue(BlockingQueue<String> delegate, PipelineMetrics metrics, WorkerStats stats, boolean producer) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.stats = stats;
+        this.producer = producer;
+    }
+
+    // ---- producer side ----
+
+    @Override
+    public boolean offer(String message) {
+        long start = beforeOffer(message);
+        return afterOffer(message, delegate.offer(message), start, false);
+    }
+
+    @Override
+    public void put(String message) throws InterruptedException {
+        long start = beforeOffer(message);
+        boolean added = false;
+        try {
+            delegate.put(message);
+            added = true;
+        } finally {
+            afterOffer(message, added, start, true);
+        }
+    }
+
+    @Override
+    public boolean offer(String message, long timeout, TimeUnit unit) throws InterruptedException {
+        long start = beforeOffer(message);
+        boolean added = false;
+        try {
+            added = delegate.offer(message, timeout, unit);
+        } finally {
+            afterOffer(message, added, start, true);
+        }
+        return added;
+    }
+
+    private long beforeOffer(String message) {
+        long start = System.nanoTime();
+        // Registered before the message becomes visible, so a fast consumer always finds it
+        if (producer && offers++ % metrics.latencySampleEvery == 0) {
+            metrics.sentAt.put(message, start);
+        }
+        return start;
+    }
+
+    private boolean afterOffer(String message, boolean added, long start, boolean blocking) {
+        if (!producer) {
+            return added;
+        }
+        if (blocking) {
+            long blocked = System.nanoTime() - start;
+            stats.blockedNanos.add(blocked);
+            metrics.putBlocked.record(blocked);
+        }
+        if (added) {
+            stats.messages.increment();
+        } else {
+            metrics.sentAt.remove(message);
+        }
+        return added;
+    }
+
+    @Override
+    public String evictFor(String incoming) {
+        String evicted = EvictingQueue.evictOldest(delegate, incoming);
+        if (evicted != null) {
+            metrics.sentAt.remove(evicted);
+        }
+        return evicted;
+    }
+
+    // ---- consumer side ----
+
+    @Override
+    public String poll() {
+        return consumed(delegate.poll(), System.nanoTime());
+    }
+
+    @Override
+    public String take() throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            return consumed(delegate.take(), System.nanoTime());
+        } finally {
+            recordWait(start);
+        }
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            return consumed(delegate.poll(timeout, unit), System.nanoTime());
+        } finally {
+            recordWait(start);
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c, int maxElements) {
+        List<String> drained = new ArrayList<>();
+        int n = delegate.drainTo(drained, maxElements);
+        long now = System.nanoTime();
+        for (String message : drained) {
+            consumed(message, now);
+        }
+        c.addAll(drained);
+        return n;
+    }
+
+    private String consumed(String message, long now) {
+        if (message != null && !producer) {
+            stats.messages.increment();
+            if (!metrics.sentAt.isEmpty()) {
+                Long sent = metrics.sentAt.remove(message);
+                if (sent != null) {
+                    metrics.endToEnd.record(now - sent);
+                }
+            }
+        }
+        return message;
+    }
+
+    private void recordWait(long start) {
+        if (!producer) {
+            long waited = System.nanoTime() - start;
+            stats.blockedNanos.add(waited);
+            metrics.takeBlocked.record(waited);
+        }
+    }
+
+    // ---- unchanged ----
+
+    @Override
+    public String peek() {
+        return delegate.peek();
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return delegate.remainingCapacity();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return delegate.iterator();
+    }
+}
@@ -0,0 +1,76 @@
+package org.intuit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values (typically nanoseconds) with
+ * HdrHistogram-style log-linear buckets.
+ * <p>
+ * Values below 128 are counted exactly. Above that, every power of two is
+ * split into 64 equal buckets, so a recorded value is reported with at most
+ * ~1.6 % relative error, and the whole {@code long} range fits in a fixed
+ * 3,712-bucket array. Recording is a single atomic increment, safe from
+ * any number of threads.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 64;                      // per power of two
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;         // values below are exact
+    private static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Records one value; negative values are recorded as 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        sum.add(v);
+        if (v < min.get()) {
+            min.accumulateAndGet(v, Math::min);
+        }
+        if (v > max.get()) {
+            max.accumulateAndGet(v, Math::max);
+        }
+    }
+
+    /**
+     * Copies the current state. Values recorded concurrently may or may not
+     * be included.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new HistogramSnapshot(copy, count, count == 0 ? 0 : min.get(), count == 0 ? 0 : max.get(), sum.sum());
+    }
+
+    static int indexOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - 6;   // keeps 7 significant bits
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Highest value that falls into bucket {@code index}.
+     */
+    static long highestValueAt(int index) {
+        if (index < EXACT_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index - (long) shift * SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
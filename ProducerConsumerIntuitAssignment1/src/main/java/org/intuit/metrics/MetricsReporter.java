@@ -0,0 +1,40 @@
+package org.intuit.metrics;
+
+import java.io.PrintStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background thread that samples queue depth and prints a
+ * {@link MetricsSnapshot} summary at a fixed rate. Started by
+ * {@link PipelineMetrics#startReporter}; {@link #close()} stops it.
+ */
+public class MetricsReporter implements AutoCloseable {
+
+    private final ScheduledExecutorService scheduler;
+    private MetricsSnapshot previous;   // only touched by the scheduler thread
+
+    MetricsReporter(PipelineMetrics metrics, long sampleMillis, long reportMillis, PrintStream out) {
+        if (sampleMillis < 1 || reportMillis < 1) {
+            throw new IllegalArgumentException("sampleMillis and reportMillis must be >= 1");
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pipeline-metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        this.previous = metrics.snapshot();
+        scheduler.scheduleAtFixedRate(metrics::sampleQueueDepth, 0, sampleMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(() -> {
+            MetricsSnapshot current = metrics.snapshot();
+            out.println(current.format(previous));
+            previous = current;
+        }, reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
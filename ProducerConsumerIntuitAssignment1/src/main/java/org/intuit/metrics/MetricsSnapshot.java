@@ -0,0 +1,138 @@
+package org.intuit.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point-in-time copy of {@link PipelineMetrics}. Counters are cumulative;
+ * compare two snapshots for rates.
+ */
+public class MetricsSnapshot {
+
+    private final long nanoTime;
+    private final int queueDepth;
+    private final HistogramSnapshot queueDepthSamples;
+    private final Map<Integer, Long> produced;
+    private final Map<Integer, Long> producerBlockedNanos;
+    private final Map<Integer, Long> consumed;
+    private final Map<Integer, Long> consumerBlockedNanos;
+    private final HistogramSnapshot putBlocked;
+    private final HistogramSnapshot takeBlocked;
+    private final HistogramSnapshot endToEndLatency;
+
+    MetricsSnapshot(long nanoTime, int queueDepth, HistogramSnapshot queueDepthSamples,
+                    Map<Integer, Long> produced, Map<Integer, Long> producerBlockedNanos,
+                    Map<Integer, Long> consumed, Map<Integer, Long> consumerBlockedNanos,
+                    HistogramSnapshot putBlocked, HistogramSnapshot takeBlocked, HistogramSnapshot endToEndLatency) {
+        this.nanoTime = nanoTime;
+        this.queueDepth = queueDepth;
+        this.queueDepthSamples = queueDepthSamples;
+        this.produced = Collections.unmodifiableMap(produced);
+        this.producerBlockedNanos = Collections.unmodifiableMap(producerBlockedNanos);
+        this.consumed = Collections.unmodifiableMap(consumed);
+        this.consumerBlockedNanos = Collections.unmodifiableMap(consumerBlockedNanos);
+        this.putBlocked = putBlocked;
+        this.takeBlocked = takeBlocked;
+        this.endToEndLatency = endToEndLatency;
+    }
+
+    /** {@link System#nanoTime()} when the snapshot was taken. */
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    /** Most recently sampled queue size. */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /** Distribution of all queue size samples so far. */
+    public HistogramSnapshot getQueueDepthSamples() {
+        return queueDepthSamples;
+    }
+
+    /** Messages published per producer id. */
+    public Map<Integer, Long> getProduced() {
+        return produced;
+    }
+
+    /** Total nanoseconds each producer spent in {@code put}. */
+    public Map<Integer, Long> getProducerBlockedNanos() {
+        return producerBlockedNanos;
+    }
+
+    /** Messages received per consumer id. */
+    public Map<Integer, Long> getConsumed() {
+        return consumed;
+    }
+
+    /** Total nanoseconds each consumer spent waiting in {@code take}. */
+    public Map<Integer, Long> getConsumerBlockedNanos() {
+        return consumerBlockedNanos;
+    }
+
+    /** Duration of each producer {@code put}, in nanoseconds. */
+    public HistogramSnapshot getPutBlocked() {
+        return putBlocked;
+    }
+
+    /** Duration of each consumer {@code take}, in nanoseconds. */
+    public HistogramSnapshot getTakeBlocked() {
+        return takeBlocked;
+    }
+
+    /** Time from {@code put} to receipt by a consumer, in nanoseconds. */
+    public HistogramSnapshot getEndToEndLatency() {
+        return endToEndLatency;
+    }
+
+    /** Messages per second per producer since {@code previous}. */
+    public Map<Integer, Double> producedPerSecond(MetricsSnapshot previous) {
+        return rates(produced, previous.produced, previous);
+    }
+
+    /** Messages per second per consumer since {@code previous}. */
+    public Map<Integer, Double> consumedPerSecond(MetricsSnapshot previous) {
+        return rates(consumed, previous.consumed, previous);
+    }
+
+    /**
+     * One-line summary, with rates since {@code previous}.
+     */
+    public String format(MetricsSnapshot previous) {
+        StringBuilder line = new StringBuilder("[metrics] depth=").append(queueDepth)
+                .append(" (p50 ").append(queueDepthSamples.getValueAtPercentile(50))
+                .append(", max ").append(queueDepthSamples.getMax()).append(')');
+        appendRates(line, " | produced/s", "P", producedPerSecond(previous));
+        appendRates(line, " | consumed/s", "C", consumedPerSecond(previous));
+        appendLatency(line, " | put blocked", putBlocked);
+        appendLatency(line, " | take waited", takeBlocked);
+        appendLatency(line, " | end-to-end", endToEndLatency);
+        return line.toString();
+    }
+
+    private Map<Integer, Double> rates(Map<Integer, Long> now, Map<Integer, Long> before, MetricsSnapshot previous) {
+        double seconds = Math.max(1, nanoTime - previous.nanoTime) / 1e9;
+        Map<Integer, Double> rates = new TreeMap<>();
+        now.forEach((id, count) -> rates.put(id, (count - before.getOrDefault(id, 0L)) / seconds));
+        return rates;
+    }
+
+    private static void appendRates(StringBuilder line, String label, String prefix, Map<Integer, Double> rates) {
+        line.append(label);
+        rates.forEach((id, rate) -> line.append(' ').append(prefix).append(id).append('=')
+                .append(String.format("%.1f", rate)));
+    }
+
+    private static void appendLatency(StringBuilder line, String label, HistogramSnapshot histogram) {
+        line.append(label).append(" p50=").append(millis(histogram.getValueAtPercentile(50)))
+                .append(" p99=").append(millis(histogram.getValueAtPercentile(99)))
+                .append(" max=").append(millis(histogram.getMax())).append("ms");
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
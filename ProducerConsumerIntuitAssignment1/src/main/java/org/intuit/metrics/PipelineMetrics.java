@@ -0,0 +1,113 @@
+package org.intuit.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Metrics of a producer/consumer pipeline, to make backpressure visible:
+ * <ul>
+ *     <li>messages produced and consumed per worker (rates come from
+ *     comparing two snapshots);</li>
+ *     <li>queue occupancy, sampled periodically;</li>
+ *     <li>time producers spend blocked in {@code put} and consumers spend
+ *     waiting in {@code take}, per worker and as histograms;</li>
+ *     <li>end-to-end latency, from a producer's {@code put} call to the
+ *     consumer receiving the message.</li>
+ * </ul>
+ * Workers are instrumented by handing them a decorated queue from
+ * {@link #forProducer} / {@link #forConsumer}; {@code Producer} and
+ * {@code Consumer} themselves are unchanged.
+ * <p>
+ * End-to-end latency tracks every {@code latencySampleEvery}-th message of
+ * each producer in a map keyed by the message, so messages must be unique
+ * (the default messages are). Tracking costs a map insert and remove per
+ * sampled message, so the default samples one in
+ * {@value #DEFAULT_LATENCY_SAMPLE_EVERY} to keep that cost off most puts
+ * and takes. Read the numbers with {@link #snapshot()} or print them
+ * periodically with {@link #startReporter}.
+ */
+public class PipelineMetrics {
+
+    public static final int DEFAULT_LATENCY_SAMPLE_EVERY = 64;
+
+    final int latencySampleEvery;
+    final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+    final LatencyHistogram putBlocked = new LatencyHistogram();
+    final LatencyHistogram takeBlocked = new LatencyHistogram();
+    final LatencyHistogram endToEnd = new LatencyHistogram();
+    final LatencyHistogram queueDepth = new LatencyHistogram();
+
+    private final BlockingQueue<?> queue;
+    private final Map<Integer, WorkerStats> producers = new ConcurrentHashMap<>();
+    private final Map<Integer, WorkerStats> consumers = new ConcurrentHashMap<>();
+    private volatile int lastDepth;
+
+    /**
+     * Tracks the latency of one in {@value #DEFAULT_LATENCY_SAMPLE_EVERY} messages per producer.
+     *
+     * @param queue the whole buffer, sampled for occupancy
+     */
+    public PipelineMetrics(BlockingQueue<?> queue) {
+        this(queue, DEFAULT_LATENCY_SAMPLE_EVERY);
+    }
+
+    /**
+     * @param queue              the whole buffer, sampled for occupancy
+     * @param latencySampleEvery track end-to-end latency of one in this many messages per producer
+     */
+    public PipelineMetrics(BlockingQueue<?> queue, int latencySampleEvery) {
+        if (latencySampleEvery < 1) {
+            throw new IllegalArgumentException("latencySampleEvery must be >= 1 but was " + latencySampleEvery);
+        }
+        this.queue = queue;
+        this.latencySampleEvery = latencySampleEvery;
+    }
+
+    /**
+     * Queue for producer {@code producerId}: counts what it publishes and times its {@code put}s.
+     */
+    public BlockingQueue<String> forProducer(BlockingQueue<String> queue, int producerId) {
+        return new InstrumentedQueue(queue, this, producers.computeIfAbsent(producerId, id -> new WorkerStats()), true);
+    }
+
+    /**
+     * Queue for consumer {@code consumerId}: counts what it receives and times its {@code take}s.
+     */
+    public BlockingQueue<String> forConsumer(BlockingQueue<String> queue, int consumerId) {
+        return new InstrumentedQueue(queue, this, consumers.computeIfAbsent(consumerId, id -> new WorkerStats()), false);
+    }
+
+    /**
+     * Records the current queue size. Called periodically by the reporter.
+     */
+    public void sampleQueueDepth() {
+        int depth = queue.size();
+        lastDepth = depth;
+        queueDepth.record(depth);
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.nanoTime(), lastDepth, queueDepth.snapshot(),
+                counts(producers, false), counts(producers, true),
+                counts(consumers, false), counts(consumers, true),
+                putBlocked.snapshot(), takeBlocked.snapshot(), endToEnd.snapshot());
+    }
+
+    /**
+     * Samples queue depth every {@code sampleMillis} and prints a one-line
+     * summary with per-worker rates every {@code reportMillis}. Close the
+     * returned reporter to stop it.
+     */
+    public MetricsReporter startReporter(long sampleMillis, long reportMillis, PrintStream out) {
+        return new MetricsReporter(this, sampleMillis, reportMillis, out);
+    }
+
+    private static Map<Integer, Long> counts(Map<Integer, WorkerStats> workers, boolean blocked) {
+        Map<Integer, Long> counts = new TreeMap<>();
+        workers.forEach((id, stats) -> counts.put(id, blocked ? stats.blockedNanos.sum() : stats.messages.sum()));
+        return counts;
+    }
+}
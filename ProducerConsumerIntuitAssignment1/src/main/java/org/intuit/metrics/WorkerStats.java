@@ -0,0 +1,12 @@
+package org.intuit.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of one producer or consumer.
+ */
+class WorkerStats {
+
+    final LongAdder messages = new LongAdder();       // produced or consumed
+    final LongAdder blockedNanos = new LongAdder();   // in put/offer (producers) or take/poll (consumers)
+}
@@ -0,0 +1,103 @@
+package org.intuit.producer;
+
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer that collects messages in a batch owned by its thread and
+ * publishes the batch in one operation through a {@link BatchPublisher}.
+ * <p>
+ * A batch is published when it reaches {@code batchSize} messages or when
+ * its first message is {@code lingerMillis} old, whichever comes first, so
+ * no message waits longer than the linger time before it is published.
+ * Linger only matters with pacing ({@code pauseMillis > 0}); unpaced
+ * producers always fill their batches immediately.
+ * <p>
+ * Stops when interrupted, like {@link Producer}. Messages of the batch that
+ * is still being built are discarded. Every published message is reported
+ * to a {@link PipelineLog}, like {@link Producer} does.
+ */
+public class BatchProducer implements Runnable {
+
+    private final BatchPublisher publisher;
+    private final int producerId;
+    private final MessageFactory<String> messageFactory;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final long pauseNanos;
+    private final PipelineLog log;
+    private int counter = 0;
+
+    /**
+     * @param batchSize    maximum messages per batch (>= 1)
+     * @param lingerMillis maximum age of a batch's first message before the batch is published
+     * @param pauseMillis  sleep after each message; 0 disables pacing
+     * @param log          receives every published message and the shutdown notice
+     */
+    public BatchProducer(BatchPublisher publisher, int producerId, MessageFactory<String> messageFactory,
+                         int batchSize, long lingerMillis, long pauseMillis, PipelineLog log) {
+        if (batchSize < 1 || lingerMillis < 0 || pauseMillis < 0) {
+            throw new IllegalArgumentException("batchSize must be >= 1, lingerMillis and pauseMillis >= 0");
+        }
+        this.publisher = publisher;
+        this.producerId = producerId;
+        this.messageFactory = messageFactory;
+        this.batchSize = batchSize;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.pauseNanos = TimeUnit.MILLISECONDS.toNanos(pauseMillis);
+        this.log = log;
+    }
+
+    @Override
+    public void run() {
+        List<String> batch = new ArrayList<>(batchSize);
+        long deadline = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+
+                if (batch.isEmpty()) {
+                    deadline = System.nanoTime() + lingerNanos;
+                }
+                batch.add(messageFactory.create(producerId, counter++));
+
+                if (batch.size() >= batchSize || System.nanoTime() - deadline >= 0) {
+                    flush(batch);
+                }
+
+                if (pauseNanos > 0) {
+                    long wakeAt = System.nanoTime() + pauseNanos;
+                    // Do not let the pause push a waiting batch past its linger deadline
+                    if (!batch.isEmpty() && deadline - wakeAt < 0) {
+                        sleepUntil(deadline);
+                        flush(batch);
+                    }
+                    sleepUntil(wakeAt);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            log.log(LogEvent.PRODUCER_STOPPED, producerId, null);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flush(List<String> batch) throws InterruptedException {
+        // Blocks if the queue is full
+        publisher.publish(batch);
+        for (String message : batch) {
+            log.log(LogEvent.PRODUCED, producerId, message);
+        }
+        batch.clear();
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.intuit.producer;
+
+import org.intuit.queue.MpmcRingBuffer;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Publishes a batch of messages built by a {@link BatchProducer} in as few
+ * queue operations as the queue allows.
+ */
+@FunctionalInterface
+public interface BatchPublisher {
+
+    /**
+     * Publishes every message of {@code batch} in order. The list is reused
+     * by the caller afterwards, so implementations must not keep it.
+     *
+     * @throws InterruptedException if interrupted while waiting for space
+     */
+    void publish(List<String> batch) throws InterruptedException;
+
+    /**
+     * Puts each batch into {@code queue} as one immutable envelope: one
+     * {@code put} per batch on any queue. Consume it with
+     * {@link org.intuit.consumer.EnvelopeConsumer}.
+     */
+    static BatchPublisher envelopes(BlockingQueue<List<String>> queue) {
+        return batch -> queue.put(List.copyOf(batch));
+    }
+
+    /**
+     * Publishes into a message queue consumed by a plain
+     * {@link org.intuit.consumer.Consumer}. An {@link MpmcRingBuffer} claims
+     * all slots of the batch at once ({@link MpmcRingBuffer#putAll}); other
+     * queues have no multi-put, so each message is put on its own.
+     */
+    static BatchPublisher forQueue(BlockingQueue<String> queue) {
+        if (queue instanceof MpmcRingBuffer) {
+            return ((MpmcRingBuffer<String>) queue)::putAll;
+        }
+        return batch -> {
+            for (String message : batch) {
+                queue.put(message);
+            }
+        };
+    }
+}
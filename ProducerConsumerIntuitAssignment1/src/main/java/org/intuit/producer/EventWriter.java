@@ -0,0 +1,17 @@
+package org.intuit.producer;
+
+/**
+ * Fills a claimed {@link org.intuit.queue.RingBuffer} slot in place.
+ *
+ * @param <E> slot type
+ */
+@FunctionalInterface
+public interface EventWriter<E> {
+
+    /**
+     * @param event      slot to overwrite; its previous content is stale
+     * @param producerId id of the producer writing it
+     * @param sequence   per-producer message number, starting at 0
+     */
+    void write(E event, int producerId, int sequence);
+}
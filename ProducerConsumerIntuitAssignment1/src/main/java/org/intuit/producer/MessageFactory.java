@@ -0,0 +1,20 @@
+package org.intuit.producer;
+
+/**
+ * Creates the messages a {@link Producer} puts on the queue.
+ * <p>
+ * Each producer calls its factory from its own thread only, so an
+ * implementation may keep per-producer scratch state.
+ *
+ * @param <T> message type
+ */
+@FunctionalInterface
+public interface MessageFactory<T> {
+
+    /**
+     * @param producerId id of the calling producer
+     * @param sequence   per-producer message counter, starting at 0
+     * @return the message to enqueue
+     */
+    T create(int producerId, int sequence);
+}
@@ -1,5 +1,8 @@
 package org.intuit.producer;
 
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+
 import java.time.LocalDateTime;
 import java.util.concurrent.BlockingQueue;
 
@@ -11,16 +14,107 @@ import java.util.concurrent.BlockingQueue;
  * - Produces unique messages distinguished by producerId.
  * - Sleeps briefly to simulate realistic processing time.
  * - Stops gracefully when interrupted.
+ * <p>
+ * The message format, the pause between messages and logging can be
+ * configured, e.g. to run the pipeline at full speed in benchmarks. Log
+ * records go to a {@link PipelineLog}; an {@link org.intuit.logging.AsyncLog}
+ * keeps the producer off the synchronized {@code System.out}.
+ * <p>
+ * Producers are generic over the message type. The demo application moves
+ * {@link #compactMessage} strings; {@link org.intuit.message.MessagePool#factory}
+ * produces typed, recyclable {@link org.intuit.message.Message}s instead.
+ *
+ * @param <T> message type
  */
-public class Producer implements Runnable {
+public class Producer<T> implements Runnable {
+
+    /** Pause between messages used by the demo application. */
+    public static final long DEFAULT_PAUSE_MILLIS = 400;
 
-    private final BlockingQueue<String> queue;  // Shared buffer
+    private final Source<?> source;             // Message factory and shared buffer
     private final int producerId;               // Unique identifier for each producer
+    private final long pauseMillis;             // 0 = produce as fast as the queue allows
+    private final PipelineLog log;
     private int counter = 0;                    // Ensures unique messages per producer
 
-    public Producer(BlockingQueue<String> queue, int producerId) {
-        this.queue = queue;
+    /**
+     * Demo producer of {@link #defaultMessage} strings, paced by
+     * {@link #DEFAULT_PAUSE_MILLIS} and logged to the console.
+     * <p>
+     * The messages are Strings whatever {@code T} is; the queue only has to
+     * accept them, so the constructor needs no unchecked cast.
+     */
+    public Producer(BlockingQueue<? super String> queue, int producerId) {
+        this(new Source<String>(queue, Producer::defaultMessage), producerId, DEFAULT_PAUSE_MILLIS,
+                PipelineLog.console());
+    }
+
+    /**
+     * @param messageFactory creates each message
+     * @param pauseMillis    sleep after each message; 0 disables pacing
+     * @param logging        whether to print every produced message and the shutdown notice
+     */
+    public Producer(BlockingQueue<T> queue, int producerId, MessageFactory<T> messageFactory,
+                    long pauseMillis, boolean logging) {
+        this(queue, producerId, messageFactory, pauseMillis, logging ? PipelineLog.console() : PipelineLog.off());
+    }
+
+    /**
+     * @param messageFactory creates each message
+     * @param pauseMillis    sleep after each message; 0 disables pacing
+     * @param log            receives every produced message and the shutdown notice
+     */
+    public Producer(BlockingQueue<T> queue, int producerId, MessageFactory<T> messageFactory,
+                    long pauseMillis, PipelineLog log) {
+        this(new Source<T>(queue, messageFactory), producerId, pauseMillis, log);
+    }
+
+    private Producer(Source<?> source, int producerId, long pauseMillis, PipelineLog log) {
+        this.source = source;
         this.producerId = producerId;
+        this.pauseMillis = pauseMillis;
+        this.log = log;
+    }
+
+    /**
+     * Factory and queue of one message type, kept together so every
+     * message the factory creates is statically known to fit the queue.
+     */
+    private static final class Source<M> {
+
+        private final BlockingQueue<? super M> queue;
+        private final MessageFactory<? extends M> messageFactory;
+
+        Source(BlockingQueue<? super M> queue, MessageFactory<? extends M> messageFactory) {
+            this.queue = queue;
+            this.messageFactory = messageFactory;
+        }
+
+        void produce(int producerId, int sequence, PipelineLog log) throws InterruptedException {
+            M message = messageFactory.create(producerId, sequence);
+
+            // Logged first: once queued, a pooled message may be released and reused by a consumer
+            log.log(LogEvent.PRODUCED, producerId, message);
+
+            // Blocks if queue is full
+            queue.put(message);
+        }
+    }
+
+    /**
+     * Default message format: {@code [P<id>] Message #<n> @ <timestamp>}.
+     */
+    public static String defaultMessage(int producerId, int sequence) {
+        return String.format("[P%d] Message #%d @ %s", producerId, sequence, LocalDateTime.now());
+    }
+
+    /**
+     * {@code [P<id>] Message #<n>}, built by plain concatenation: no format
+     * string to parse and no {@code LocalDateTime}, so it stays cheap on the
+     * hot path. Log records carry their own timestamp.
+     */
+    public static String compactMessage(int producerId, int sequence) {
+        return "[P" + producerId + "] Message #" + sequence;
     }
 
     @Override
@@ -29,23 +123,17 @@ public class Producer implements Runnable {
             // Continue producing until thread is interrupted
             while (!Thread.currentThread().isInterrupted()) {
 
-                // Create unique message for this producer
-                String message = String.format(
-                        "[P%d] Message #%d @ %s",
-                        producerId, counter++, LocalDateTime.now()
-                );
-
-                // Blocks if queue is full
-                queue.put(message);
-
-                System.out.println(LocalDateTime.now() + " [PRODUCED by P" + producerId + "] -> " + message);
+                // Create unique message for this producer and queue it
+                source.produce(producerId, counter++, log);
 
                 // Slow down production for demonstration purposes
-                Thread.sleep(400);
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
             }
 
         } catch (InterruptedException e) {
-            System.out.println("Producer " + producerId + " interrupted.");
+            log.log(LogEvent.PRODUCER_STOPPED, producerId, null);
             Thread.currentThread().interrupt(); // Restore interrupt flag
         }
     }
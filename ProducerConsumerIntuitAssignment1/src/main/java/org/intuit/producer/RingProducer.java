@@ -0,0 +1,78 @@
+package org.intuit.producer;
+
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.PipelineLog;
+import org.intuit.queue.RingBuffer;
+
+/**
+ * {@link Producer} counterpart for a {@link RingBuffer}: claims slots, fills
+ * them in place with an {@link EventWriter} and publishes them, optionally
+ * {@code batchSize} at a time.
+ * <p>
+ * Stops when interrupted, like {@link Producer}. A claimed batch is always
+ * written and published before the interrupt is acted on, so consumers
+ * never wait on a hole in the sequence.
+ *
+ * @param <E> slot type
+ */
+public class RingProducer<E> implements Runnable {
+
+    private final RingBuffer<E> ring;
+    private final int producerId;
+    private final EventWriter<E> writer;
+    private final int batchSize;
+    private final long pauseMillis;             // 0 = produce as fast as the ring allows
+    private final PipelineLog log;
+    private int counter = 0;
+
+    /**
+     * @param batchSize   slots claimed and published together (1..bufferSize)
+     * @param pauseMillis sleep after each batch; 0 disables pacing
+     */
+    public RingProducer(RingBuffer<E> ring, int producerId, EventWriter<E> writer,
+                        int batchSize, long pauseMillis) {
+        this(ring, producerId, writer, batchSize, pauseMillis, PipelineLog.console());
+    }
+
+    /**
+     * @param batchSize   slots claimed and published together (1..bufferSize)
+     * @param pauseMillis sleep after each batch; 0 disables pacing
+     * @param log         receives the shutdown notice
+     */
+    public RingProducer(RingBuffer<E> ring, int producerId, EventWriter<E> writer,
+                        int batchSize, long pauseMillis, PipelineLog log) {
+        if (batchSize < 1 || batchSize > ring.getBufferSize()) {
+            throw new IllegalArgumentException("batchSize must be in 1.." + ring.getBufferSize() + " but was " + batchSize);
+        }
+        this.ring = ring;
+        this.producerId = producerId;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.log = log;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+
+                // Blocks while the ring is full
+                long hi = ring.next(batchSize);
+                long lo = hi - batchSize + 1;
+                for (long s = lo; s <= hi; s++) {
+                    writer.write(ring.get(s), producerId, counter++);
+                }
+                ring.publish(lo, hi);
+
+                if (pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            }
+
+        } catch (InterruptedException e) {
+            log.log(LogEvent.PRODUCER_STOPPED, producerId, null);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.intuit.queue;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Queue that knows which message to evict to make room for a new one.
+ * <p>
+ * A plain {@link #poll()} takes whatever a consumer would get next, which on
+ * a queue made of several internal queues need not be the queue the new
+ * message goes to, and which decorators count as consumed. Queues that
+ * route messages, and decorators that track them, implement this interface
+ * so that {@link org.intuit.flow.OverflowPolicy#DROP_OLDEST} frees space
+ * where it is needed and the evicted message is not mistaken for a delivery.
+ *
+ * @param <E> message type
+ */
+public interface EvictingQueue<E> extends BlockingQueue<E> {
+
+    /**
+     * Removes the oldest message queued where {@code incoming} would be
+     * inserted. Returns {@code null} if there is none.
+     */
+    E evictFor(E incoming);
+
+    /**
+     * {@link #evictFor} if {@code queue} supports it, otherwise {@link #poll()}.
+     */
+    static <E> E evictOldest(BlockingQueue<E> queue, E incoming) {
+        return queue instanceof EvictingQueue ? ((EvictingQueue<E>) queue).evictFor(incoming) : queue.poll();
+    }
+}
@@ -0,0 +1,58 @@
+package org.intuit.queue;
+
+/**
+ * Mutable message slot for {@link RingBuffer}.
+ * <p>
+ * Producers overwrite the fields of a slot in place instead of creating a
+ * new message, so the payload is a reused {@link StringBuilder}. Consumers
+ * must copy anything they want to keep after their handler returns.
+ */
+public class MessageEvent {
+
+    private int producerId;
+    private int sequence;
+    private long createdNanos;
+    private final StringBuilder payload = new StringBuilder(64);
+
+    /**
+     * Default content, the ring counterpart of {@code Producer.defaultMessage}:
+     * {@code [P<id>] Message #<n>}, written without allocating.
+     */
+    public static void writeDefault(MessageEvent event, int producerId, int sequence) {
+        event.set(producerId, sequence, System.nanoTime());
+        event.payload.append("[P").append(producerId).append("] Message #").append(sequence);
+    }
+
+    /**
+     * Resets the slot for a new message and clears the payload.
+     */
+    public void set(int producerId, int sequence, long createdNanos) {
+        this.producerId = producerId;
+        this.sequence = sequence;
+        this.createdNanos = createdNanos;
+        this.payload.setLength(0);
+    }
+
+    public int getProducerId() {
+        return producerId;
+    }
+
+    public int getSequence() {
+        return sequence;
+    }
+
+    /** {@link System#nanoTime()} when the message was written. */
+    public long getCreatedNanos() {
+        return createdNanos;
+    }
+
+    /** Payload buffer, appended to in place by producers. */
+    public StringBuilder getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        return payload.toString();
+    }
+}
@@ -0,0 +1,364 @@
+package org.intuit.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, lock-free multi-producer/multi-consumer queue.
+ * <p>
+ * Based on Dmitry Vyukov's bounded MPMC queue: every slot carries a
+ * sequence number that tells producers and consumers whether it is free or
+ * filled for their position. A producer claims a position with one CAS on
+ * {@code tail}, writes the element and publishes it by advancing the slot's
+ * sequence; consumers do the same on {@code head}. Producers and consumers
+ * never contend on a shared lock, unlike {@link java.util.concurrent.ArrayBlockingQueue}.
+ * <p>
+ * The non-blocking operations ({@link #offer}, {@link #poll}) never wait.
+ * The blocking ones ({@link #put}, {@link #take} and the timed variants)
+ * wait with the configured {@link WaitStrategy} and honour interrupts the
+ * same way {@code ArrayBlockingQueue} does. {@link #putAll} claims a whole
+ * batch of slots with a single CAS.
+ * <p>
+ * {@code head} and {@code tail} are padded onto cache lines of their own,
+ * so producers and consumers do not false-share one line. The capacity is
+ * rounded up to a power of two (and at least 2, since the algorithm needs
+ * two slots to tell a full slot from a free one), so a position maps to
+ * its slot with a mask instead of a division.
+ * <p>
+ * {@link #size()} and {@link #iterator()} are snapshots that may be stale
+ * while other threads are active. Null elements are not permitted.
+ *
+ * @param <E> element type
+ */
+public class MpmcRingBuffer<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+    private final int mask;
+    private final long[] sequences;
+    private final Object[] elements;
+
+    private final PaddedCounter head = new PaddedCounter();   // next position to take
+    private final PaddedCounter tail = new PaddedCounter();   // next position to fill
+
+    private final Waiter notEmpty;
+    private final Waiter notFull;
+
+    public MpmcRingBuffer(int capacity) {
+        this(capacity, WaitStrategy.BLOCK);
+    }
+
+    /**
+     * @param capacity     minimum number of elements (1 to 2^30); rounded up
+     *                     to a power of two
+     * @param waitStrategy how blocking operations wait
+     */
+    public MpmcRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY + " but was " + capacity);
+        }
+        this.capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.mask = this.capacity - 1;
+        this.sequences = new long[this.capacity];
+        this.elements = new Object[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            sequences[i] = i;
+        }
+        this.notEmpty = waitStrategy.newWaiter();
+        this.notFull = waitStrategy.newWaiter();
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long pos = tail.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, index);
+            long diff = seq - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    ELEMENT.set(elements, index, e);
+                    SEQUENCE.setRelease(sequences, index, pos + 1);   // publish to consumers
+                    notEmpty.signalAll();
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;   // slot still holds the element from one lap ago: full
+            } else {
+                pos = tail.get();   // another producer claimed this position
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, index);
+            long diff = seq - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E e = (E) ELEMENT.get(elements, index);
+                    ELEMENT.set(elements, index, null);
+                    SEQUENCE.setRelease(sequences, index, pos + capacity);   // free for the next lap
+                    notFull.signalAll();
+                    return e;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;   // nothing published at this position yet: empty
+            } else {
+                pos = head.get();   // another consumer took this position
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long pos = head.get();
+            int index = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, index);
+            if (seq < pos + 1) {
+                return null;   // nothing published at the head position
+            }
+            if (seq == pos + 1) {
+                E e = (E) ELEMENT.getAcquire(elements, index);
+                if (e != null && head.get() == pos) {
+                    return e;
+                }
+            }
+            // head moved on while we looked; retry at the new head
+        }
+    }
+
+    @Override
+    public void put(E e) throws InterruptedException {
+        Objects.requireNonNull(e);
+        checkInterrupted();
+        while (!offer(e)) {
+            notFull.await(this::hasSpace, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Inserts every element in order, waiting for space if necessary. Each
+     * chunk of up to {@code capacity} elements is claimed with one CAS on
+     * {@code tail}, so the elements of a chunk are contiguous in the queue
+     * even with concurrent producers.
+     *
+     * @throws InterruptedException if interrupted while waiting; chunks
+     *                              already inserted stay in the queue
+     */
+    public void putAll(List<? extends E> batch) throws InterruptedException {
+        for (E e : batch) {
+            Objects.requireNonNull(e);
+        }
+        checkInterrupted();
+        int from = 0;
+        while (from < batch.size()) {
+            int n = Math.min(capacity, batch.size() - from);
+            long pos = claim(n);
+            if (pos < 0) {
+                notFull.await(() -> tail.get() + n - head.get() <= capacity, Long.MAX_VALUE);
+                continue;
+            }
+            for (int i = 0; i < n; i++) {
+                fill(pos + i, batch.get(from + i));
+            }
+            notEmpty.signalAll();
+            from += n;
+        }
+    }
+
+    @Override
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(e);
+        checkInterrupted();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!offer(e)) {
+            if (!notFull.await(this::hasSpace, deadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public E take() throws InterruptedException {
+        checkInterrupted();
+        E e;
+        while ((e = poll()) == null) {
+            notEmpty.await(this::hasElements, Long.MAX_VALUE);
+        }
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkInterrupted();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        while ((e = poll()) == null) {
+            if (!notEmpty.await(this::hasElements, deadline)) {
+                return null;
+            }
+        }
+        return e;
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        E e;
+        while (n < maxElements && (e = poll()) != null) {
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    @Override
+    public int size() {
+        long h = head.get();
+        long t = tail.get();
+        return (int) Math.max(0, Math.min(capacity, t - h));
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Weakly consistent snapshot of the elements present when the iteration
+     * starts. {@link Iterator#remove()} is not supported.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<>();
+        long from = head.get();
+        long to = tail.get();
+        for (long pos = from; pos < to && pos < from + capacity; pos++) {
+            int index = (int) pos & mask;
+            Object e = ELEMENT.getAcquire(elements, index);
+            if ((long) SEQUENCE.getAcquire(sequences, index) == pos + 1 && e != null) {
+                snapshot.add((E) e);
+            }
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /**
+     * Claims {@code n} consecutive positions, or returns -1 if they are not free.
+     */
+    private long claim(int n) {
+        while (true) {
+            long pos = tail.get();
+            if (pos + n - head.get() > capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(pos, pos + n)) {
+                return pos;
+            }
+        }
+    }
+
+    /**
+     * Writes and publishes a claimed position. The consumer of the previous
+     * lap may have advanced {@code head} but not yet freed the slot; that
+     * window is a few instructions long, so it is spun out.
+     */
+    private void fill(long pos, E e) {
+        int index = (int) pos & mask;
+        while ((long) SEQUENCE.getAcquire(sequences, index) != pos) {
+            Thread.onSpinWait();
+        }
+        ELEMENT.set(elements, index, e);
+        SEQUENCE.setRelease(sequences, index, pos + 1);
+    }
+
+    private boolean hasSpace() {
+        return tail.get() - head.get() < capacity;
+    }
+
+    private boolean hasElements() {
+        return tail.get() - head.get() > 0;
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    /*
+     * Cache-line padding for head and tail. Superclass fields are laid out
+     * before subclass fields, so the value always sits between the two
+     * pads no matter how the JVM orders fields within one class.
+     */
+
+    @SuppressWarnings("unused")
+    private static class LeftPad {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    private static class CounterValue extends LeftPad {
+        volatile long value;
+    }
+
+    /**
+     * The subset of {@code AtomicLong} the queue needs, alone on its cache line.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedCounter extends CounterValue {
+
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(CounterValue.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        long p11, p12, p13, p14, p15, p16, p17;
+
+        long get() {
+            return value;
+        }
+
+        boolean compareAndSet(long expected, long next) {
+            return VALUE.compareAndSet(this, expected, next);
+        }
+    }
+}
@@ -0,0 +1,789 @@
+package org.intuit.queue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable queue: an append-only log of memory-mapped segment files plus a
+ * checkpoint of the consumer offset, so messages survive a stop or a JVM
+ * crash and a new instance on the same directory resumes where the last
+ * one left off.
+ * <p>
+ * Layout of the directory:
+ * <ul>
+ *     <li>{@code <offset>.log} – segments of {@code segmentBytes}, named by
+ *     the offset (message number) of their first record. A record is
+ *     {@code [int length][int CRC32][UTF-8 bytes]}; a length of -1 marks
+ *     the end of a segment's data. Fully committed segments are deleted.</li>
+ *     <li>{@code consumer.checkpoint} – the offset and file position just
+ *     after the last committed message, in two alternating CRC-protected
+ *     slots, so a torn write leaves the previous checkpoint usable.</li>
+ * </ul>
+ * Writes land in the page cache through the mapping, so they survive the
+ * process dying. With {@code syncEvery} > 0 the segment is also forced to
+ * disk after every {@code syncEvery} appends, and the checkpoint after every
+ * {@code syncEvery} commits, which bounds what a power failure can lose;
+ * {@code syncEvery} 0 leaves writeback to the OS. On open, the log is
+ * scanned from the checkpoint and cut at the first incomplete or corrupt
+ * record. A zero length is where writing stopped; only the bytes of a torn
+ * record are cleared, so unwritten space in a segment is never touched.
+ * <p>
+ * Delivery is at-least-once. Taking a message does not move the checkpoint;
+ * once a message has been processed, whichever thread processed it passes
+ * the very String instance it was given to {@link #commit(String)}. The
+ * checkpoint advances over the oldest committed messages and stops at the
+ * first one still outstanding. Anything taken but not committed, e.g.
+ * because the process died inside a handler, is delivered again by the next
+ * instance. Until then it is tracked in memory and the segments holding it
+ * are kept, so at most {@code maxUncommitted} messages may be taken past
+ * the checkpoint: beyond that, takes wait for commits and {@link #poll()}
+ * returns null, which makes a consumer that never commits visible instead
+ * of growing memory and disk without bound.
+ * <p>
+ * Unbounded (limited by disk): {@code put} never waits. One lock guards
+ * appends, takes and commits; encoding and CRC happen outside it.
+ * Only one instance may use a directory at a time. {@link #close()} forces
+ * everything to disk.
+ */
+public class PersistentQueue extends AbstractQueue<String> implements EvictingQueue<String>, AutoCloseable {
+
+    public static final int DEFAULT_SEGMENT_BYTES = 64 << 20;
+    public static final int DEFAULT_MAX_UNCOMMITTED = 1 << 16;
+    static final int HEADER_BYTES = 8;   // length + CRC32
+    static final String CHECKPOINT_FILE = "consumer.checkpoint";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final int syncEvery;
+    private final int maxUncommitted;
+    private final Checkpoint checkpoint;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();   // a message is available and may be taken
+
+    // All guarded by lock
+    private final List<Segment> segments = new ArrayList<>();   // oldest (committing) first, newest (writing) last
+    private final Deque<Taken> uncommitted = new ArrayDeque<>();       // taken after the checkpoint, in offset order
+    private final Map<String, Taken> outstanding = new IdentityHashMap<>();  // taken, not committed, by instance
+    private int readIndex;          // index of the segment being read
+    private int readPos;
+    private long consumed;          // offset of the next message to take
+    private long committed;         // offset of the checkpoint: every message before it is processed
+    private int writePos;
+    private long published;         // offset the next appended message gets
+    private int unsyncedWrites;
+    private int unsyncedCommits;
+    private boolean closed;
+
+    /**
+     * Opens {@code dir} with {@link #DEFAULT_SEGMENT_BYTES} segments and no explicit sync.
+     */
+    public PersistentQueue(Path dir) throws IOException {
+        this(dir, DEFAULT_SEGMENT_BYTES, 0);
+    }
+
+    /**
+     * Opens the queue with at most {@link #DEFAULT_MAX_UNCOMMITTED} outstanding messages.
+     *
+     * @param segmentBytes size of new segment files; also the largest record
+     * @param syncEvery    force to disk after this many appends / commits; 0 never forces before close
+     */
+    public PersistentQueue(Path dir, int segmentBytes, int syncEvery) throws IOException {
+        this(dir, segmentBytes, syncEvery, DEFAULT_MAX_UNCOMMITTED);
+    }
+
+    /**
+     * Opens the queue in {@code dir}, creating it if necessary, and recovers
+     * its contents from the checkpoint on.
+     *
+     * @param segmentBytes   size of new segment files; also the largest record
+     * @param syncEvery      force to disk after this many appends / commits; 0 never forces before close
+     * @param maxUncommitted messages that may be taken after the checkpoint before takes wait for commits
+     */
+    public PersistentQueue(Path dir, int segmentBytes, int syncEvery, int maxUncommitted) throws IOException {
+        if (segmentBytes < 64 || syncEvery < 0 || maxUncommitted < 1) {
+            throw new IllegalArgumentException("segmentBytes must be >= 64, syncEvery >= 0 and maxUncommitted >= 1");
+        }
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.syncEvery = syncEvery;
+        this.maxUncommitted = maxUncommitted;
+        Files.createDirectories(dir);
+        this.checkpoint = Checkpoint.open(dir.resolve(CHECKPOINT_FILE));
+        recover();
+    }
+
+    // ---- producer side ----
+
+    /**
+     * Appends {@code message}; never blocks.
+     *
+     * @throws IllegalArgumentException if the encoded message does not fit in a segment
+     * @throws UncheckedIOException     if a new segment cannot be created
+     */
+    @Override
+    public boolean offer(String message) {
+        Objects.requireNonNull(message);
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        if (HEADER_BYTES + bytes.length > segmentBytes) {
+            throw new IllegalArgumentException("Message of " + bytes.length + " bytes does not fit in a segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        int checksum = (int) crc.getValue();
+
+        lock.lock();
+        try {
+            ensureOpen();
+            Segment segment = writeSegment();
+            if (writePos + HEADER_BYTES + bytes.length > segment.size()) {
+                segment = roll(segment);
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.put(writePos + HEADER_BYTES, bytes);
+            buffer.putInt(writePos + 4, checksum);
+            buffer.putInt(writePos, bytes.length);   // written last: a record is valid once its length is
+            writePos += HEADER_BYTES + bytes.length;
+            published++;
+            if (syncEvery > 0 && ++unsyncedWrites >= syncEvery) {
+                buffer.force();
+                unsyncedWrites = 0;
+            }
+            notEmpty.signal();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(String message) throws InterruptedException {
+        checkInterrupted();
+        offer(message);
+    }
+
+    @Override
+    public boolean offer(String message, long timeout, TimeUnit unit) throws InterruptedException {
+        checkInterrupted();
+        return offer(message);
+    }
+
+    // ---- consumer side ----
+
+    /**
+     * Takes the next message, or returns null if there is none or
+     * {@code maxUncommitted} messages are outstanding.
+     */
+    @Override
+    public String poll() {
+        lock.lock();
+        try {
+            ensureOpen();
+            return takeable() ? next() : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next message, waiting for one to arrive and for commits
+     * while {@code maxUncommitted} messages are outstanding.
+     */
+    @Override
+    public String take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            ensureOpen();
+            while (!takeable()) {
+                notEmpty.await();
+                ensureOpen();
+            }
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            ensureOpen();
+            while (!takeable()) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                remaining = notEmpty.awaitNanos(remaining);
+                ensureOpen();
+            }
+            return next();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String peek() {
+        lock.lock();
+        try {
+            ensureOpen();
+            if (consumed == published) {
+                return null;
+            }
+            Cursor cursor = new Cursor(readIndex, readPos);
+            return new String(cursor.read(), StandardCharsets.UTF_8);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks {@code message} as processed. It must be the instance returned
+     * by a take or poll of this queue; any thread may commit it. The
+     * checkpoint then moves past every message before the oldest one still
+     * outstanding.
+     *
+     * @return false if {@code message} is not outstanding, e.g. already committed
+     */
+    public boolean commit(String message) {
+        lock.lock();
+        try {
+            ensureOpen();
+            Taken taken = outstanding.remove(message);
+            if (taken == null) {
+                return false;
+            }
+            taken.done = true;
+            advanceCheckpoint();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest unconsumed message and commits it at once, so an
+     * eviction does not hold back the checkpoint. Not limited by
+     * {@code maxUncommitted}.
+     */
+    @Override
+    public String evictFor(String incoming) {
+        lock.lock();
+        try {
+            ensureOpen();
+            if (consumed == published) {
+                return null;
+            }
+            String message = next();
+            outstanding.remove(message).done = true;
+            advanceCheckpoint();
+            return message;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c, int maxElements) {
+        Objects.requireNonNull(c);
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        String message;
+        while (n < maxElements && (message = poll()) != null) {
+            c.add(message);
+            n++;
+        }
+        return n;
+    }
+
+    // ---- state ----
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return (int) Math.min(Integer.MAX_VALUE, published - consumed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Limited only by disk space. */
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Snapshot of the unconsumed messages, oldest first. {@link Iterator#remove()} is not supported.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        List<String> snapshot = new ArrayList<>();
+        lock.lock();
+        try {
+            ensureOpen();
+            Cursor cursor = new Cursor(readIndex, readPos);
+            for (long offset = consumed; offset < published; offset++) {
+                snapshot.add(new String(cursor.read(), StandardCharsets.UTF_8));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return Collections.unmodifiableList(snapshot).iterator();
+    }
+
+    /** Messages taken but not yet committed. */
+    public int getUncommittedCount() {
+        lock.lock();
+        try {
+            return outstanding.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Offset of the next message to be taken. */
+    public long getConsumedOffset() {
+        lock.lock();
+        try {
+            return consumed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Offset a new instance would resume from: every message before it is committed. */
+    public long getCommittedOffset() {
+        lock.lock();
+        try {
+            return committed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Offset the next appended message will get. */
+    public long getPublishedOffset() {
+        lock.lock();
+        try {
+            return published;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces the log and the checkpoint to disk. Blocked takes fail with
+     * {@link IllegalStateException}; later calls of any operation too.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments) {
+                segment.buffer.force();
+            }
+            checkpoint.force();
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---- internals ----
+
+    private Segment writeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Marks the end of {@code full} and starts a new segment at the current offset.
+     */
+    private Segment roll(Segment full) {
+        if (writePos + 4 <= full.size()) {
+            full.buffer.putInt(writePos, END_OF_SEGMENT);
+        }
+        if (syncEvery > 0) {
+            full.buffer.force();
+            unsyncedWrites = 0;
+        }
+        try {
+            Segment next = Segment.open(segmentPath(published), published, segmentBytes);
+            segments.add(next);
+            writePos = 0;
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create segment " + segmentPath(published), e);
+        }
+    }
+
+    /**
+     * Whether a message is available and the outstanding ones leave room for it. Caller holds the lock.
+     */
+    private boolean takeable() {
+        return consumed != published && uncommitted.size() < maxUncommitted;
+    }
+
+    /**
+     * Reads the next message and advances the read position. The returned
+     * instance stays outstanding until it is committed. Caller holds the
+     * lock and has checked that a message is available.
+     */
+    private String next() {
+        Segment segment = segments.get(readIndex);
+        if (atEnd(segment, readPos)) {
+            segment = segments.get(++readIndex);
+            readPos = 0;
+        }
+        int length = segment.buffer.getInt(readPos);
+        byte[] bytes = new byte[length];
+        segment.buffer.get(readPos + HEADER_BYTES, bytes);
+        readPos += HEADER_BYTES + length;
+        consumed++;
+        // Decoded under the lock: the instance is the key the consumer commits with
+        String message = new String(bytes, StandardCharsets.UTF_8);
+        Taken taken = new Taken(segment.base, readPos);
+        uncommitted.addLast(taken);
+        outstanding.put(message, taken);
+        return message;
+    }
+
+    /**
+     * Moves the checkpoint past the committed messages at the head of
+     * {@link #uncommitted} and deletes the segments it has left behind.
+     */
+    private void advanceCheckpoint() {
+        boolean wasFull = uncommitted.size() >= maxUncommitted;
+        Taken last = null;
+        while (!uncommitted.isEmpty() && uncommitted.peekFirst().done) {
+            last = uncommitted.removeFirst();
+            committed++;
+        }
+        if (last == null) {
+            return;
+        }
+        if (wasFull && consumed != published) {
+            notEmpty.signalAll();   // takes waiting for commits may go on
+        }
+        checkpoint.write(committed, last.base, last.end);
+        while (segments.get(0).base < last.base) {
+            segments.remove(0).delete();   // fully committed
+            readIndex--;
+        }
+        if (syncEvery > 0 && ++unsyncedCommits >= syncEvery) {
+            checkpoint.force();
+            unsyncedCommits = 0;
+        }
+    }
+
+    private static boolean atEnd(Segment segment, int pos) {
+        return pos + HEADER_BYTES > segment.size() || segment.buffer.getInt(pos) == END_OF_SEGMENT;
+    }
+
+    /**
+     * Rebuilds the in-memory state from the directory: read position from the
+     * checkpoint, write position from scanning the records after it.
+     */
+    private void recover() throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> bases.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        Collections.sort(bases);
+
+        long[] saved = checkpoint.read();   // {offset, segment base, position} or null
+        long startOffset;
+        long startBase;
+        int startPos;
+        if (saved != null && bases.contains(saved[1])) {
+            startOffset = saved[0];
+            startBase = saved[1];
+            startPos = (int) saved[2];
+        } else if (!bases.isEmpty()) {
+            // No checkpoint, or its segment is gone: start at the oldest segment left
+            startBase = bases.get(0);
+            startOffset = startBase;
+            startPos = 0;
+        } else {
+            startBase = saved == null ? 0 : saved[0];
+            startOffset = startBase;
+            startPos = 0;
+        }
+
+        for (long base : bases) {
+            if (base < startBase) {
+                Files.deleteIfExists(segmentPath(base));   // consumed before the checkpoint
+            } else {
+                segments.add(Segment.open(segmentPath(base), base, segmentBytes));
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.add(Segment.open(segmentPath(startBase), startBase, segmentBytes));
+        }
+
+        // Scan forward from the read position to the end of the valid records
+        long count = 0;
+        int index = 0;
+        int pos = startPos;
+        CRC32 crc = new CRC32();
+        while (true) {
+            Segment segment = segments.get(index);
+            if (atEnd(segment, pos)) {
+                if (index + 1 < segments.size()) {
+                    index++;
+                    pos = 0;
+                    continue;
+                }
+                break;
+            }
+            int length = segment.buffer.getInt(pos);
+            if (length == 0) {
+                // Never written: the clean end of the data
+                if (index + 1 < segments.size()) {
+                    segment.buffer.putInt(pos, END_OF_SEGMENT);   // the roll's end marker was lost
+                    index++;
+                    pos = 0;
+                    continue;
+                }
+                break;
+            }
+            if (length < 0 || length > segment.size() - pos - HEADER_BYTES || !valid(segment, pos, length, crc)) {
+                // Torn or corrupt record: drop it and anything after it
+                while (segments.size() > index + 1) {
+                    segments.remove(segments.size() - 1).delete();
+                }
+                long end = pos + HEADER_BYTES + (long) Math.max(length, 0);
+                zero(segment, pos, (int) Math.min(end, segment.size()));
+                break;
+            }
+            count++;
+            pos += HEADER_BYTES + length;
+        }
+
+        readIndex = 0;
+        readPos = startPos;
+        consumed = startOffset;
+        committed = startOffset;
+        published = startOffset + count;
+        writePos = pos;
+        // Segments behind the write segment that the scan skipped past are kept until consumed
+        checkpoint.write(consumed, segments.get(0).base, readPos);
+    }
+
+    /**
+     * Clears {@code [from, to)} so no part of a torn record is read back later.
+     */
+    private static void zero(Segment segment, int from, int to) {
+        byte[] zeros = new byte[Math.min(to - from, 8192)];
+        for (int pos = from; pos < to; pos += zeros.length) {
+            segment.buffer.put(pos, zeros, 0, Math.min(zeros.length, to - pos));
+        }
+    }
+
+    private static boolean valid(Segment segment, int pos, int length, CRC32 crc) {
+        crc.reset();
+        crc.update(segment.buffer.duplicate().position(pos + HEADER_BYTES).limit(pos + HEADER_BYTES + length));
+        return (int) crc.getValue() == segment.buffer.getInt(pos + 4);
+    }
+
+    private Path segmentPath(long base) {
+        return dir.resolve(String.format("%020d%s", base, SEGMENT_SUFFIX));
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue is closed");
+        }
+    }
+
+    /**
+     * A taken message: where the checkpoint goes once it and everything
+     * before it is committed.
+     */
+    private static final class Taken {
+
+        final long base;
+        final int end;
+        boolean done;
+
+        Taken(long base, int end) {
+            this.base = base;
+            this.end = end;
+        }
+    }
+
+    /**
+     * Walks records from a position without consuming them.
+     */
+    private final class Cursor {
+
+        private int index;
+        private int pos;
+
+        Cursor(int index, int pos) {
+            this.index = index;
+            this.pos = pos;
+        }
+
+        byte[] read() {
+            Segment segment = segments.get(index);
+            if (atEnd(segment, pos)) {
+                segment = segments.get(++index);
+                pos = 0;
+            }
+            int length = segment.buffer.getInt(pos);
+            byte[] bytes = new byte[length];
+            segment.buffer.get(pos + HEADER_BYTES, bytes);
+            pos += HEADER_BYTES + length;
+            return bytes;
+        }
+    }
+
+    /**
+     * One mapped segment file.
+     */
+    private static final class Segment {
+
+        final long base;
+        final Path file;
+        final MappedByteBuffer buffer;
+
+        private Segment(long base, Path file, MappedByteBuffer buffer) {
+            this.base = base;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps an existing segment at its own size, or creates one of {@code newSize} bytes.
+         */
+        static Segment open(Path file, long base, int newSize) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long size = channel.size() > 0 ? channel.size() : newSize;
+                return new Segment(base, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            }
+        }
+
+        int size() {
+            return buffer.capacity();
+        }
+
+        /** Removes the file; the mapping stays valid until it is garbage collected. */
+        void delete() {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete consumed segment " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Consumer position, written to one of two mapped slots in turn:
+     * {@code [long sequence][long offset][long segment base][int position][int CRC32]}.
+     * The valid slot with the higher sequence wins.
+     */
+    private static final class Checkpoint {
+
+        private static final int SLOT_BYTES = 32;
+        private static final int CRC_BYTES = 28;
+
+        private final MappedByteBuffer buffer;
+        private final CRC32 crc = new CRC32();
+        private long sequence;
+
+        private Checkpoint(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        static Checkpoint open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return new Checkpoint(channel.map(FileChannel.MapMode.READ_WRITE, 0, 2 * SLOT_BYTES));
+            }
+        }
+
+        /**
+         * @return {offset, segment base, position} of the newest valid slot, or null
+         */
+        long[] read() {
+            long[] best = null;
+            for (int slot = 0; slot < 2; slot++) {
+                int at = slot * SLOT_BYTES;
+                long seq = buffer.getLong(at);
+                if (seq > 0 && checksum(at) == buffer.getInt(at + CRC_BYTES) && seq > sequence) {
+                    sequence = seq;
+                    best = new long[]{buffer.getLong(at + 8), buffer.getLong(at + 16), buffer.getInt(at + 24)};
+                }
+            }
+            return best;
+        }
+
+        void write(long offset, long base, int position) {
+            sequence++;
+            int at = (int) (sequence & 1) * SLOT_BYTES;
+            buffer.putLong(at, sequence);
+            buffer.putLong(at + 8, offset);
+            buffer.putLong(at + 16, base);
+            buffer.putInt(at + 24, position);
+            buffer.putInt(at + CRC_BYTES, checksum(at));
+        }
+
+        void force() {
+            buffer.force();
+        }
+
+        private int checksum(int at) {
+            crc.reset();
+            crc.update(buffer.duplicate().position(at).limit(at + CRC_BYTES));
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.intuit.queue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+
+/**
+ * Queue implementations that can back the producer/consumer buffer.
+ * <ul>
+ *     <li>{@link #ARRAY_BLOCKING} – {@link ArrayBlockingQueue}: one lock shared
+ *     by producers and consumers. The original behaviour.</li>
+ *     <li>{@link #LINKED_BLOCKING} – {@link LinkedBlockingQueue}: separate put
+ *     and take locks, so producers and consumers do not contend with each
+ *     other. Allocates a node per message.</li>
+ *     <li>{@link #LINKED_TRANSFER} – {@link LinkedTransferQueue}: lock-free
+ *     and <b>unbounded</b>; the buffer size is ignored and producers never
+ *     block.</li>
+ *     <li>{@link #MPMC_RING} – {@link MpmcRingBuffer}: bounded and lock-free,
+ *     waiting with the given {@link WaitStrategy}. The buffer size is
+ *     rounded up to a power of two.</li>
+ * </ul>
+ */
+public enum QueueType {
+
+    ARRAY_BLOCKING,
+    LINKED_BLOCKING,
+    LINKED_TRANSFER,
+    MPMC_RING;
+
+    /**
+     * Creates a queue of this type.
+     *
+     * @param capacity     buffer size (>= 1); ignored by {@link #LINKED_TRANSFER}
+     * @param waitStrategy used by {@link #MPMC_RING} only
+     */
+    public <E> BlockingQueue<E> create(int capacity, WaitStrategy waitStrategy) {
+        switch (this) {
+            case LINKED_BLOCKING:
+                return new LinkedBlockingQueue<>(capacity);
+            case LINKED_TRANSFER:
+                return new LinkedTransferQueue<>();
+            case MPMC_RING:
+                return new MpmcRingBuffer<>(capacity, waitStrategy);
+            case ARRAY_BLOCKING:
+            default:
+                return new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
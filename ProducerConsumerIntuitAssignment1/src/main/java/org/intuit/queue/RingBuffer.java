@@ -0,0 +1,205 @@
+package org.intuit.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disruptor-style ring of preallocated, mutable event slots.
+ * <p>
+ * Unlike a {@link java.util.concurrent.BlockingQueue}, nothing is handed
+ * over by reference: every slot is created once up front and reused for
+ * every lap. Producers claim sequence numbers, write into the claimed slots
+ * in place and publish them; consumers read the published slots where they
+ * are and then report how far they have got. The hot path allocates nothing.
+ *
+ * <pre>{@code
+ * long hi = ring.next(batch);                  // claim hi-batch+1 .. hi
+ * for (long s = hi - batch + 1; s <= hi; s++) {
+ *     ring.get(s).set(...);                    // write in place
+ * }
+ * ring.publish(hi - batch + 1, hi);            // make the batch visible
+ * }</pre>
+ *
+ * Any number of producers may claim concurrently. A claimed sequence must
+ * always be published, otherwise consumers stop at it. Consumers register
+ * with {@link #addConsumer()} before the first claim; producers never
+ * overwrite a slot that a registered consumer has not passed yet. Waiting on
+ * a full or empty ring uses the configured {@link WaitStrategy} and is
+ * interruptible.
+ *
+ * @param <E> slot type
+ */
+public class RingBuffer<E> {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final int[] available;     // lap number published into each slot, -1 = never
+
+    private final AtomicLong cursor = new AtomicLong(-1);   // highest claimed sequence
+    private volatile AtomicLong[] consumers = new AtomicLong[0];
+    private volatile long cachedMinimum = -1;               // lower bound of the slowest consumer
+
+    private final Waiter published;
+    private final Waiter consumed;
+
+    /**
+     * @param factory      creates the slot objects, once per slot
+     * @param bufferSize   number of slots; must be a power of two
+     * @param waitStrategy how producers wait for space and consumers for events
+     */
+    public RingBuffer(Supplier<E> factory, int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of two but was " + bufferSize);
+        }
+        this.entries = new Object[bufferSize];
+        for (int i = 0; i < bufferSize; i++) {
+            entries[i] = factory.get();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.available = new int[bufferSize];
+        Arrays.fill(available, -1);
+        this.published = waitStrategy.newWaiter();
+        this.consumed = waitStrategy.newWaiter();
+    }
+
+    public int getBufferSize() {
+        return entries.length;
+    }
+
+    /**
+     * Returns the slot for {@code sequence}. Only valid between claiming and
+     * publishing it (producer) or between receiving and releasing it (consumer).
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) entries[(int) sequence & mask];
+    }
+
+    /**
+     * Claims the next sequence, waiting while the ring is full.
+     */
+    public long next() throws InterruptedException {
+        return next(1);
+    }
+
+    /**
+     * Claims the next {@code n} sequences, waiting while the ring is full.
+     *
+     * @return the highest claimed sequence; the batch is {@code [result - n + 1, result]}
+     * @throws InterruptedException if interrupted while waiting; nothing is claimed then
+     */
+    public long next(int n) throws InterruptedException {
+        if (n < 1 || n > entries.length) {
+            throw new IllegalArgumentException("n must be in 1.." + entries.length + " but was " + n);
+        }
+        while (true) {
+            long current = cursor.get();
+            long next = current + n;
+            long wrapPoint = next - entries.length;
+            if (wrapPoint > cachedMinimum) {
+                long minimum = minimumConsumerSequence(current);
+                if (wrapPoint > minimum) {
+                    consumed.await(() -> wrapPoint <= minimumConsumerSequence(cursor.get()), Long.MAX_VALUE);
+                    continue;
+                }
+                cachedMinimum = minimum;
+            }
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Makes one claimed slot visible to consumers.
+     */
+    public void publish(long sequence) {
+        setAvailable(sequence);
+        signalPublished();
+    }
+
+    /**
+     * Makes the claimed slots {@code lo..hi} visible to consumers, waking
+     * waiting consumers once for the whole batch.
+     */
+    public void publish(long lo, long hi) {
+        for (long s = lo; s <= hi; s++) {
+            setAvailable(s);
+        }
+        signalPublished();
+    }
+
+    /**
+     * Registers a consumer. Producers will not overwrite slots it has not
+     * released through {@link #release}. Must be called before the first claim.
+     *
+     * @return the consumer's position, initially "nothing consumed"
+     */
+    public synchronized AtomicLong addConsumer() {
+        AtomicLong sequence = new AtomicLong(cursor.get());
+        AtomicLong[] current = consumers;
+        AtomicLong[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        consumers = updated;
+        return sequence;
+    }
+
+    /**
+     * Waits until {@code sequence} is published.
+     *
+     * @return the highest sequence >= {@code sequence} such that every slot up
+     * to it is published, so the caller can process the whole range as a batch
+     */
+    public long waitFor(long sequence) throws InterruptedException {
+        if (!isAvailable(sequence)) {
+            published.await(() -> isAvailable(sequence), Long.MAX_VALUE);
+        }
+        long highest = cursor.get();
+        for (long s = sequence + 1; s <= highest; s++) {
+            if (!isAvailable(s)) {
+                return s - 1;
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Tells producers that the consumer owning {@code consumerSequence} is done
+     * with every slot up to and including {@code sequence}.
+     */
+    public void release(AtomicLong consumerSequence, long sequence) {
+        consumerSequence.set(sequence);   // volatile, see signalPublished()
+        consumed.signalAll();
+    }
+
+    private void signalPublished() {
+        // The release stores above must not be reordered with the waiter
+        // count read in signalAll(), or a consumer that has just registered
+        // as waiting could miss both the slot and the signal
+        VarHandle.fullFence();
+        published.signalAll();
+    }
+
+    private boolean isAvailable(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> indexShift);
+    }
+
+    private void setAvailable(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+    }
+
+    private long minimumConsumerSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (AtomicLong consumer : consumers) {
+            minimum = Math.min(minimum, consumer.get());
+        }
+        return minimum;
+    }
+}
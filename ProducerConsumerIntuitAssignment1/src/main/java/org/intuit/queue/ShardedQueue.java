@@ -0,0 +1,248 @@
+package org.intuit.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * N independent queues (shards) behind one {@link BlockingQueue}, with
+ * messages routed by key, like Kafka partitions.
+ * <p>
+ * {@code offer}/{@code put} send each message to the shard chosen by the
+ * hash of its key, so all messages with the same key go to the same shard
+ * in the order they were put. Consumers should not take from the sharded
+ * queue as a whole but from {@link #ownedBy(int, int)}, a view over the
+ * shards that consumer owns exclusively. Each key is then consumed by
+ * exactly one consumer, in FIFO order, and producers and consumers of
+ * different shards never touch the same lock.
+ * <p>
+ * A view over one shard takes from it directly. A view over several polls
+ * them round-robin and, when all are empty, waits on one of them for at
+ * most {@value #IDLE_POLL_MICROS} µs before trying the others again.
+ */
+public class ShardedQueue extends AbstractQueue<String> implements EvictingQueue<String> {
+
+    static final long IDLE_POLL_MICROS = 1000;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(IDLE_POLL_MICROS);
+
+    private final List<BlockingQueue<String>> shards;      // every shard, for routing
+    private final Function<? super String, ?> keyOf;
+    private final BlockingQueue<String>[] owned;            // shards this view takes from
+    private int cursor;                                     // round-robin position; only fairness depends on it
+
+    /**
+     * @param shardCount   number of shards (>= 1)
+     * @param shardFactory creates shard {@code i}
+     * @param keyOf        extracts the routing key of a message
+     */
+    public ShardedQueue(int shardCount, IntFunction<BlockingQueue<String>> shardFactory,
+                        Function<? super String, ?> keyOf) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be >= 1 but was " + shardCount);
+        }
+        List<BlockingQueue<String>> created = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            created.add(shardFactory.apply(i));
+        }
+        this.shards = Collections.unmodifiableList(created);
+        this.keyOf = keyOf;
+        this.owned = toArray(created);
+    }
+
+    private ShardedQueue(ShardedQueue all, List<BlockingQueue<String>> owned) {
+        this.shards = all.shards;
+        this.keyOf = all.keyOf;
+        this.owned = toArray(owned);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BlockingQueue<String>[] toArray(List<BlockingQueue<String>> queues) {
+        return queues.toArray(new BlockingQueue[0]);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public BlockingQueue<String> getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    /**
+     * Shard that messages with the same key as {@code message} are routed to.
+     */
+    public int shardFor(String message) {
+        int h = Objects.hashCode(keyOf.apply(message));
+        return Math.floorMod(h ^ (h >>> 16), shards.size());
+    }
+
+    /**
+     * View for consumer {@code consumerId} (1-based) of {@code consumerCount}:
+     * it takes from shards {@code i} with {@code i % consumerCount == consumerId - 1}.
+     * Offers to the view are still routed over all shards.
+     *
+     * @throws IllegalArgumentException if there are fewer shards than consumers,
+     *                                  since some consumer would own none
+     */
+    public ShardedQueue ownedBy(int consumerId, int consumerCount) {
+        if (consumerCount > shards.size()) {
+            throw new IllegalArgumentException(consumerCount + " consumers need at least as many shards, but there are "
+                    + shards.size());
+        }
+        if (consumerId < 1 || consumerId > consumerCount) {
+            throw new IllegalArgumentException("consumerId must be in 1.." + consumerCount + " but was " + consumerId);
+        }
+        List<BlockingQueue<String>> mine = new ArrayList<>();
+        for (int i = consumerId - 1; i < shards.size(); i += consumerCount) {
+            mine.add(shards.get(i));
+        }
+        return new ShardedQueue(this, mine);
+    }
+
+    // ---- producer side: routed by key ----
+
+    @Override
+    public boolean offer(String message) {
+        return shards.get(shardFor(message)).offer(message);
+    }
+
+    @Override
+    public void put(String message) throws InterruptedException {
+        shards.get(shardFor(message)).put(message);
+    }
+
+    @Override
+    public boolean offer(String message, long timeout, TimeUnit unit) throws InterruptedException {
+        return shards.get(shardFor(message)).offer(message, timeout, unit);
+    }
+
+    /**
+     * Takes the oldest message of the shard {@code incoming} is routed to, so
+     * other keys keep their messages.
+     */
+    @Override
+    public String evictFor(String incoming) {
+        return shards.get(shardFor(incoming)).poll();
+    }
+
+    // ---- consumer side: over the owned shards ----
+
+    @Override
+    public String poll() {
+        int n = owned.length;
+        for (int i = 0; i < n; i++) {
+            String message = owned[nextShard()].poll();
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String take() throws InterruptedException {
+        if (owned.length == 1) {
+            return owned[0].take();
+        }
+        String message;
+        while ((message = poll()) == null) {
+            message = owned[nextShard()].poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+            if (message != null) {
+                return message;
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (owned.length == 1) {
+            return owned[0].poll(timeout, unit);
+        }
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (true) {
+            String message = poll();
+            if (message != null) {
+                return message;
+            }
+            if (remaining <= 0) {
+                return null;
+            }
+            message = owned[nextShard()].poll(Math.min(remaining, IDLE_POLL_NANOS), TimeUnit.NANOSECONDS);
+            if (message != null) {
+                return message;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    @Override
+    public String peek() {
+        for (BlockingQueue<String> shard : owned) {
+            String message = shard.peek();
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c, int maxElements) {
+        int drained = 0;
+        for (int i = 0; i < owned.length && drained < maxElements; i++) {
+            drained += owned[nextShard()].drainTo(c, maxElements - drained);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (BlockingQueue<String> shard : owned) {
+            size += shard.size();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, size);
+    }
+
+    @Override
+    public int remainingCapacity() {
+        long remaining = 0;
+        for (BlockingQueue<String> shard : owned) {
+            remaining += shard.remainingCapacity();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    /**
+     * Weakly consistent iteration over the owned shards, one after another.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        return Arrays.stream(owned).flatMap(BlockingQueue::stream).iterator();
+    }
+
+    private int nextShard() {
+        int shard = cursor + 1;
+        if (shard >= owned.length) {
+            shard = 0;
+        }
+        cursor = shard;
+        return shard;
+    }
+}
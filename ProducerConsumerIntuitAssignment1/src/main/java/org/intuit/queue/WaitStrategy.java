@@ -0,0 +1,138 @@
+package org.intuit.queue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * How {@link MpmcRingBuffer} and {@link RingBuffer} wait when they are empty (consumers) or full
+ * (producers).
+ * <ul>
+ *     <li>{@link #BLOCK} – parks on a lock condition and is woken by the other
+ *     side. Lowest CPU use, highest wake-up latency.</li>
+ *     <li>{@link #SPIN_THEN_PARK} – busy-spins briefly, then parks for short,
+ *     growing intervals. Low latency under load, little CPU when idle.</li>
+ *     <li>{@link #YIELD} – spins briefly, then yields the CPU in a loop.
+ *     Lowest latency, but keeps one core busy per waiting thread.</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+
+    BLOCK {
+        @Override
+        Waiter newWaiter() {
+            return new BlockingWaiter();
+        }
+    },
+
+    SPIN_THEN_PARK {
+        @Override
+        Waiter newWaiter() {
+            return new PollingWaiter(false);
+        }
+    },
+
+    YIELD {
+        @Override
+        Waiter newWaiter() {
+            return new PollingWaiter(true);
+        }
+    };
+
+    abstract Waiter newWaiter();
+
+    private static final int SPIN_TRIES = 100;
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Lock/condition waiter. Signalling only takes the lock when a thread is
+     * actually waiting, so the uncontended hot path stays lock-free.
+     */
+    private static final class BlockingWaiter implements Waiter {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        @Override
+        public boolean await(BooleanSupplier condition, long deadlineNanos) throws InterruptedException {
+            lock.lockInterruptibly();
+            // Registering before re-checking the condition means a concurrent
+            // signalAll() either sees us waiting or we see its state change
+            waiters.incrementAndGet();
+            try {
+                while (!condition.getAsBoolean()) {
+                    if (deadlineNanos == Long.MAX_VALUE) {
+                        changed.await();
+                    } else {
+                        long remaining = deadlineNanos - System.nanoTime();
+                        if (remaining <= 0) {
+                            return false;
+                        }
+                        changed.awaitNanos(remaining);
+                    }
+                }
+                return true;
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void signalAll() {
+            if (waiters.get() > 0) {
+                lock.lock();
+                try {
+                    changed.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Spins, then either yields or parks with exponential back-off. Never
+     * needs a signal because it re-checks the condition itself.
+     */
+    private static final class PollingWaiter implements Waiter {
+
+        private final boolean yield;
+
+        PollingWaiter(boolean yield) {
+            this.yield = yield;
+        }
+
+        @Override
+        public boolean await(BooleanSupplier condition, long deadlineNanos) throws InterruptedException {
+            long parkNanos = MIN_PARK_NANOS;
+            for (int tries = 0; !condition.getAsBoolean(); tries++) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() - deadlineNanos >= 0) {
+                    return false;
+                }
+                if (tries < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (yield) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(parkNanos);
+                    parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void signalAll() {
+            // Pollers notice the change on their own
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.intuit.queue;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Parks a thread until a queue condition (not empty / not full) may hold.
+ * <p>
+ * Created per condition by a {@link WaitStrategy}. Waiting is advisory: the
+ * caller always re-checks its real operation after {@link #await} returns.
+ */
+interface Waiter {
+
+    /**
+     * Waits until {@code condition} is true, the deadline passes or the
+     * thread is interrupted.
+     *
+     * @param deadlineNanos {@link System#nanoTime()} deadline, or
+     *                      {@link Long#MAX_VALUE} to wait forever
+     * @return {@code false} if the deadline passed first
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    boolean await(BooleanSupplier condition, long deadlineNanos) throws InterruptedException;
+
+    /**
+     * Wakes every waiter after the condition may have become true.
+     */
+    void signalAll();
+}
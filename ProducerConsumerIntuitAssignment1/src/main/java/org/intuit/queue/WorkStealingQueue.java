@@ -0,0 +1,258 @@
+package org.intuit.queue;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One bounded deque per consumer, with idle consumers stealing from busy
+ * ones, in the spirit of {@link java.util.concurrent.ForkJoinPool}.
+ * <p>
+ * Producers put into the deques round-robin, skipping full ones, and block
+ * only when the chosen deque and all the others are full. Each consumer
+ * takes from {@link #forConsumer(int)}, a view that serves the consumer's own
+ * deque first, oldest message first. When that is empty it steals the
+ * oldest message from another deque, starting at a random victim. Only if
+ * there is nothing to steal does it wait on its own deque, for at most
+ * {@value #IDLE_POLL_MICROS} µs, before looking again.
+ * <p>
+ * Compared with one shared queue, consumers mostly touch only their own
+ * deque's lock. Compared with fixed partitions ({@link ShardedQueue}), a
+ * slow consumer's backlog is worked off by the others instead of waiting
+ * for it. There is no per-key ordering.
+ */
+public class WorkStealingQueue extends AbstractQueue<String> implements BlockingQueue<String> {
+
+    static final long IDLE_POLL_MICROS = 1000;
+    private static final long IDLE_POLL_NANOS = TimeUnit.MICROSECONDS.toNanos(IDLE_POLL_MICROS);
+
+    private final List<LinkedBlockingDeque<String>> deques;
+    private final AtomicInteger nextDeque;
+    private final LongAdder stolen;
+    private final int home;    // index of the deque this view owns, -1 for the whole queue
+
+    /**
+     * @param consumers           number of consumers, i.e. deques (>= 1)
+     * @param capacityPerConsumer capacity of each deque (>= 1)
+     */
+    public WorkStealingQueue(int consumers, int capacityPerConsumer) {
+        if (consumers < 1 || capacityPerConsumer < 1) {
+            throw new IllegalArgumentException("consumers and capacityPerConsumer must be >= 1");
+        }
+        List<LinkedBlockingDeque<String>> created = new ArrayList<>(consumers);
+        for (int i = 0; i < consumers; i++) {
+            created.add(new LinkedBlockingDeque<>(capacityPerConsumer));
+        }
+        this.deques = created;
+        this.nextDeque = new AtomicInteger();
+        this.stolen = new LongAdder();
+        this.home = -1;
+    }
+
+    private WorkStealingQueue(WorkStealingQueue all, int home) {
+        this.deques = all.deques;
+        this.nextDeque = all.nextDeque;
+        this.stolen = all.stolen;
+        this.home = home;
+    }
+
+    /**
+     * View for consumer {@code consumerId} (1-based). Offers to the view are
+     * distributed over all deques like offers to the whole queue.
+     */
+    public WorkStealingQueue forConsumer(int consumerId) {
+        if (consumerId < 1 || consumerId > deques.size()) {
+            throw new IllegalArgumentException("consumerId must be in 1.." + deques.size() + " but was " + consumerId);
+        }
+        return new WorkStealingQueue(this, consumerId - 1);
+    }
+
+    /** Messages taken by a consumer from a deque other than its own. */
+    public long getStolenCount() {
+        return stolen.sum();
+    }
+
+    // ---- producer side: round-robin over the deques ----
+
+    @Override
+    public boolean offer(String message) {
+        Objects.requireNonNull(message);
+        int start = Math.floorMod(nextDeque.getAndIncrement(), deques.size());
+        for (int i = 0; i < deques.size(); i++) {
+            if (deques.get((start + i) % deques.size()).offerLast(message)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void put(String message) throws InterruptedException {
+        if (!offer(message)) {
+            // Everything is full: wait on one deque, like a single bounded queue would
+            deques.get(Math.floorMod(nextDeque.getAndIncrement(), deques.size())).putLast(message);
+        }
+    }
+
+    @Override
+    public boolean offer(String message, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(message)
+                || deques.get(Math.floorMod(nextDeque.getAndIncrement(), deques.size())).offerLast(message, timeout, unit);
+    }
+
+    // ---- consumer side: own deque first, then steal ----
+
+    @Override
+    public String poll() {
+        if (home >= 0) {
+            String message = deques.get(home).pollFirst();
+            if (message != null) {
+                return message;
+            }
+        }
+        return steal();
+    }
+
+    @Override
+    public String take() throws InterruptedException {
+        String message;
+        while ((message = poll()) == null) {
+            message = idleWait(IDLE_POLL_NANOS);
+            if (message != null) {
+                return message;
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public String poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (true) {
+            String message = poll();
+            if (message != null) {
+                return message;
+            }
+            if (remaining <= 0) {
+                return null;
+            }
+            message = idleWait(Math.min(remaining, IDLE_POLL_NANOS));
+            if (message != null) {
+                return message;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+    }
+
+    @Override
+    public String peek() {
+        if (home >= 0) {
+            String message = deques.get(home).peekFirst();
+            if (message != null) {
+                return message;
+            }
+        }
+        for (LinkedBlockingDeque<String> deque : deques) {
+            String message = deque.peekFirst();
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int drainTo(Collection<? super String> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Drains the own deque; if it is empty, steals a single message instead.
+     */
+    @Override
+    public int drainTo(Collection<? super String> c, int maxElements) {
+        int drained = home >= 0 ? deques.get(home).drainTo(c, maxElements) : 0;
+        if (drained == 0 && maxElements > 0) {
+            String message = steal();
+            if (message != null) {
+                c.add(message);
+                drained = 1;
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Messages in this view's own deque, or in all deques for the whole queue.
+     */
+    @Override
+    public int size() {
+        if (home >= 0) {
+            return deques.get(home).size();
+        }
+        int size = 0;
+        for (LinkedBlockingDeque<String> deque : deques) {
+            size += deque.size();
+        }
+        return size;
+    }
+
+    @Override
+    public int remainingCapacity() {
+        int remaining = 0;
+        for (LinkedBlockingDeque<String> deque : deques) {
+            remaining += deque.remainingCapacity();
+        }
+        return remaining;
+    }
+
+    /**
+     * Weakly consistent iteration over this view's own deque, or over all
+     * deques one after another for the whole queue.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        if (home >= 0) {
+            return deques.get(home).iterator();
+        }
+        return deques.stream().flatMap(LinkedBlockingDeque::stream).iterator();
+    }
+
+    /**
+     * Takes the oldest message of another deque, probing every deque once
+     * from a random start so thieves do not all hit the same victim.
+     */
+    private String steal() {
+        int n = deques.size();
+        int start = ThreadLocalRandom.current().nextInt(n);
+        for (int i = 0; i < n; i++) {
+            int victim = (start + i) % n;
+            if (victim == home) {
+                continue;
+            }
+            String message = deques.get(victim).pollFirst();
+            if (message != null) {
+                if (home >= 0) {
+                    stolen.increment();
+                }
+                return message;
+            }
+        }
+        return null;
+    }
+
+    private String idleWait(long nanos) throws InterruptedException {
+        LinkedBlockingDeque<String> deque = deques.get(home >= 0 ? home : ThreadLocalRandom.current().nextInt(deques.size()));
+        return deque.pollFirst(nanos, TimeUnit.NANOSECONDS);
+    }
+}
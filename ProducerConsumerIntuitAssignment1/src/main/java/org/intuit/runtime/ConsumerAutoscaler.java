@@ -0,0 +1,261 @@
+package org.intuit.runtime;
+
+import java.io.PrintStream;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resizes the consumer pool of a {@link PipelineRuntime} to the load.
+ * <p>
+ * At every sample it reads the occupancy of the shared queue and how many
+ * consumers are idle, i.e. waiting in {@code take}/{@code poll} on a queue
+ * obtained from {@link #watch}:
+ * <ul>
+ *     <li>occupancy at or above the high watermark for
+ *     {@value #SCALE_UP_SAMPLES} samples in a row adds half the current
+ *     consumers (at least one), so a burst is met quickly;</li>
+ *     <li>occupancy at or below the low watermark with at least half the
+ *     consumers idle for {@value #SCALE_DOWN_SAMPLES} samples in a row
+ *     retires one consumer, so capacity is released slowly.</li>
+ * </ul>
+ * Occupancy is the queue's size over its capacity. An unbounded queue
+ * ({@code remainingCapacity() == Integer.MAX_VALUE}, e.g. a
+ * {@link java.util.concurrent.LinkedTransferQueue}) has no capacity to
+ * fill, so its depth is measured against a nominal capacity given to the
+ * constructor instead.
+ * <p>
+ * The pool stays within {@code [minConsumers, maxConsumers]}, and the
+ * streaks restart after every change. The differing thresholds and streak
+ * lengths keep the pool from oscillating around a single level.
+ * <p>
+ * Only for consumers that are interchangeable, i.e. all taking from the
+ * same shared queue.
+ */
+public class ConsumerAutoscaler implements AutoCloseable {
+
+    static final int SCALE_UP_SAMPLES = 2;
+    static final int SCALE_DOWN_SAMPLES = 5;
+    static final double IDLE_RATIO_TO_SCALE_DOWN = 0.5;
+
+    private final PipelineRuntime runtime;
+    private final BlockingQueue<?> queue;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final double lowWatermark;
+    private final double highWatermark;
+    private final int nominalCapacity;   // depth counted as full on an unbounded queue
+    private final AtomicInteger waiting = new AtomicInteger();   // consumers currently idle
+
+    private int highStreak;   // sampling thread only
+    private int lowStreak;
+    private ScheduledExecutorService scheduler;
+    private PrintStream out;
+
+    /**
+     * @param queue         the shared queue whose occupancy drives scaling; must be bounded
+     * @param lowWatermark  occupancy (0–1) at or below which idle consumers are retired
+     * @param highWatermark occupancy (0–1) at or above which consumers are added
+     * @throws IllegalArgumentException if the queue is unbounded
+     */
+    public ConsumerAutoscaler(PipelineRuntime runtime, BlockingQueue<?> queue, int minConsumers, int maxConsumers,
+                              double lowWatermark, double highWatermark) {
+        this(runtime, queue, minConsumers, maxConsumers, lowWatermark, highWatermark, 0);
+    }
+
+    /**
+     * @param queue           the shared queue whose occupancy drives scaling
+     * @param lowWatermark    occupancy (0–1) at or below which idle consumers are retired
+     * @param highWatermark   occupancy (0–1) at or above which consumers are added
+     * @param nominalCapacity depth counted as 100% occupancy if the queue is
+     *                        unbounded, e.g. the configured buffer size; 0 to
+     *                        require a bounded queue
+     */
+    public ConsumerAutoscaler(PipelineRuntime runtime, BlockingQueue<?> queue, int minConsumers, int maxConsumers,
+                              double lowWatermark, double highWatermark, int nominalCapacity) {
+        if (minConsumers < 1 || maxConsumers < minConsumers) {
+            throw new IllegalArgumentException("1 <= minConsumers <= maxConsumers required");
+        }
+        if (!(0 <= lowWatermark && lowWatermark < highWatermark && highWatermark <= 1)) {
+            throw new IllegalArgumentException("0 <= lowWatermark < highWatermark <= 1 required");
+        }
+        if (nominalCapacity < 0) {
+            throw new IllegalArgumentException("nominalCapacity must be >= 0");
+        }
+        if (nominalCapacity == 0 && isUnbounded(queue)) {
+            throw new IllegalArgumentException("An unbounded queue needs a nominal capacity to measure occupancy");
+        }
+        this.runtime = runtime;
+        this.queue = queue;
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.nominalCapacity = nominalCapacity;
+    }
+
+    /**
+     * Queue for a consumer: the same queue, but time spent waiting in it
+     * counts the consumer as idle.
+     */
+    public <E> BlockingQueue<E> watch(BlockingQueue<E> consumerQueue) {
+        return new IdleTrackingQueue<>(consumerQueue, waiting);
+    }
+
+    /**
+     * Samples every {@code intervalMillis} on a daemon thread until closed.
+     *
+     * @param out receives one line per scaling decision, or null
+     */
+    public synchronized void start(long intervalMillis, PrintStream out) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Already started");
+        }
+        this.out = out;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "consumer-autoscaler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes one sample and scales if a streak is complete. Called by the
+     * scheduler started with {@link #start}; may also be called directly.
+     *
+     * @return the change in consumers: positive, negative or 0
+     */
+    public int sample() {
+        int consumers = runtime.getConsumerCount();
+        int size = queue.size();
+        long capacity = isUnbounded(queue) ? nominalCapacity : (long) size + queue.remainingCapacity();
+        double occupancy = capacity == 0 ? 1 : Math.min(1, (double) size / capacity);
+        double idleRatio = consumers == 0 ? 0 : Math.min(1, (double) waiting.get() / consumers);
+
+        highStreak = occupancy >= highWatermark ? highStreak + 1 : 0;
+        lowStreak = occupancy <= lowWatermark && idleRatio >= IDLE_RATIO_TO_SCALE_DOWN ? lowStreak + 1 : 0;
+
+        int change = 0;
+        if (highStreak >= SCALE_UP_SAMPLES && consumers < maxConsumers) {
+            int target = Math.min(maxConsumers, consumers + Math.max(1, consumers / 2));
+            while (change < target - consumers && runtime.addConsumer()) {
+                change++;
+            }
+        } else if (lowStreak >= SCALE_DOWN_SAMPLES && consumers > minConsumers) {
+            if (runtime.retireConsumer()) {
+                change = -1;
+            }
+        }
+        if (change != 0) {
+            highStreak = 0;
+            lowStreak = 0;
+            if (out != null) {
+                out.printf("[autoscaler] %d -> %d consumers (occupancy %.0f%%, idle %.0f%%)%n",
+                        consumers, consumers + change, occupancy * 100, idleRatio * 100);
+            }
+        }
+        return change;
+    }
+
+    private static boolean isUnbounded(BlockingQueue<?> queue) {
+        return queue.remainingCapacity() == Integer.MAX_VALUE;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Forwards everything to the consumer's queue and counts the caller as
+     * idle while it waits in {@code take} or a timed {@code poll}.
+     */
+    private static final class IdleTrackingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+        private final BlockingQueue<E> delegate;
+        private final AtomicInteger waiting;
+
+        IdleTrackingQueue(BlockingQueue<E> delegate, AtomicInteger waiting) {
+            this.delegate = delegate;
+            this.waiting = waiting;
+        }
+
+        @Override
+        public E take() throws InterruptedException {
+            waiting.incrementAndGet();
+            try {
+                return delegate.take();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        @Override
+        public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+            waiting.incrementAndGet();
+            try {
+                return delegate.poll(timeout, unit);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        @Override
+        public E poll() {
+            return delegate.poll();
+        }
+
+        @Override
+        public E peek() {
+            return delegate.peek();
+        }
+
+        @Override
+        public boolean offer(E e) {
+            return delegate.offer(e);
+        }
+
+        @Override
+        public void put(E e) throws InterruptedException {
+            delegate.put(e);
+        }
+
+        @Override
+        public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.offer(e, timeout, unit);
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> c) {
+            return delegate.drainTo(c);
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> c, int maxElements) {
+            return delegate.drainTo(c, maxElements);
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return delegate.remainingCapacity();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return delegate.iterator();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package org.intuit.runtime;
+
+import org.intuit.consumer.MessageHandler;
+import org.intuit.queue.PersistentQueue;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/**
+ * Runs producers and consumers on executors and shuts them down in stages,
+ * so messages already in the buffer are not lost:
+ * <ol>
+ *     <li>Producers are interrupted and awaited; nothing new enters the buffer.</li>
+ *     <li>Consumers keep running until the buffer is empty or the drain
+ *     timeout expires.</li>
+ *     <li>Consumers are interrupted and awaited for up to the hard-stop timeout.</li>
+ * </ol>
+ * Shutdown is triggered by {@link #awaitShutdown(long)}'s timer, by the JVM
+ * shutdown hook it installs (Ctrl+C, SIGTERM), or by calling
+ * {@link #shutdown()} directly. It runs once; every caller receives the same
+ * {@link ShutdownReport}.
+ * <p>
+ * Consumers must pass every message to the handler they are created with,
+ * which is how the runtime counts drained and in-flight messages.
+ * <p>
+ * The consumer pool can be resized while running with {@link #addConsumer()}
+ * and {@link #retireConsumer()}, e.g. by a {@link ConsumerAutoscaler}. A
+ * retired consumer is interrupted like at shutdown, so a message it has
+ * already taken is still handled.
+ */
+public class PipelineRuntime {
+
+    /**
+     * Creates a consumer task that hands every message to {@code handler}.
+     */
+    @FunctionalInterface
+    public interface ConsumerFactory {
+
+        Runnable create(int consumerId, MessageHandler<String> handler);
+    }
+
+    private static final long DRAIN_POLL_MILLIS = 10;
+
+    private final BlockingQueue<String> queue;
+    private final ThreadFactory threadFactory;
+    private final MessageHandler<String> handler;
+    private final long drainMillis;
+    private final long hardStopMillis;
+
+    private final LongAdder consumed = new LongAdder();
+    private final AtomicInteger active = new AtomicInteger();    // handlers currently running
+    private final CountDownLatch stopRequested = new CountDownLatch(1);
+
+    private ExecutorService producers;
+    private ExecutorService consumers;
+    private ShutdownReport report;
+
+    private ConsumerFactory consumerFactory;
+    private MessageHandler<String> tracked;
+    private final Deque<ConsumerTask> running = new ArrayDeque<>();   // newest last
+    private final AtomicInteger consumerCount = new AtomicInteger();
+    private int nextConsumerId = 1;
+    private volatile boolean stopping;
+
+    /**
+     * @param handler        processes each consumed message
+     * @param drainMillis    how long consumers may keep emptying the buffer after producers stop
+     * @param hardStopMillis how long to wait for consumers to exit once interrupted
+     */
+    public PipelineRuntime(BlockingQueue<String> queue, ThreadFactory threadFactory, MessageHandler<String> handler,
+                           long drainMillis, long hardStopMillis) {
+        if (drainMillis < 0 || hardStopMillis < 0) {
+            throw new IllegalArgumentException("drainMillis and hardStopMillis must be >= 0");
+        }
+        this.queue = queue;
+        this.threadFactory = threadFactory;
+        this.handler = handler;
+        this.drainMillis = drainMillis;
+        this.hardStopMillis = hardStopMillis;
+    }
+
+    /**
+     * Starts {@code numProducers} producers and {@code numConsumers} consumers,
+     * numbered from 1.
+     */
+    public synchronized void start(int numProducers, IntFunction<Runnable> producerFactory,
+                                   int numConsumers, ConsumerFactory consumerFactory) {
+        if (producers != null) {
+            throw new IllegalStateException("Already started");
+        }
+        producers = Executors.newFixedThreadPool(numProducers, threadFactory);
+        consumers = Executors.newCachedThreadPool(threadFactory);   // one thread per consumer, however many
+
+        this.consumerFactory = consumerFactory;
+        this.tracked = message -> {
+            active.incrementAndGet();
+            try {
+                handler.handle(message);
+                consumed.increment();
+            } finally {
+                active.decrementAndGet();
+            }
+        };
+        for (int i = 1; i <= numConsumers; i++) {
+            submitConsumer();
+        }
+        for (int i = 1; i <= numProducers; i++) {
+            producers.execute(producerFactory.apply(i));
+        }
+    }
+
+    /**
+     * Starts one more consumer, numbered after every consumer started so far.
+     *
+     * @return false if the runtime is already shutting down
+     */
+    public synchronized boolean addConsumer() {
+        if (consumers == null) {
+            throw new IllegalStateException("Not started");
+        }
+        if (stopping) {
+            return false;
+        }
+        submitConsumer();
+        return true;
+    }
+
+    /**
+     * Interrupts the most recently started consumer that is still running.
+     *
+     * @return false if none is running or the runtime is already shutting down
+     */
+    public synchronized boolean retireConsumer() {
+        if (stopping) {
+            return false;
+        }
+        ConsumerTask newest;
+        while ((newest = running.pollLast()) != null) {
+            consumerCount.decrementAndGet();
+            if (newest.retire()) {
+                return true;
+            }
+            // it had already stopped by itself; try the next one
+        }
+        return false;
+    }
+
+    /**
+     * Consumers started and not retired. Also readable during shutdown.
+     */
+    public int getConsumerCount() {
+        return consumerCount.get();
+    }
+
+    /**
+     * Messages handled so far.
+     */
+    public long getConsumedCount() {
+        return consumed.sum();
+    }
+
+    private void submitConsumer() {
+        ConsumerTask task = new ConsumerTask(consumerFactory.create(nextConsumerId++, tracked));
+        running.addLast(task);
+        consumerCount.incrementAndGet();
+        consumers.execute(task);
+    }
+
+    /**
+     * Runs until {@code durationMillis} passes, the JVM starts shutting down
+     * or the calling thread is interrupted, then shuts down.
+     */
+    public ShutdownReport awaitShutdown(long durationMillis) {
+        Thread hook = new Thread(() -> {
+            stopRequested.countDown();
+            shutdown();
+        }, "pipeline-shutdown");
+        Runtime.getRuntime().addShutdownHook(hook);
+        boolean interrupted = false;
+        try {
+            stopRequested.await(durationMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            interrupted = true;   // a request to stop, like the timer; still drain normally
+        }
+        ShutdownReport result = shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException ignored) {
+            // The JVM is already shutting down and the hook is running
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * Stops producers, drains the buffer and stops consumers. Safe to call
+     * from any thread, any number of times.
+     */
+    public synchronized ShutdownReport shutdown() {
+        if (report != null) {
+            return report;
+        }
+        if (producers == null) {
+            throw new IllegalStateException("Not started");
+        }
+        long startNanos = System.nanoTime();
+        boolean interrupted = Thread.interrupted();
+        stopping = true;
+
+        // 1. Stop producers: nothing new enters the buffer
+        producers.shutdownNow();
+        interrupted |= awaitTermination(producers, hardStopMillis);
+        long consumedBeforeDrain = consumed.sum();
+
+        // 2. Let consumers empty the buffer (skipped if we were interrupted)
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainMillis);
+        while (!interrupted && !queue.isEmpty() && System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(DRAIN_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+
+        // 3. Hard stop
+        consumers.shutdownNow();
+        interrupted |= awaitTermination(consumers, hardStopMillis);
+
+        long total = consumed.sum();
+        int remaining = queue.size();
+        boolean durable = queue instanceof PersistentQueue;   // what is left is kept for the next run
+        report = new ShutdownReport(total, total - consumedBeforeDrain, durable ? 0 : remaining,
+                durable ? remaining : 0, active.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return report;
+    }
+
+    /**
+     * @return whether the calling thread was interrupted while waiting
+     */
+    private static boolean awaitTermination(ExecutorService executor, long timeoutMillis) {
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    /**
+     * A consumer that can be interrupted on its own, without a {@code Future}
+     * swallowing what it throws.
+     */
+    private static final class ConsumerTask implements Runnable {
+
+        private final Runnable consumer;
+        private volatile Thread thread;
+        private volatile boolean retired;
+        private volatile boolean finished;
+
+        ConsumerTask(Runnable consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            try {
+                if (!retired) {
+                    consumer.run();
+                }
+            } finally {
+                thread = null;
+                finished = true;
+            }
+        }
+
+        /**
+         * @return false if the consumer had already finished
+         */
+        boolean retire() {
+            if (finished) {
+                return false;
+            }
+            retired = true;
+            Thread t = thread;
+            if (t != null) {
+                t.interrupt();   // a pooled thread is un-interrupted before its next task
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.intuit.runtime;
+
+/**
+ * Outcome of a {@link PipelineRuntime} shutdown.
+ */
+public class ShutdownReport {
+
+    private final long consumed;
+    private final long drained;
+    private final int dropped;
+    private final int retained;
+    private final int inFlight;
+    private final long shutdownMillis;
+
+    ShutdownReport(long consumed, long drained, int dropped, int retained, int inFlight, long shutdownMillis) {
+        this.consumed = consumed;
+        this.drained = drained;
+        this.dropped = dropped;
+        this.retained = retained;
+        this.inFlight = inFlight;
+        this.shutdownMillis = shutdownMillis;
+    }
+
+    /** Messages handled over the whole run. */
+    public long getConsumed() {
+        return consumed;
+    }
+
+    /** Messages handled after the producers had stopped, i.e. emptied from the buffer. */
+    public long getDrained() {
+        return drained;
+    }
+
+    /** Messages still in an in-memory buffer when the consumers were stopped; they are lost. */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /** Messages still in a persistent buffer when the consumers were stopped; the next run delivers them. */
+    public int getRetained() {
+        return retained;
+    }
+
+    /** Messages whose handler was still running when the hard-stop timeout expired. */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /** Time from the start of the shutdown until the consumers stopped. */
+    public long getShutdownMillis() {
+        return shutdownMillis;
+    }
+
+    /** Whether no buffered message was lost and every consumer stopped. */
+    public boolean isClean() {
+        return dropped == 0 && inFlight == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "consumed=" + consumed + ", drained=" + drained + ", dropped=" + dropped + ", retained=" + retained
+                + ", in-flight=" + inFlight + ", shutdown took " + shutdownMillis + " ms";
+    }
+}
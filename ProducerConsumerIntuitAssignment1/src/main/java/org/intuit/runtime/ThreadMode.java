@@ -0,0 +1,78 @@
+package org.intuit.runtime;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Kind of thread each producer and consumer runs on.
+ * <ul>
+ *     <li>{@link #PLATFORM} – one OS thread per task, the original behaviour.</li>
+ *     <li>{@link #VIRTUAL} – one virtual thread per task, the same threads
+ *     {@code Executors.newVirtualThreadPerTaskExecutor()} creates. A task
+ *     blocked in {@code take()}, {@code put()} or {@code sleep()} does not
+ *     hold an OS thread, so thousands of I/O-bound consumers are cheap.
+ *     Requires a Java 21+ runtime.</li>
+ * </ul>
+ * Both return ordinary, unstarted {@link Thread}s, so the interrupt-and-join
+ * shutdown works unchanged.
+ * <p>
+ * The project still compiles for Java 17, so the Java 21 API is looked up
+ * reflectively once, on first use of {@link #VIRTUAL}.
+ */
+public enum ThreadMode {
+
+    PLATFORM {
+        @Override
+        public ThreadFactory threadFactory() {
+            return Thread::new;
+        }
+    },
+
+    VIRTUAL {
+        @Override
+        public ThreadFactory threadFactory() {
+            if (VirtualThreads.FACTORY == null) {
+                throw new UnsupportedOperationException("Virtual threads need a Java 21+ runtime, running on "
+                        + Runtime.version());
+            }
+            return VirtualThreads.FACTORY;
+        }
+    };
+
+    /**
+     * Returns a factory for unstarted threads of this kind.
+     *
+     * @throws UnsupportedOperationException if the runtime does not support this mode
+     */
+    public abstract ThreadFactory threadFactory();
+
+    /**
+     * Whether {@link #threadFactory()} works on the current runtime.
+     */
+    public boolean isSupported() {
+        return this == PLATFORM || VirtualThreads.FACTORY != null;
+    }
+
+    /**
+     * Lazily resolves {@code Thread.ofVirtual().factory()}.
+     */
+    private static final class VirtualThreads {
+
+        static final ThreadFactory FACTORY = lookup();
+
+        private static ThreadFactory lookup() {
+            try {
+                Class<?> builder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                MethodHandle ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(builder));
+                MethodHandle factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+                return (ThreadFactory) factory.invoke(ofVirtual.invoke());
+            } catch (Throwable e) {
+                // Java 17-20, or preview features disabled on 19/20
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.logging.AsyncLog;
+import org.intuit.logging.LogEvent;
+import org.intuit.logging.LogLevel;
+import org.intuit.producer.Producer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncLogTest {
+
+    @Test
+    public void testWritesEveryRecordInOrderWithTheClassicFormat() {
+        StringWriter out = new StringWriter();
+        AsyncLog log = new AsyncLog(out, true, LogLevel.DEBUG, 1, 2048);
+        for (int i = 0; i < 1000; i++) {
+            log.log(LogEvent.PRODUCED, 1, "M" + i);
+        }
+        log.log(LogEvent.PRODUCER_STOPPED, 1, null);
+        log.close();
+        assertEquals(0, log.getDroppedCount());
+
+        List<String> lines = out.toString().lines().collect(Collectors.toList());
+        assertEquals(1001, lines.size());
+        assertTrue(lines.get(0).matches("\\d{4}-\\d\\d-\\d\\dT[\\d:.]+ \\[PRODUCED by P1] -> M0"), lines.get(0));
+        assertTrue(lines.get(999).endsWith("-> M999"));
+        assertEquals("Producer 1 interrupted.", lines.get(1000));
+
+        log.log(LogEvent.PRODUCED, 1, "after close");
+        assertEquals(1001, log.getWrittenCount(), "records after close are ignored");
+    }
+
+    @Test
+    public void testLevelAndSampling() {
+        StringWriter info = new StringWriter();
+        try (AsyncLog log = new AsyncLog(info, true, LogLevel.INFO, 1, 1024)) {
+            log.log(LogEvent.CONSUMED, 1, "M0");
+            log.log(LogEvent.CONSUMER_STOPPED, 1, null);
+        }
+        assertEquals("Consumer 1 interrupted." + System.lineSeparator(), info.toString());
+
+        StringWriter sampled = new StringWriter();
+        try (AsyncLog log = new AsyncLog(sampled, true, LogLevel.DEBUG, 10, 20_000)) {
+            for (int i = 0; i < 10_000; i++) {
+                log.log(LogEvent.CONSUMED, 1, "M" + i);
+            }
+            log.log(LogEvent.CONSUMER_STOPPED, 1, null);
+        }
+        List<String> lines = sampled.toString().lines().collect(Collectors.toList());
+        assertTrue(lines.size() > 700 && lines.size() < 1300, "about one in ten kept: " + lines.size());
+        assertEquals("Consumer 1 interrupted.", lines.get(lines.size() - 1), "lifecycle events are never sampled");
+
+        StringWriter off = new StringWriter();
+        try (AsyncLog log = new AsyncLog(off, true, LogLevel.OFF, 1, 16)) {
+            log.log(LogEvent.PRODUCER_STOPPED, 1, null);
+        }
+        assertEquals("", off.toString());
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLog(off, true, LogLevel.DEBUG, 0, 16));
+    }
+
+    /**
+     * With the output stuck, workers keep going: records beyond the buffer are
+     * dropped and reported once the output recovers.
+     */
+    @Test
+    public void testStuckOutputNeverBlocksWorkers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StringWriter target = new StringWriter();
+        Writer stuck = new Writer() {
+            @Override
+            public void write(char[] buf, int off, int len) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                target.write(buf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        AsyncLog log = new AsyncLog(stuck, true, LogLevel.DEBUG, 1, 64);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            log.log(LogEvent.CONSUMED, 2, "M" + i);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "logging must not wait for the output");
+        // At most one batch is stuck in the writer and one buffer full is waiting behind it
+        assertTrue(log.getDroppedCount() >= 10_000 - 2 * 64, "dropped " + log.getDroppedCount());
+
+        release.countDown();
+        log.close();
+        assertEquals(10_000, log.getWrittenCount() + log.getDroppedCount());
+        assertTrue(target.toString().contains("records dropped, log buffer full"), "drops are reported");
+    }
+
+    @Test
+    public void testPipelineLogsToFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("pipeline.log");
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        AsyncLog log = AsyncLog.toFile(file, LogLevel.DEBUG, 1);
+        Thread producer = new Thread(new Producer<>(queue, 1, (id, seq) -> "M" + seq, 1, log));
+        Thread consumer = new Thread(new Consumer<>(queue, 1, message -> { }, 0, log));
+        producer.start();
+        consumer.start();
+        Thread.sleep(200);
+        producer.interrupt();
+        producer.join(2000);
+        while (!queue.isEmpty()) {
+            Thread.sleep(10);
+        }
+        consumer.interrupt();
+        consumer.join(2000);
+        log.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(0, log.getDroppedCount());
+        assertEquals(log.getWrittenCount(), lines.size());
+        assertTrue(lines.contains("Producer 1 interrupted."));
+        assertTrue(lines.contains("Consumer 1 interrupted."));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("[CONSUMED by C1] -> M0")));
+    }
+
+    @Test
+    public void testMainWithFileLog(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("main.log");
+        System.setIn(new ByteArrayInputStream("1\n1\n5\n1\n".getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--log-file=" + file, "--log-level=debug"}));
+        t.start();
+        t.join(5000);
+
+        assertFalse(t.isAlive(), "Main should terminate with a file log");
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertTrue(lines.stream().anyMatch(line -> line.contains("[PRODUCED by P1]")), lines.toString());
+        assertTrue(lines.contains("Consumer 1 interrupted."), lines.toString());
+    }
+}
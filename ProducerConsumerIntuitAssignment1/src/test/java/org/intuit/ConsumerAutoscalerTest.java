@@ -0,0 +1,146 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.runtime.ConsumerAutoscaler;
+import org.intuit.runtime.PipelineRuntime;
+import org.intuit.runtime.ShutdownReport;
+import org.intuit.runtime.ThreadMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsumerAutoscalerTest {
+
+    @Test
+    public void testRuntimeAddsAndRetiresConsumers() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(100);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 1000, 1000);
+        assertThrows(IllegalStateException.class, runtime::addConsumer);
+        runtime.start(1, id -> () -> { }, 1, (id, handler) -> new Consumer<>(queue, id, handler, 0, false));
+
+        assertTrue(runtime.addConsumer());
+        assertTrue(runtime.addConsumer());
+        assertEquals(3, runtime.getConsumerCount());
+        assertTrue(runtime.retireConsumer());
+        assertEquals(2, runtime.getConsumerCount());
+
+        for (int i = 0; i < 50; i++) {
+            queue.put("M" + i);
+        }
+        awaitConsumed(runtime, 50);
+        assertEquals(50, runtime.getConsumedCount(), "the remaining consumers keep working");
+
+        ShutdownReport report = runtime.shutdown();
+        assertTrue(report.isClean(), report.toString());
+        assertFalse(runtime.addConsumer(), "no resizing after shutdown");
+        assertFalse(runtime.retireConsumer());
+    }
+
+    /**
+     * A backlog adds consumers quickly, up to the maximum; an idle pool shrinks slowly, down to the minimum.
+     */
+    @Test
+    public void testScalesWithBacklogAndHysteresis() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 1000, 1000);
+        ConsumerAutoscaler autoscaler = new ConsumerAutoscaler(runtime, queue, 2, 5, 0.1, 0.5);
+        runtime.start(1, id -> () -> { }, 2,
+                (id, handler) -> new Consumer<>(autoscaler.watch(queue), id, handler, 0, false));
+
+        assertEquals(0, autoscaler.sample(), "empty queue, nothing to do");
+
+        // A second autoscaler on the same runtime watches a full queue that nobody drains: a lasting backlog
+        BlockingQueue<String> backlog = new ArrayBlockingQueue<>(10);
+        for (int i = 0; i < 10; i++) {
+            backlog.put("B" + i);
+        }
+        ConsumerAutoscaler backlogged = new ConsumerAutoscaler(runtime, backlog, 2, 5, 0.1, 0.5);
+        assertEquals(0, backlogged.sample(), "one high sample is not enough");
+        assertEquals(1, backlogged.sample(), "2 consumers + half of them");
+        assertEquals(0, backlogged.sample(), "streak restarts after a change");
+        assertEquals(1, backlogged.sample());
+        assertEquals(4, runtime.getConsumerCount());
+        backlogged.sample();
+        assertEquals(1, backlogged.sample(), "4 + 2 capped at 5");
+        assertEquals(5, runtime.getConsumerCount());
+        backlogged.sample();
+        assertEquals(0, backlogged.sample(), "at the maximum");
+
+        // The shared queue is empty and every consumer waits in take()
+        Thread.sleep(200);
+        int retired = 0;
+        for (int i = 0; i < 4 * 5; i++) {
+            retired -= autoscaler.sample();
+        }
+        assertEquals(3, retired, "one consumer per five idle samples, down to the minimum");
+        assertEquals(2, runtime.getConsumerCount());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, autoscaler.sample(), "at the minimum");
+        }
+        runtime.shutdown();
+    }
+
+    /**
+     * An unbounded queue never fills up, so its depth is measured against the nominal capacity.
+     */
+    @Test
+    public void testUnboundedQueueScalesOnDepth() throws Exception {
+        BlockingQueue<String> queue = new LinkedTransferQueue<>();
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 1000, 1000);
+        runtime.start(1, id -> () -> { }, 2, (id, handler) -> () -> { });
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerAutoscaler(runtime, queue, 2, 4, 0.1, 0.5),
+                "no capacity to measure occupancy against");
+
+        ConsumerAutoscaler autoscaler = new ConsumerAutoscaler(runtime, queue, 2, 4, 0.1, 0.5, 10);
+        for (int i = 0; i < 4; i++) {
+            queue.put("M" + i);
+        }
+        assertEquals(0, autoscaler.sample());
+        assertEquals(0, autoscaler.sample(), "40% of the nominal capacity is below the high watermark");
+        for (int i = 4; i < 100; i++) {
+            queue.put("M" + i);
+        }
+        assertEquals(0, autoscaler.sample());
+        assertEquals(1, autoscaler.sample(), "a backlog beyond the nominal capacity counts as full");
+        assertEquals(3, runtime.getConsumerCount());
+        runtime.shutdown();
+    }
+
+    @Test
+    public void testInvalidBounds() {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerAutoscaler(runtime, queue, 0, 2, 0.1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerAutoscaler(runtime, queue, 3, 2, 0.1, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerAutoscaler(runtime, queue, 1, 2, 0.5, 0.5));
+        assertThrows(IllegalArgumentException.class, () -> new ConsumerAutoscaler(runtime, queue, 1, 2, 0.1, 0.5, -1));
+    }
+
+    @Test
+    public void testMainWithAutoscaling() throws Exception {
+        System.setIn(new ByteArrayInputStream("3\n1\n20\n1\n".getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--max-consumers=3", "--autoscale-ms=100"}));
+        t.start();
+        t.join(5000);
+
+        assertFalse(t.isAlive(), "Main should terminate with autoscaling enabled");
+    }
+
+    private static void awaitConsumed(PipelineRuntime runtime, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runtime.getConsumedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -3,8 +3,10 @@ package org.intuit;
 import org.intuit.consumer.Consumer;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,7 +21,7 @@ public class ConsumerTest {
         queue.put("A");
         queue.put("B");
 
-        Consumer consumer = new Consumer(queue, 1);
+        Consumer<String> consumer = new Consumer<>(queue, 1);
         Thread t = new Thread(consumer);
 
         t.start();
@@ -36,7 +38,7 @@ public class ConsumerTest {
     @Test
     public void testConsumerInterruptDuringTake() throws Exception {
         BlockingQueue<String> queue = new ArrayBlockingQueue<>(5);
-        Consumer consumer = new Consumer(queue, 3);
+        Consumer<String> consumer = new Consumer<>(queue, 3);
         Thread t = new Thread(consumer);
 
         t.start();
@@ -55,7 +57,7 @@ public class ConsumerTest {
         BlockingQueue<String> queue = new ArrayBlockingQueue<>(5);
         queue.put("X");
 
-        Consumer consumer = new Consumer(queue, 2);
+        Consumer<String> consumer = new Consumer<>(queue, 2);
         Thread t = new Thread(consumer);
 
         t.start();
@@ -65,4 +67,80 @@ public class ConsumerTest {
 
         assertTrue(t.getState() == Thread.State.TERMINATED);
     }
+
+    /**
+     * Unpaced consumer hands every message to its handler in queue order.
+     */
+    @Test
+    public void testConsumerWithHandlerAndNoPause() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            queue.put("M" + i);
+        }
+        List<String> handled = new CopyOnWriteArrayList<>();
+
+        Thread t = new Thread(new Consumer<>(queue, 4, handled::add, 0, false));
+        t.start();
+        Thread.sleep(200);
+        t.interrupt();
+        t.join();
+
+        assertEquals(1000, handled.size());
+        assertEquals("M0", handled.get(0));
+        assertEquals("M999", handled.get(999));
+    }
+
+    /**
+     * Batch mode drains up to batchSize messages at a time and keeps queue order.
+     */
+    @Test
+    public void testBatchModeDrainsInOrder() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            queue.put("M" + i);
+        }
+        List<String> handled = new CopyOnWriteArrayList<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        Thread t = new Thread(new Consumer<>(queue, 5, batch -> {
+            batchSizes.add(batch.size());
+            handled.addAll(batch);
+        }, 64, 0, false));
+        t.start();
+        Thread.sleep(200);
+        t.interrupt();
+        t.join();
+
+        assertEquals(1000, handled.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("M" + i, handled.get(i));
+        }
+        assertEquals(64, batchSizes.get(0));
+        assertTrue(batchSizes.stream().allMatch(size -> size >= 1 && size <= 64));
+    }
+
+    /**
+     * A partial batch waits up to the linger time for more messages; a message taken
+     * before an interrupt is still handed over.
+     */
+    @Test
+    public void testBatchModeLingersForPartialBatch() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+        Thread t = new Thread(new Consumer<>(queue, 6, batch -> batches.add(List.copyOf(batch)), 3, 2000, false));
+        t.start();
+        queue.put("A");
+        Thread.sleep(100);
+        queue.put("B");
+        queue.put("C");          // fills the batch well before the linger time
+        Thread.sleep(100);
+        queue.put("D");
+        Thread.sleep(100);
+        t.interrupt();           // while lingering for D's batch
+        t.join(2000);
+
+        assertFalse(t.isAlive());
+        assertEquals(List.of(List.of("A", "B", "C"), List.of("D")), batches);
+    }
 }
@@ -0,0 +1,174 @@
+package org.intuit;
+
+import org.intuit.flow.FlowControl;
+import org.intuit.flow.OverflowPolicy;
+import org.intuit.flow.RateLimiter;
+import org.intuit.flow.WatermarkThrottle;
+import org.intuit.metrics.MetricsSnapshot;
+import org.intuit.metrics.PipelineMetrics;
+import org.intuit.producer.Producer;
+import org.intuit.queue.ShardedQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlowControlTest {
+
+    @Test
+    public void testRateLimiterBurstThenRate() throws Exception {
+        RateLimiter limiter = new RateLimiter(100, 10);
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(), "burst of 10 is available at once");
+        }
+        assertFalse(limiter.tryAcquire());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 90 && elapsedMillis < 1000, "10 more permits at 100/s took " + elapsedMillis + " ms");
+
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(10, 0));
+    }
+
+    /**
+     * Two unpaced producers under a per-producer and a global limit: the global one wins.
+     */
+    @Test
+    public void testPerProducerAndGlobalLimits() throws Exception {
+        BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        FlowControl control = new FlowControl(OverflowPolicy.BLOCK, 0, new RateLimiter(100, 1),
+                id -> new RateLimiter(1000, 1), null);
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            producers.add(new Thread(new Producer<>(control.forProducer(queue, i), i, (id, seq) -> id + ":" + seq, 0, false)));
+        }
+        producers.forEach(Thread::start);
+        Thread.sleep(500);
+        producers.forEach(Thread::interrupt);
+        for (Thread t : producers) {
+            t.join(1000);
+        }
+
+        assertTrue(queue.size() >= 35 && queue.size() <= 65, "about 50 messages in 0.5 s at 100/s: " + queue.size());
+        assertTrue(control.getThrottledNanos() > 0);
+    }
+
+    @Test
+    public void testOverflowPolicies() throws Exception {
+        BlockingQueue<String> newest = new ArrayBlockingQueue<>(2);
+        FlowControl dropNewest = new FlowControl(OverflowPolicy.DROP_NEWEST, 0, null, null, null);
+        putAll(dropNewest.forProducer(newest, 1), "a", "b", "c", "d");
+        assertEquals(List.of("a", "b"), new ArrayList<>(newest));
+        assertEquals(2, dropNewest.getDroppedCount());
+
+        BlockingQueue<String> oldest = new ArrayBlockingQueue<>(2);
+        FlowControl dropOldest = new FlowControl(OverflowPolicy.DROP_OLDEST, 0, null, null, null);
+        putAll(dropOldest.forProducer(oldest, 1), "a", "b", "c", "d");
+        assertEquals(List.of("c", "d"), new ArrayList<>(oldest));
+        assertEquals(2, dropOldest.getEvictedCount());
+
+        BlockingQueue<String> timed = new ArrayBlockingQueue<>(1);
+        FlowControl timeout = new FlowControl(OverflowPolicy.TIMEOUT, 50, null, null, null);
+        long start = System.nanoTime();
+        putAll(timeout.forProducer(timed, 1), "a", "b");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 45, "waited " + elapsedMillis + " ms for space");
+        assertEquals(List.of("a"), new ArrayList<>(timed));
+        assertEquals(1, timeout.getDroppedCount());
+
+        BlockingQueue<String> blocking = new ArrayBlockingQueue<>(1);
+        FlowControl block = new FlowControl(OverflowPolicy.BLOCK, 0, null, null, null);
+        BlockingQueue<String> producerView = block.forProducer(blocking, 1);
+        producerView.put("a");
+        Thread blocked = new Thread(() -> {
+            try {
+                producerView.put("b");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        blocked.start();
+        blocked.join(200);
+        assertTrue(blocked.isAlive(), "BLOCK waits for space");
+        assertEquals("a", blocking.take());
+        blocked.join(1000);
+        assertEquals(List.of("b"), new ArrayList<>(blocking));
+    }
+
+    /**
+     * DROP_OLDEST through metrics on a sharded queue evicts from the full shard
+     * only, and evicted messages do not show up as consumed.
+     */
+    @Test
+    public void testDropOldestEvictsFromTargetShard() throws Exception {
+        ShardedQueue sharded = new ShardedQueue(2, i -> new ArrayBlockingQueue<>(2), message -> message.charAt(0));
+        String[] keys = {"x", "y"};
+        for (char c = 'a'; sharded.shardFor(keys[0]) == sharded.shardFor(keys[1]); c++) {
+            keys[1] = String.valueOf(c);
+        }
+        PipelineMetrics metrics = new PipelineMetrics(sharded, 1);
+        FlowControl dropOldest = new FlowControl(OverflowPolicy.DROP_OLDEST, 0, null, null, null);
+        BlockingQueue<String> producerView = dropOldest.forProducer(metrics.forProducer(sharded, 1), 1);
+
+        putAll(producerView, keys[1] + "1", keys[0] + "1", keys[0] + "2", keys[0] + "3", keys[0] + "4");
+        assertEquals(2, dropOldest.getEvictedCount());
+        assertEquals(List.of(keys[1] + "1"), new ArrayList<>(sharded.getShard(sharded.shardFor(keys[1]))));
+        assertEquals(List.of(keys[0] + "3", keys[0] + "4"),
+                new ArrayList<>(sharded.getShard(sharded.shardFor(keys[0]))));
+
+        BlockingQueue<String> consumerView = metrics.forConsumer(sharded, 1);
+        List<String> received = new ArrayList<>();
+        consumerView.drainTo(received);
+        assertEquals(3, received.size());
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(5L, snapshot.getProduced().get(1));
+        assertEquals(3L, snapshot.getConsumed().get(1));
+        assertEquals(3, snapshot.getEndToEndLatency().getCount());
+    }
+
+    /**
+     * The delay grows while the queue is above the high watermark and decays below the low one.
+     */
+    @Test
+    public void testWatermarkThrottle() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        WatermarkThrottle throttle = new WatermarkThrottle(0.3, 0.8, 5);
+        FlowControl control = new FlowControl(OverflowPolicy.DROP_NEWEST, 0, null, null, throttle);
+        BlockingQueue<String> producerView = control.forProducer(queue, 1);
+
+        for (int i = 0; i < 8; i++) {
+            producerView.put("M" + i);
+        }
+        assertEquals(0, throttle.getDelayNanos(), "no delay below the high watermark");
+
+        for (int i = 0; i < 8; i++) {
+            producerView.put("X" + i);   // at or above 80 %: doubles each time, capped at 5 ms
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), throttle.getDelayNanos());
+
+        queue.clear();
+        for (int i = 0; i < 3; i++) {
+            producerView.put("Y" + i);   // occupancy 0–20 %: halves each time
+        }
+        assertTrue(throttle.getDelayNanos() < TimeUnit.MILLISECONDS.toNanos(1), "delay " + throttle.getDelayNanos());
+        assertTrue(control.getThrottledNanos() >= TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThrows(IllegalArgumentException.class, () -> new WatermarkThrottle(0.8, 0.5, 5));
+    }
+
+    private static void putAll(BlockingQueue<String> queue, String... messages) throws InterruptedException {
+        for (String message : messages) {
+            queue.put(message);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.intuit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Shared check that a blocking call gives up when its thread is interrupted.
+ */
+final class Interrupts {
+
+    interface Blocking {
+        void run() throws InterruptedException;
+    }
+
+    private Interrupts() {
+    }
+
+    /**
+     * Runs {@code call} on a new thread, interrupts it once it has had time
+     * to block and asserts that it threw {@link InterruptedException}.
+     */
+    static void assertInterrupted(Blocking call) throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread t = new Thread(() -> {
+            try {
+                call.run();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        t.start();
+        Thread.sleep(50);
+        t.interrupt();
+        t.join(2000);
+        assertFalse(t.isAlive());
+        assertTrue(interrupted.get());
+    }
+}
@@ -0,0 +1,142 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.logging.AsyncLog;
+import org.intuit.logging.LogLevel;
+import org.intuit.message.Message;
+import org.intuit.message.MessagePool;
+import org.intuit.producer.Producer;
+import org.intuit.queue.MpmcRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MessagePoolTest {
+
+    @Test
+    public void testReleasedMessagesAreReused() {
+        MessagePool<String> pool = new MessagePool<>(2);
+        Message<String> first = pool.acquire(1, 0, "a");
+        assertEquals(1, first.getProducerId());
+        assertEquals("a", first.getPayload());
+        assertEquals("[P1] Message #0 a", first.toString());
+        assertTrue(first.ageNanos() >= 0);
+
+        pool.release(first);
+        assertNull(first.getPayload(), "payload is dropped on release");
+        assertThrows(IllegalStateException.class, () -> pool.release(first));
+
+        Message<String> second = pool.acquire(2, 7, null);
+        assertSame(first, second);
+        assertEquals(2, second.getProducerId());
+        assertEquals(7, second.getSequence());
+        assertEquals("[P2] Message #7", second.toString());
+        assertEquals(1, pool.getAllocatedCount());
+
+        // A full pool leaves surplus messages to the garbage collector
+        List<Message<String>> many = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            many.add(pool.acquire(1, i, "x"));
+        }
+        many.forEach(pool::release);
+        assertEquals(2, pool.getFreeCount());
+    }
+
+    /**
+     * Typed producers and a consumer over a generic queue: messages arrive in order
+     * per producer with their own payload, and the pool bounds allocations.
+     */
+    @Test
+    public void testPooledTypedPipeline() throws Exception {
+        int producers = 2;
+        int consumers = 1;
+        int capacity = 16;
+        BlockingQueue<Message<Integer>> queue = new MpmcRingBuffer<>(capacity);
+        MessagePool<Integer> pool = new MessagePool<>(capacity + producers + consumers);
+
+        Map<Integer, Long> lastSequence = new ConcurrentHashMap<>();
+        LongAdder received = new LongAdder();
+        LongAdder outOfOrder = new LongAdder();
+        LongAdder corrupted = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 1; i <= producers; i++) {
+            threads.add(new Thread(new Producer<>(queue, i, pool.factory(seq -> seq * 10), 0, false)));
+        }
+        threads.add(new Thread(new Consumer<>(queue, 1, pool.recycling(message -> {
+            Long previous = lastSequence.put(message.getProducerId(), message.getSequence());
+            if (previous != null && previous >= message.getSequence()) {
+                outOfOrder.increment();
+            }
+            if (message.ageNanos() < 0 || message.getPayload() != message.getSequence() * 10) {
+                corrupted.increment();
+            }
+            received.increment();
+        }), 0, false)));
+        threads.forEach(Thread::start);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.sum() < 50_000 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        threads.forEach(Thread::interrupt);
+        for (Thread t : threads) {
+            t.join(2000);
+        }
+
+        assertTrue(received.sum() >= 50_000, "received " + received.sum());
+        assertEquals(0, outOfOrder.sum(), "each producer's messages arrive in order");
+        assertEquals(0, corrupted.sum(), "payload and timestamp belong to the message");
+        assertTrue(pool.getAllocatedCount() <= capacity + producers + consumers + 2,
+                "allocated " + pool.getAllocatedCount() + " for " + received.sum() + " messages");
+    }
+
+    /**
+     * Logged pooled messages show the content they had when logged, even though
+     * the consumer recycles them long before the writer thread formats the record.
+     */
+    @Test
+    public void testLoggedPooledMessagesKeepTheirContent() throws Exception {
+        BlockingQueue<Message<Integer>> queue = new MpmcRingBuffer<>(4);
+        MessagePool<Integer> pool = new MessagePool<>(8);
+        StringWriter out = new StringWriter();
+        LongAdder received = new LongAdder();
+
+        try (AsyncLog log = new AsyncLog(out, false, LogLevel.DEBUG, 1, 1 << 16)) {
+            Thread producer = new Thread(new Producer<>(queue, 1, pool.factory(seq -> seq * 10), 0, log));
+            Thread consumer = new Thread(new Consumer<>(queue, 1,
+                    pool.recycling(message -> received.increment()), 0, log));
+            producer.start();
+            consumer.start();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.sum() < 10_000 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            producer.interrupt();
+            consumer.interrupt();
+            producer.join(2000);
+            consumer.join(2000);
+        }
+
+        Matcher matcher = Pattern.compile("Message #(\\d+)(.*)").matcher(out.toString());
+        int lines = 0;
+        while (matcher.find()) {
+            long sequence = Long.parseLong(matcher.group(1));
+            assertEquals(" " + sequence * 10, matcher.group(2), matcher.group());
+            lines++;
+        }
+        assertTrue(lines >= 10_000, "logged " + lines);
+    }
+}
@@ -0,0 +1,152 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.metrics.HistogramSnapshot;
+import org.intuit.metrics.LatencyHistogram;
+import org.intuit.metrics.MetricsReporter;
+import org.intuit.metrics.MetricsSnapshot;
+import org.intuit.metrics.PipelineMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+
+    /**
+     * Percentiles are within the bucket resolution (~1.6 %) of the exact values.
+     */
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(99));
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v);
+        }
+        histogram.record(-5);   // clamped to 0
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1_000_001, snapshot.getCount());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(500_000, snapshot.getMean(), 1);
+        for (double percentile : new double[]{1, 50, 90, 99, 99.9}) {
+            double exact = percentile * 10_000;
+            assertEquals(exact, snapshot.getValueAtPercentile(percentile), exact * 0.016, "p" + percentile);
+        }
+        assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+
+        LatencyHistogram small = new LatencyHistogram();
+        small.record(7);
+        small.record(100);
+        assertEquals(7, small.snapshot().getValueAtPercentile(50), "small values are exact");
+        assertEquals(100, small.snapshot().getValueAtPercentile(100));
+    }
+
+    /**
+     * A slow consumer behind a one-slot buffer: the producer is seen blocking in put,
+     * every message is counted and has an end-to-end latency of at least the consumer pause.
+     */
+    @Test
+    public void testInstrumentedPipeline() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(1);
+        PipelineMetrics metrics = new PipelineMetrics(queue, 1);
+        MetricsSnapshot before = metrics.snapshot();
+
+        BlockingQueue<String> producerQueue = metrics.forProducer(queue, 1);
+        Thread consumer = new Thread(new Consumer<>(metrics.forConsumer(queue, 1), 1, message -> { }, 20, false));
+        consumer.start();
+        for (int i = 0; i < 10; i++) {
+            producerQueue.put("M" + i);
+            metrics.sampleQueueDepth();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (metrics.snapshot().getConsumed().getOrDefault(1, 0L) < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        consumer.interrupt();
+        consumer.join(2000);
+
+        MetricsSnapshot after = metrics.snapshot();
+        assertEquals(Map.of(1, 10L), after.getProduced());
+        assertEquals(Map.of(1, 10L), after.getConsumed());
+        assertEquals(10, after.getPutBlocked().getCount());
+        assertTrue(after.getProducerBlockedNanos().get(1) >= TimeUnit.MILLISECONDS.toNanos(100),
+                "producer waited for the 20 ms consumer on most puts");
+        assertTrue(after.getTakeBlocked().getCount() >= 10);
+        assertEquals(10, after.getEndToEndLatency().getCount());
+        assertTrue(after.getEndToEndLatency().getMax() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(1, after.getQueueDepthSamples().getMax());
+        assertTrue(after.consumedPerSecond(before).get(1) > 0);
+    }
+
+    /**
+     * With sampling, only every n-th message is timed end to end; counters still see all.
+     */
+    @Test
+    public void testLatencySampling() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(100);
+        PipelineMetrics metrics = new PipelineMetrics(queue, 10);
+        BlockingQueue<String> producerQueue = metrics.forProducer(queue, 1);
+        BlockingQueue<String> consumerQueue = metrics.forConsumer(queue, 1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(producerQueue.offer("M" + i));
+        }
+        assertFalse(producerQueue.offer("full"));
+        while (consumerQueue.poll() != null) {
+            // drain
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(100, snapshot.getProduced().get(1));
+        assertEquals(100, snapshot.getConsumed().get(1));
+        assertEquals(10, snapshot.getEndToEndLatency().getCount());
+        assertThrows(IllegalArgumentException.class, () -> new PipelineMetrics(queue, 0));
+
+        // The default samples sparsely: two of the first 100 messages
+        PipelineMetrics sparse = new PipelineMetrics(queue);
+        BlockingQueue<String> sparseProducer = sparse.forProducer(queue, 1);
+        BlockingQueue<String> sparseConsumer = sparse.forConsumer(queue, 1);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(sparseProducer.offer("S" + i));
+        }
+        while (sparseConsumer.poll() != null) {
+            // drain
+        }
+        assertEquals(2, sparse.snapshot().getEndToEndLatency().getCount());
+    }
+
+    @Test
+    public void testReporterPrintsPeriodically() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        PipelineMetrics metrics = new PipelineMetrics(queue);
+        metrics.forProducer(queue, 1).put("M0");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (MetricsReporter ignored = metrics.startReporter(5, 50, new PrintStream(out, true, StandardCharsets.UTF_8))) {
+            Thread.sleep(300);
+        }
+        String printed = out.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.lines().count() >= 2, printed);
+        assertTrue(printed.contains("depth=1"), printed);
+        assertTrue(printed.contains("produced/s P1="), printed);
+    }
+
+    @Test
+    public void testMainWithMetrics() throws Exception {
+        System.setIn(new ByteArrayInputStream("2\n2\n5\n1\n".getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--metrics-ms=200", "--metrics-sample=1"}));
+        t.start();
+        t.join(5000);
+
+        assertFalse(t.isAlive(), "Main should terminate with metrics enabled");
+    }
+}
@@ -0,0 +1,160 @@
+package org.intuit;
+
+import org.intuit.queue.MpmcRingBuffer;
+import org.intuit.queue.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.intuit.Interrupts.assertInterrupted;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MpmcRingBufferTest {
+
+    /**
+     * FIFO order, capacity rounded up to a power of two and wrap-around.
+     */
+    @Test
+    public void testFifoAndCapacity() {
+        MpmcRingBuffer<String> queue = new MpmcRingBuffer<>(3);
+        for (int lap = 0; lap < 5; lap++) {
+            assertTrue(queue.offer("A"));
+            assertTrue(queue.offer("B"));
+            assertTrue(queue.offer("C"));
+            assertTrue(queue.offer("D"));
+            assertFalse(queue.offer("E"), "capacity 3 is rounded up to 4, which must be full");
+            assertEquals(4, queue.size());
+            assertEquals(0, queue.remainingCapacity());
+            assertEquals(List.of("A", "B", "C", "D"), new ArrayList<>(queue));
+
+            assertEquals("A", queue.peek());
+            assertEquals("A", queue.poll());
+            List<String> drained = new ArrayList<>();
+            assertEquals(3, queue.drainTo(drained));
+            assertEquals(List.of("B", "C", "D"), drained);
+            assertNull(queue.poll());
+            assertNull(queue.peek());
+        }
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingBuffer<>(0));
+        assertEquals(2, new MpmcRingBuffer<>(1).remainingCapacity());
+        assertEquals(8, new MpmcRingBuffer<>(8).remainingCapacity());
+    }
+
+    /**
+     * putAll splits batches larger than the capacity and waits for space between chunks.
+     */
+    @Test
+    public void testPutAllLargerThanCapacity() throws Exception {
+        MpmcRingBuffer<Integer> queue = new MpmcRingBuffer<>(5);
+        List<Integer> batch = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            batch.add(i);
+        }
+        Thread producer = new Thread(() -> {
+            try {
+                queue.putAll(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        List<Integer> taken = new ArrayList<>();
+        while (taken.size() < batch.size()) {
+            taken.add(queue.take());
+        }
+        producer.join(2000);
+        assertEquals(batch, taken);
+        assertThrows(NullPointerException.class, () -> queue.putAll(Arrays.asList(1, null)));
+        assertTrue(queue.isEmpty(), "nothing is inserted when the batch holds a null");
+    }
+
+    @Test
+    public void testTimedOperationsTimeOut() throws Exception {
+        MpmcRingBuffer<String> queue = new MpmcRingBuffer<>(1, WaitStrategy.SPIN_THEN_PARK);
+        assertNull(queue.poll(20, TimeUnit.MILLISECONDS));
+        while (queue.offer("X")) {
+            // fill up
+        }
+        assertFalse(queue.offer("Y", 20, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Blocked take() and put() wake up with InterruptedException for every wait strategy.
+     */
+    @Test
+    public void testInterruptWhileBlocked() throws Exception {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            MpmcRingBuffer<String> empty = new MpmcRingBuffer<>(2, strategy);
+            assertInterrupted(empty::take);
+
+            MpmcRingBuffer<String> full = new MpmcRingBuffer<>(2, strategy);
+            full.put("A");
+            full.put("B");
+            assertInterrupted(() -> full.put("C"));
+        }
+    }
+
+    /**
+     * Every message is delivered exactly once with concurrent producers and consumers.
+     */
+    @Test
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50_000;
+
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            MpmcRingBuffer<Integer> queue = new MpmcRingBuffer<>(100, strategy);
+            AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+            List<Thread> threads = new ArrayList<>();
+
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perProducer; i++) {
+                            queue.put(base + i);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            List<Thread> consumerThreads = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                consumerThreads.add(new Thread(() -> {
+                    try {
+                        while (true) {
+                            seen.incrementAndGet(queue.take());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+            }
+            threads.forEach(Thread::start);
+            consumerThreads.forEach(Thread::start);
+            for (Thread t : threads) {
+                t.join(10_000);
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!queue.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            consumerThreads.forEach(Thread::interrupt);
+            for (Thread t : consumerThreads) {
+                t.join(5_000);
+            }
+
+            for (int i = 0; i < seen.length(); i++) {
+                assertEquals(1, seen.get(i), strategy + ": message " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.PersistentQueue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentQueueTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Messages left in the queue, or taken but not committed, are there again, in order, after reopening.
+     */
+    @Test
+    public void testResumesFromCommittedOffset() throws Exception {
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            for (int i = 0; i < 10; i++) {
+                queue.put("M" + i);
+            }
+            assertEquals("M0", queue.peek());
+            for (int i = 0; i < 4; i++) {
+                String message = queue.take();
+                assertEquals("M" + i, message);
+                assertTrue(queue.commit(message));
+            }
+            assertEquals("M4", queue.take());   // never committed
+            assertEquals(5, queue.getConsumedOffset());
+            assertEquals(4, queue.getCommittedOffset());
+        }
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            assertEquals(6, queue.size());
+            assertEquals(4, queue.getConsumedOffset());
+            assertEquals(10, queue.getPublishedOffset());
+            List<String> rest = new ArrayList<>();
+            queue.forEach(rest::add);
+            assertEquals(List.of("M4", "M5", "M6", "M7", "M8", "M9"), rest);
+            for (int i = 4; i < 10; i++) {
+                assertEquals("M" + i, queue.poll());
+            }
+            assertNull(queue.poll());
+            assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Small segments roll over; consumed ones are deleted, unicode survives the round trip.
+     */
+    @Test
+    public void testSegmentsRollAndAreDeletedOnceConsumed() throws Exception {
+        try (PersistentQueue queue = new PersistentQueue(dir, 128, 16)) {
+            for (int i = 0; i < 100; i++) {
+                queue.put("Müßiggang " + i);
+            }
+            assertTrue(segmentCount() > 10, "segments: " + segmentCount());
+            assertThrows(IllegalArgumentException.class, () -> queue.put("x".repeat(200)));
+
+            List<String> taken = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                taken.add(queue.take());
+                assertEquals("Müßiggang " + i, taken.get(i));
+            }
+            assertTrue(segmentCount() > 10, "uncommitted segments are kept");
+            taken.forEach(queue::commit);
+            assertEquals(1, segmentCount(), "only the segment being written is kept");
+        }
+        try (PersistentQueue queue = new PersistentQueue(dir, 128, 16)) {
+            assertTrue(queue.isEmpty());
+            queue.put("after restart");
+            assertEquals(100, queue.getConsumedOffset());
+            String message = queue.take();
+            assertEquals("after restart", message);
+            queue.commit(message);
+        }
+    }
+
+    /**
+     * A process that dies without closing loses nothing it wrote and redelivers what it took
+     * without committing; a torn record at the tail is cut off.
+     */
+    @Test
+    public void testRecoversWithoutCloseAndIgnoresTornTail() throws Exception {
+        PersistentQueue crashed = new PersistentQueue(dir);
+        for (int i = 0; i < 5; i++) {
+            crashed.put("M" + i);
+        }
+        String first = crashed.take();
+        assertEquals("M0", first);
+        crashed.commit(first);
+        assertEquals("M1", crashed.take());   // died in the handler
+        // never closed; a half-written record follows the five complete ones (10 bytes each)
+        try (FileChannel channel = FileChannel.open(dir.resolve("00000000000000000000.log"), StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(8).putInt(20).putInt(12345).flip();
+            channel.write(torn, 50);
+        }
+
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            assertEquals(4, queue.size());
+            queue.put("M5");
+        }
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            for (int i = 1; i <= 5; i++) {
+                assertEquals("M" + i, queue.take());
+            }
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    /**
+     * Unwritten space reads as a clean end, even where a lost end marker leaves it
+     * in front of the next segment: nothing after it is dropped.
+     */
+    @Test
+    public void testZeroLengthIsCleanEndNotCorruption() throws Exception {
+        List<String> messages = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            messages.add("M" + i);   // 111 bytes of records
+        }
+        messages.add("x".repeat(20));   // does not fit: rolls, leaving the end marker at 111
+        messages.add("after roll");
+        try (PersistentQueue queue = new PersistentQueue(dir, 128, 0)) {
+            for (String message : messages) {
+                queue.put(message);
+            }
+        }
+        assertEquals(2, segmentCount());
+        try (FileChannel channel = FileChannel.open(dir.resolve("00000000000000000000.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), 111);   // the end marker never reached the disk
+        }
+
+        try (PersistentQueue queue = new PersistentQueue(dir, 128, 0)) {
+            assertEquals(messages.size(), queue.size());
+            queue.put("last");
+            for (String message : messages) {
+                assertEquals(message, queue.take());
+            }
+            assertEquals("last", queue.take());
+        }
+    }
+
+    /**
+     * The checkpoint only moves past a message once every message before it is committed,
+     * by whichever thread handled it; an evicted message counts as committed.
+     */
+    @Test
+    public void testCheckpointFollowsOldestUncommittedMessage() throws Exception {
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            for (int i = 0; i < 4; i++) {
+                queue.put("M" + i);
+            }
+            String m0 = queue.take();
+            String[] m1 = new String[1];
+            Thread other = new Thread(() -> {
+                m1[0] = queue.poll();   // taken here, committed by the main thread
+                assertTrue(queue.commit(m0), "handed over from the main thread");
+            });
+            other.start();
+            other.join();
+            assertEquals("M1", m1[0]);
+            assertEquals(1, queue.getCommittedOffset(), "M1 is still being handled");
+            assertEquals(1, queue.getUncommittedCount());
+
+            assertFalse(queue.commit(m0), "already committed");
+            assertFalse(queue.commit(new String("M1")), "an equal String is not the taken message");
+            assertTrue(queue.commit(m1[0]));
+            assertEquals(2, queue.getCommittedOffset());
+            assertEquals("M2", queue.evictFor("M4"));
+            assertEquals(3, queue.getCommittedOffset());
+            assertEquals(0, queue.getUncommittedCount());
+        }
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            assertEquals(List.of("M3"), new ArrayList<>(queue));
+        }
+    }
+
+    /**
+     * Takes past maxUncommitted wait for a commit, so a consumer that never commits cannot grow the backlog.
+     */
+    @Test
+    public void testUncommittedMessagesAreBounded() throws Exception {
+        try (PersistentQueue queue = new PersistentQueue(dir, 4096, 0, 2)) {
+            for (int i = 0; i < 4; i++) {
+                queue.put("M" + i);
+            }
+            String m0 = queue.take();
+            assertEquals("M1", queue.take());
+            assertNull(queue.poll(), "two messages outstanding");
+            assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+
+            String[] next = new String[1];
+            Thread waiting = new Thread(() -> {
+                try {
+                    next[0] = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            waiting.start();
+            Thread.sleep(50);
+            assertTrue(waiting.isAlive(), "take waits for a commit");
+            queue.commit(m0);
+            waiting.join(2000);
+            assertFalse(waiting.isAlive());
+            assertEquals("M2", next[0]);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new PersistentQueue(dir, 4096, 0, 0));
+    }
+
+    /**
+     * Producer and Consumer use it like any other BlockingQueue; a blocked take wakes on put.
+     */
+    @Test
+    public void testProducerConsumerPipeline() throws Exception {
+        List<String> received = new ArrayList<>();
+        try (PersistentQueue queue = new PersistentQueue(dir, 4096, 0)) {
+            Thread consumer = new Thread(new Consumer<>(queue, 1, message -> {
+                synchronized (received) {
+                    received.add(message);
+                }
+                queue.commit(message);
+            }, 0, false));
+            Thread producer = new Thread(new Producer<>(queue, 1, (p, seq) -> p + ":" + seq, 0, false));
+            consumer.start();
+            Thread.sleep(50);   // consumer is waiting on an empty queue
+            producer.start();
+            Thread.sleep(200);
+            producer.interrupt();
+            producer.join(5000);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!queue.isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            consumer.interrupt();
+            consumer.join(5000);
+
+            assertFalse(producer.isAlive());
+            assertFalse(consumer.isAlive());
+            synchronized (received) {
+                assertTrue(received.size() > 100, "received " + received.size());
+                for (int i = 0; i < received.size(); i++) {
+                    assertEquals("1:" + i, received.get(i));
+                }
+            }
+        }
+    }
+
+    private long segmentCount() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(path -> path.toString().endsWith(".log")).count();
+        }
+    }
+}
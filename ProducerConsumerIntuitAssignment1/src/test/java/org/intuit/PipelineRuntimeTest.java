@@ -0,0 +1,128 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.PersistentQueue;
+import org.intuit.runtime.PipelineRuntime;
+import org.intuit.runtime.ShutdownReport;
+import org.intuit.runtime.ThreadMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PipelineRuntimeTest {
+
+    /**
+     * Producers stop first and consumers empty the buffer before they are stopped.
+     */
+    @Test
+    public void testGracefulDrainLosesNothing() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(50);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 5000, 1000);
+        runtime.start(2, id -> new Producer<>(queue, id, (p, seq) -> p + ":" + seq, 0, false),
+                2, (id, handler) -> new Consumer<>(queue, id, handler, 5, false));
+
+        Thread.sleep(200);   // producers are far faster, so the buffer is full
+        ShutdownReport report = runtime.shutdown();
+
+        assertTrue(report.isClean(), report.toString());
+        assertEquals(0, queue.size());
+        assertTrue(report.getDrained() >= 40, "a full buffer should be drained: " + report);
+        assertSame(report, runtime.shutdown(), "shutdown runs once");
+    }
+
+    /**
+     * Messages left when the drain timeout expires are reported as dropped.
+     */
+    @Test
+    public void testDrainTimeoutReportsDropped() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(50);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 100, 1000);
+        runtime.start(1, id -> new Producer<>(queue, id, (p, seq) -> p + ":" + seq, 0, false),
+                1, (id, handler) -> new Consumer<>(queue, id, handler, 200, false));
+
+        Thread.sleep(100);
+        ShutdownReport report = runtime.shutdown();
+
+        assertFalse(report.isClean());
+        assertEquals(queue.size(), report.getDropped());
+        assertTrue(report.getDropped() > 40, report.toString());
+    }
+
+    /**
+     * A handler that ignores the interrupt past the hard-stop timeout is reported as in flight.
+     */
+    @Test
+    public void testStuckHandlerReportedInFlight() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(10);
+        CountDownLatch release = new CountDownLatch(1);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(), message -> {
+            while (release.getCount() > 0) {
+                Thread.onSpinWait();   // deliberately not interruptible
+            }
+        }, 0, 100);
+        runtime.start(1, id -> new Producer<>(queue, id, (p, seq) -> p + ":" + seq, 0, false),
+                1, (id, handler) -> new Consumer<>(queue, id, handler, 0, false));
+
+        Thread.sleep(50);
+        ShutdownReport report = runtime.shutdown();
+        release.countDown();
+
+        assertEquals(1, report.getInFlight(), report.toString());
+        assertEquals(10, report.getDropped());
+    }
+
+    /**
+     * What a persistent buffer still holds at the hard stop is kept for the next run, not dropped.
+     */
+    @Test
+    public void testPersistentLeftoversReportedRetained(@TempDir Path dir) throws Exception {
+        try (PersistentQueue queue = new PersistentQueue(dir)) {
+            PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                    queue::commit, 0, 1000);
+            runtime.start(1, id -> () -> {
+                for (int i = 0; i < 5; i++) {
+                    queue.offer("M" + i);
+                }
+            }, 0, (id, handler) -> () -> { });
+
+            Thread.sleep(50);
+            ShutdownReport report = runtime.shutdown();
+
+            assertEquals(0, report.getDropped(), report.toString());
+            assertEquals(5, report.getRetained());
+            assertTrue(report.isClean());
+        }
+    }
+
+    /**
+     * Interrupting the waiting thread stops the run early but still drains.
+     */
+    @Test
+    public void testInterruptTriggersShutdown() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(20);
+        PipelineRuntime runtime = new PipelineRuntime(queue, ThreadMode.PLATFORM.threadFactory(),
+                message -> { }, 5000, 1000);
+        runtime.start(1, id -> new Producer<>(queue, id, (p, seq) -> p + ":" + seq, 0, false),
+                1, (id, handler) -> new Consumer<>(queue, id, handler, 1, false));
+
+        AtomicReference<ShutdownReport> report = new AtomicReference<>();
+        Thread waiter = new Thread(() -> report.set(runtime.awaitShutdown(60_000)));
+        waiter.start();
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join(5000);
+
+        assertFalse(waiter.isAlive());
+        assertTrue(report.get().isClean(), report.get().toString());
+    }
+}
@@ -1,10 +1,17 @@
 package org.intuit;
 
+import org.intuit.logging.PipelineLog;
+import org.intuit.producer.BatchProducer;
+import org.intuit.producer.BatchPublisher;
 import org.intuit.producer.Producer;
+import org.intuit.queue.MpmcRingBuffer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -63,4 +70,104 @@ public class ProducerTest {
 
         assertFalse(t.isAlive(), "Producer thread must exit on interrupt");
     }
+
+    /**
+     * The demo application's messages keep the {@code [P<id>]} routing prefix without formatting.
+     */
+    @Test
+    public void testCompactMessage() {
+        assertEquals("[P3] Message #42", Producer.compactMessage(3, 42));
+    }
+
+    /**
+     * Unpaced producer with a custom factory fills the queue with its messages.
+     */
+    @Test
+    public void testProducerWithFactoryAndNoPause() throws Exception {
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(100);
+        Producer<String> producer = new Producer<>(queue, 7, (id, seq) -> id + ":" + seq, 0, false);
+        Thread t = new Thread(producer);
+
+        t.start();
+        Thread.sleep(200);   // far longer than filling 100 slots takes
+        t.interrupt();       // producer is blocked in put() on the full queue
+        t.join();
+
+        assertEquals(100, queue.size());
+        assertEquals("7:0", queue.take());
+        assertEquals("7:1", queue.take());
+    }
+
+    /**
+     * Unpaced batch producer publishes full batches, one envelope per batch.
+     */
+    @Test
+    public void testBatchProducerPublishesEnvelopes() throws Exception {
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(10);
+        Thread t = new Thread(new BatchProducer(BatchPublisher.envelopes(queue), 2,
+                (id, seq) -> id + ":" + seq, 50, 1000, 0, PipelineLog.off()));
+
+        t.start();
+        Thread.sleep(200);
+        t.interrupt();
+        t.join();
+
+        assertEquals(10, queue.size());
+        List<String> first = queue.take();
+        assertEquals(50, first.size());
+        assertEquals("2:0", first.get(0));
+        assertEquals("2:50", queue.take().get(0));
+    }
+
+    /**
+     * With pacing, a partial batch is published once its linger time is up.
+     */
+    @Test
+    public void testBatchProducerPublishesPartialBatchAfterLinger() throws Exception {
+        BlockingQueue<List<String>> queue = new ArrayBlockingQueue<>(10);
+        Thread t = new Thread(new BatchProducer(BatchPublisher.envelopes(queue), 3,
+                (id, seq) -> id + ":" + seq, 100, 150, 40, PipelineLog.off()));
+
+        t.start();
+        List<String> first = queue.poll(2, TimeUnit.SECONDS);
+        t.interrupt();
+        t.join();
+
+        assertNotNull(first, "linger must publish a batch that never fills");
+        assertTrue(first.size() >= 2 && first.size() < 100, "partial batch but was " + first.size());
+        assertEquals("3:0", first.get(0));
+    }
+
+    /**
+     * On a ring buffer queue each batch occupies contiguous slots, even with concurrent producers.
+     */
+    @Test
+    public void testBatchProducerClaimsContiguousRingSlots() throws Exception {
+        MpmcRingBuffer<String> ring = new MpmcRingBuffer<>(64);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 1; p <= 3; p++) {
+            producers.add(new Thread(new BatchProducer(BatchPublisher.forQueue(ring), p,
+                    (id, seq) -> id + ":" + seq, 8, 1000, 0, PipelineLog.off())));
+        }
+        producers.forEach(Thread::start);
+
+        List<String> taken = new ArrayList<>();
+        while (taken.size() < 3000) {
+            taken.add(ring.take());
+        }
+        producers.forEach(Thread::interrupt);
+        for (Thread t : producers) {
+            t.join();
+        }
+
+        // Batches start at sequence 0, 8, 16, ... and are never interleaved
+        for (int i = 0; i < taken.size(); i += 8) {
+            String producer = taken.get(i).split(":")[0];
+            int seq = Integer.parseInt(taken.get(i).split(":")[1]);
+            assertEquals(0, seq % 8);
+            for (int j = 1; j < 8; j++) {
+                assertEquals(producer + ":" + (seq + j), taken.get(i + j));
+            }
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.QueueType;
+import org.intuit.queue.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueueTypeTest {
+
+    /**
+     * Producer and Consumer run unchanged over every queue implementation.
+     */
+    @Test
+    public void testPipelineOverEveryQueueType() throws Exception {
+        for (QueueType type : QueueType.values()) {
+            BlockingQueue<String> queue = type.create(4, WaitStrategy.SPIN_THEN_PARK);
+            List<String> handled = new CopyOnWriteArrayList<>();
+
+            Thread producer = new Thread(new Producer<>(queue, 1, (id, seq) -> id + "-" + seq, 0, false));
+            Thread consumer = new Thread(new Consumer<>(queue, 1, handled::add, 0, false));
+            producer.start();
+            consumer.start();
+            while (handled.size() < 1000) {
+                Thread.sleep(5);
+            }
+            producer.interrupt();
+            consumer.interrupt();
+            producer.join(2000);
+            consumer.join(2000);
+
+            assertFalse(producer.isAlive(), type + " producer should stop");
+            assertFalse(consumer.isAlive(), type + " consumer should stop");
+            assertEquals("1-0", handled.get(0), type.toString());
+            assertEquals("1-999", handled.get(999), type.toString());
+        }
+    }
+
+    @Test
+    public void testOptionsParsing() {
+        assertEquals(QueueType.ARRAY_BLOCKING,
+                Main.option(new String[]{}, "--queue=", QueueType.class, QueueType.ARRAY_BLOCKING));
+        assertEquals(QueueType.MPMC_RING,
+                Main.option(new String[]{"--queue=mpmc-ring"}, "--queue=", QueueType.class, QueueType.ARRAY_BLOCKING));
+        assertEquals(WaitStrategy.SPIN_THEN_PARK,
+                Main.option(new String[]{"--queue=x", "--wait=Spin_Then_Park"}, "--wait=", WaitStrategy.class, WaitStrategy.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> Main.option(new String[]{"--queue=disruptor"}, "--queue=", QueueType.class, QueueType.ARRAY_BLOCKING));
+    }
+
+    @Test
+    public void testMainRunsWithRingBuffer() throws Exception {
+        String input = "2\n2\n1\n1\n";  // producers, consumers, bufferSize, duration
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--queue=mpmc_ring", "--wait=yield"}));
+        t.start();
+        t.join(4000);
+
+        assertFalse(t.isAlive(), "Main should terminate with the ring buffer queue");
+    }
+}
@@ -0,0 +1,118 @@
+package org.intuit;
+
+import org.intuit.consumer.RingConsumer;
+import org.intuit.producer.RingProducer;
+import org.intuit.queue.MessageEvent;
+import org.intuit.queue.RingBuffer;
+import org.intuit.queue.WaitStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.intuit.Interrupts.assertInterrupted;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RingBufferTest {
+
+    /**
+     * Slots are preallocated and reused lap after lap; batches are claimed and published together.
+     */
+    @Test
+    public void testClaimPublishAndReuseSlots() throws Exception {
+        RingBuffer<MessageEvent> ring = new RingBuffer<>(MessageEvent::new, 4, WaitStrategy.BLOCK);
+        AtomicLong consumer = ring.addConsumer();
+        MessageEvent first = ring.get(0);
+
+        long hi = ring.next(3);
+        assertEquals(2, hi);
+        for (long s = 0; s <= hi; s++) {
+            MessageEvent.writeDefault(ring.get(s), 1, (int) s);
+        }
+        ring.publish(0, hi);
+        assertEquals(2, ring.waitFor(0), "whole batch is available at once");
+        assertEquals("[P1] Message #1", ring.get(1).toString());
+        ring.release(consumer, 2);
+
+        long next = ring.next(4);       // wraps around onto released slots
+        assertEquals(6, next);
+        assertSame(first, ring.get(4), "slots are reused, not reallocated");
+
+        assertThrows(IllegalArgumentException.class, () -> ring.next(5));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(MessageEvent::new, 6, WaitStrategy.BLOCK));
+    }
+
+    /**
+     * A producer blocked on a full ring and a consumer blocked on an empty one both stop on interrupt.
+     */
+    @Test
+    public void testInterruptWhileWaiting() throws Exception {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            RingBuffer<MessageEvent> full = new RingBuffer<>(MessageEvent::new, 2, strategy);
+            full.addConsumer();             // never advances
+            full.publish(0, full.next(2));
+            assertInterrupted(full::next);
+
+            RingBuffer<MessageEvent> empty = new RingBuffer<>(MessageEvent::new, 2, strategy);
+            assertInterrupted(() -> empty.waitFor(0));
+        }
+    }
+
+    /**
+     * Several batching producers and sharded consumers: every message is handled exactly once,
+     * in per-producer order, and the threads stop on interrupt like Producer/Consumer.
+     */
+    @Test
+    public void testProducersAndConsumersHandleEveryMessageOnce() throws Exception {
+        int producers = 3;
+        int consumers = 2;
+        int target = 60_000;
+
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            RingBuffer<MessageEvent> ring = new RingBuffer<>(MessageEvent::new, 64, strategy);
+            ConcurrentHashMap<String, Boolean> seen = new ConcurrentHashMap<>();
+            LongAdder handled = new LongAdder();
+            LongAdder batches = new LongAdder();
+            AtomicBoolean outOfOrder = new AtomicBoolean();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 1; c <= consumers; c++) {
+                int[] last = new int[producers + 1];   // per consumer, so no sharing
+                Arrays.fill(last, -1);
+                threads.add(new Thread(new RingConsumer<>(ring, c, (event, sequence, endOfBatch) -> {
+                    seen.put(event.toString(), Boolean.TRUE);   // duplicates show up as a size mismatch
+                    if (event.getSequence() <= last[event.getProducerId()]) {
+                        outOfOrder.set(true);
+                    }
+                    last[event.getProducerId()] = event.getSequence();
+                    handled.increment();
+                    if (endOfBatch) {
+                        batches.increment();
+                    }
+                }, consumers)));
+            }
+            for (int p = 1; p <= producers; p++) {
+                threads.add(new Thread(new RingProducer<>(ring, p, MessageEvent::writeDefault, 8, 0)));
+            }
+            threads.forEach(Thread::start);
+
+            while (handled.sum() < target) {
+                Thread.sleep(5);
+            }
+            threads.forEach(Thread::interrupt);
+            for (Thread t : threads) {
+                t.join(2000);
+                assertFalse(t.isAlive(), strategy + ": thread should stop on interrupt");
+            }
+
+            assertEquals(handled.sum(), seen.size(), strategy.toString());
+            assertFalse(outOfOrder.get(), strategy + ": messages of one producer must stay in order");
+            assertTrue(batches.sum() > 0 && batches.sum() <= handled.sum());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.ShardedQueue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShardedQueueTest {
+
+    private static String keyOf(String message) {
+        return message.substring(0, message.indexOf(':'));
+    }
+
+    /**
+     * Messages with the same key always land on the same shard, and consumers own disjoint shards.
+     */
+    @Test
+    public void testRoutingAndOwnership() throws Exception {
+        ShardedQueue queue = new ShardedQueue(6, i -> new ArrayBlockingQueue<>(100), ShardedQueueTest::keyOf);
+        for (int i = 0; i < 200; i++) {
+            queue.put("k" + (i % 20) + ":" + i);
+        }
+        assertEquals(200, queue.size());
+        for (int shard = 0; shard < 6; shard++) {
+            for (String message : queue.getShard(shard)) {
+                assertEquals(shard, queue.shardFor(message));
+            }
+        }
+
+        ShardedQueue first = queue.ownedBy(1, 4);     // shards 0 and 4
+        ShardedQueue last = queue.ownedBy(4, 4);      // shard 3
+        assertEquals(queue.getShard(0).size() + queue.getShard(4).size(), first.size());
+        assertEquals(queue.getShard(3).size(), last.size());
+
+        List<String> drained = new ArrayList<>();
+        first.drainTo(drained);
+        assertTrue(first.isEmpty());
+        assertEquals(200 - drained.size(), queue.size());
+        assertNull(first.poll(10, TimeUnit.MILLISECONDS));
+
+        assertThrows(IllegalArgumentException.class, () -> queue.ownedBy(1, 7));
+    }
+
+    /**
+     * With several producers and consumers, every key is consumed by one consumer in FIFO order.
+     */
+    @Test
+    public void testPerKeyOrderingWithConcurrentConsumers() throws Exception {
+        int consumers = 3;
+        ShardedQueue queue = new ShardedQueue(8, i -> new ArrayBlockingQueue<>(16), ShardedQueueTest::keyOf);
+        Map<String, Integer> lastSeen = new ConcurrentHashMap<>();
+        Map<String, Integer> owner = new ConcurrentHashMap<>();
+        List<String> violations = new CopyOnWriteArrayList<>();
+        LongAdder consumed = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 1; p <= 4; p++) {
+            threads.add(new Thread(new Producer<>(queue, p, (id, seq) -> "P" + id + ":" + seq, 0, false)));
+        }
+        for (int c = 1; c <= consumers; c++) {
+            int consumerId = c;
+            threads.add(new Thread(new Consumer<>(queue.ownedBy(c, consumers), c, message -> {
+                String key = keyOf(message);
+                int seq = Integer.parseInt(message.substring(key.length() + 1));
+                if (owner.computeIfAbsent(key, k -> consumerId) != consumerId) {
+                    violations.add(key + " consumed by two consumers");
+                }
+                Integer previous = lastSeen.put(key, seq);
+                if (previous != null && previous + 1 != seq) {
+                    violations.add(key + ": " + previous + " then " + seq);
+                }
+                consumed.increment();
+            }, 0, false)));
+        }
+        threads.forEach(Thread::start);
+        while (consumed.sum() < 20_000) {
+            Thread.sleep(5);
+        }
+        threads.forEach(Thread::interrupt);
+        for (Thread t : threads) {
+            t.join(2000);
+            assertFalse(t.isAlive());
+        }
+
+        assertEquals(List.of(), violations);
+        assertEquals(4, lastSeen.size());
+    }
+
+    @Test
+    public void testMainRunsSharded() throws Exception {
+        String input = "3\n2\n4\n1\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--shards=4"}));
+        t.start();
+        t.join(4000);
+
+        assertFalse(t.isAlive(), "Main should terminate in sharded mode");
+    }
+}
@@ -0,0 +1,65 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.runtime.ThreadMode;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThreadModeTest {
+
+    /**
+     * Many consumers on either kind of thread consume every message and stop on interrupt-and-join.
+     * On runtimes without virtual threads, VIRTUAL fails fast instead.
+     */
+    @Test
+    public void testInterruptAndJoinShutdownInEveryMode() throws Exception {
+        for (ThreadMode mode : ThreadMode.values()) {
+            if (!mode.isSupported()) {
+                assertThrows(UnsupportedOperationException.class, mode::threadFactory);
+                continue;
+            }
+            ThreadFactory factory = mode.threadFactory();
+            BlockingQueue<String> queue = new ArrayBlockingQueue<>(100);
+            LongAdder consumed = new LongAdder();
+
+            List<Thread> threads = new ArrayList<>();
+            threads.add(factory.newThread(new Producer<>(queue, 1, (id, seq) -> id + ":" + seq, 0, false)));
+            for (int i = 1; i <= 500; i++) {
+                threads.add(factory.newThread(new Consumer<>(queue, i, message -> consumed.increment(), 1, false)));
+            }
+            threads.forEach(Thread::start);
+
+            while (consumed.sum() < 5000) {
+                Thread.sleep(5);
+            }
+            threads.forEach(Thread::interrupt);
+            for (Thread t : threads) {
+                t.join(5000);
+                assertFalse(t.isAlive(), mode + " thread should stop on interrupt");
+            }
+        }
+    }
+
+    @Test
+    public void testMainRunsWithThreadMode() throws Exception {
+        String input = "1\n2\n5\n1\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+        String mode = ThreadMode.VIRTUAL.isSupported() ? "virtual" : "platform";
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--threads=" + mode}));
+        t.start();
+        t.join(4000);
+
+        assertFalse(t.isAlive(), "Main should terminate with --threads=" + mode);
+    }
+}
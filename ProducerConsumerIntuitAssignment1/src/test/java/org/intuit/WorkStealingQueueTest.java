@@ -0,0 +1,90 @@
+package org.intuit;
+
+import org.intuit.consumer.Consumer;
+import org.intuit.producer.Producer;
+import org.intuit.queue.WorkStealingQueue;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkStealingQueueTest {
+
+    /**
+     * Producers spread over the deques; a consumer serves its own deque first, then steals.
+     */
+    @Test
+    public void testOwnDequeFirstThenSteal() throws Exception {
+        WorkStealingQueue queue = new WorkStealingQueue(2, 3);
+        for (int i = 0; i < 6; i++) {
+            assertTrue(queue.offer("M" + i));
+        }
+        assertFalse(queue.offer("full"), "total capacity is 2 x 3");
+        assertEquals(6, queue.size());
+
+        WorkStealingQueue first = queue.forConsumer(1);
+        assertEquals(3, first.size(), "round-robin fills both deques evenly");
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            taken.add(first.take());
+        }
+        assertEquals(List.of("M0", "M2", "M4"), taken.subList(0, 3), "own deque first, in FIFO order");
+        assertEquals(List.of("M1", "M3", "M5"), taken.subList(3, 6), "then stolen, oldest first");
+        assertEquals(3, queue.getStolenCount());
+        assertNull(first.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * The backlog queued for a consumer that is far slower than the others is worked off by them.
+     */
+    @Test
+    public void testSlowConsumerBacklogIsStolen() throws Exception {
+        int consumers = 3;
+        WorkStealingQueue queue = new WorkStealingQueue(consumers, 100);
+        for (int i = 0; i < 300; i++) {
+            queue.put("M" + i);   // 100 per deque
+        }
+        Set<String> handled = ConcurrentHashMap.newKeySet();
+        LongAdder duplicates = new LongAdder();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 1; c <= consumers; c++) {
+            long pause = c == 1 ? 1000 : 0;   // consumer 1 needs a second per message
+            threads.add(new Thread(new Consumer<>(queue.forConsumer(c), c, message -> {
+                if (!handled.add(message)) {
+                    duplicates.increment();
+                }
+            }, pause, false)));
+        }
+        threads.forEach(Thread::start);
+        Thread.sleep(300);
+        threads.forEach(Thread::interrupt);
+        for (Thread t : threads) {
+            t.join(2000);
+            assertFalse(t.isAlive());
+        }
+
+        assertEquals(0, duplicates.sum());
+        assertEquals(300, handled.size(), "consumer 1's 100 messages must not wait for it");
+        assertTrue(queue.getStolenCount() >= 99);
+    }
+
+    @Test
+    public void testMainRunsWithWorkStealing() throws Exception {
+        String input = "2\n3\n6\n1\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        Thread t = new Thread(() -> Main.main(new String[]{"--scheduling=work-stealing"}));
+        t.start();
+        t.join(4000);
+
+        assertFalse(t.isAlive(), "Main should terminate with work-stealing consumers");
+    }
+}
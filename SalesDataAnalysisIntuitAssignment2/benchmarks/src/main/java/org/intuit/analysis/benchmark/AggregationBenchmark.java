@@ -0,0 +1,252 @@
+package org.intuit.analysis.benchmark;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesAnalyzer;
+import org.intuit.analysis.service.SalesReport;
+import org.intuit.analysis.service.StreamingSalesAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One benchmark per {@link SalesAnalyzer} query, over both the
+ * {@code List<Sale>} and the {@link org.intuit.analysis.model.SalesTable}
+ * overloads, plus the combined single-pass and streaming aggregations.
+ * One operation runs the query over the whole data set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AggregationBenchmark {
+
+    private final SalesAnalyzer analyzer = new SalesAnalyzer();
+
+    @Benchmark
+    public SalesReport allMetricsSinglePass(SalesData data) {
+        return new SalesAggregator().registerAll().topProducts(10).topRegions(3).aggregate(data.sales);
+    }
+
+    @Benchmark
+    public SalesReport allMetricsStreaming(SalesData data) {
+        StreamingSalesAnalyzer streaming = new SalesAggregator().registerAll().streaming();
+        data.sales.forEach(streaming);
+        return streaming.snapshot();
+    }
+
+    @Benchmark
+    public double totalRevenue(SalesData data) {
+        return analyzer.getTotalRevenue(data.sales);
+    }
+
+    @Benchmark
+    public long totalUnits(SalesData data) {
+        return analyzer.getTotalUnits(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByRegion(SalesData data) {
+        return analyzer.getRevenueByRegion(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByProduct(SalesData data) {
+        return analyzer.getRevenueByProduct(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Long> unitsByProduct(SalesData data) {
+        return analyzer.getUnitsByProduct(data.sales);
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> monthlyRevenue(SalesData data) {
+        return analyzer.getMonthlyRevenue(data.sales);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> dailyRevenue(SalesData data) {
+        return analyzer.getDailyRevenue(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueByCategory(SalesData data) {
+        return analyzer.getRevenueByCategory(data.sales);
+    }
+
+    @Benchmark
+    public double averageRevenuePerSale(SalesData data) {
+        return analyzer.getAverageRevenuePerSale(data.sales);
+    }
+
+    @Benchmark
+    public Optional<Sale> highestSale(SalesData data) {
+        return analyzer.getHighestSale(data.sales);
+    }
+
+    @Benchmark
+    public Optional<Sale> lowestSale(SalesData data) {
+        return analyzer.getLowestSale(data.sales);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Double>> topProducts(SalesData data) {
+        return analyzer.getTopNProductsByRevenue(data.sales, 10);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Double>> topRegions(SalesData data) {
+        return analyzer.getTopRegions(data.sales, 3);
+    }
+
+    @Benchmark
+    public Map<String, Double> revenueBySalesperson(SalesData data) {
+        return analyzer.getRevenueBySalesperson(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Long> unitsBySalesperson(SalesData data) {
+        return analyzer.getUnitsBySalesperson(data.sales);
+    }
+
+    @Benchmark
+    public List<Sale> highValueSales(SalesData data) {
+        return analyzer.getHighValueSales(data.sales, 50_000);
+    }
+
+    @Benchmark
+    public Map<String, Long> saleCountByRegion(SalesData data) {
+        return analyzer.getSaleCountByRegion(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Number>> categorySummary(SalesData data) {
+        return analyzer.getCategorySummary(data.sales);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Number>> productSummary(SalesData data) {
+        return analyzer.getProductSummary(data.sales);
+    }
+
+    @Benchmark
+    public Map<YearMonth, Long> monthlySaleCount(SalesData data) {
+        return analyzer.getMonthlySaleCount(data.sales);
+    }
+
+    @Benchmark
+    public double tableTotalRevenue(SalesData data) {
+        return analyzer.getTotalRevenue(data.table);
+    }
+
+    @Benchmark
+    public long tableTotalUnits(SalesData data) {
+        return analyzer.getTotalUnits(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Double> tableRevenueByRegion(SalesData data) {
+        return analyzer.getRevenueByRegion(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Double> tableRevenueByProduct(SalesData data) {
+        return analyzer.getRevenueByProduct(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Long> tableUnitsByProduct(SalesData data) {
+        return analyzer.getUnitsByProduct(data.table);
+    }
+
+    @Benchmark
+    public Map<YearMonth, Double> tableMonthlyRevenue(SalesData data) {
+        return analyzer.getMonthlyRevenue(data.table);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> tableDailyRevenue(SalesData data) {
+        return analyzer.getDailyRevenue(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Double> tableRevenueByCategory(SalesData data) {
+        return analyzer.getRevenueByCategory(data.table);
+    }
+
+    @Benchmark
+    public double tableAverageRevenuePerSale(SalesData data) {
+        return analyzer.getAverageRevenuePerSale(data.table);
+    }
+
+    @Benchmark
+    public Optional<Sale> tableHighestSale(SalesData data) {
+        return analyzer.getHighestSale(data.table);
+    }
+
+    @Benchmark
+    public Optional<Sale> tableLowestSale(SalesData data) {
+        return analyzer.getLowestSale(data.table);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Double>> tableTopProducts(SalesData data) {
+        return analyzer.getTopNProductsByRevenue(data.table, 10);
+    }
+
+    @Benchmark
+    public List<Map.Entry<String, Double>> tableTopRegions(SalesData data) {
+        return analyzer.getTopRegions(data.table, 3);
+    }
+
+    @Benchmark
+    public Map<String, Double> tableRevenueBySalesperson(SalesData data) {
+        return analyzer.getRevenueBySalesperson(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Long> tableUnitsBySalesperson(SalesData data) {
+        return analyzer.getUnitsBySalesperson(data.table);
+    }
+
+    @Benchmark
+    public List<Sale> tableHighValueSales(SalesData data) {
+        return analyzer.getHighValueSales(data.table, 50_000);
+    }
+
+    @Benchmark
+    public Map<String, Long> tableSaleCountByRegion(SalesData data) {
+        return analyzer.getSaleCountByRegion(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Number>> tableCategorySummary(SalesData data) {
+        return analyzer.getCategorySummary(data.table);
+    }
+
+    @Benchmark
+    public Map<String, Map<String, Number>> tableProductSummary(SalesData data) {
+        return analyzer.getProductSummary(data.table);
+    }
+
+    @Benchmark
+    public Map<YearMonth, Long> tableMonthlySaleCount(SalesData data) {
+        return analyzer.getMonthlySaleCount(data.table);
+    }
+}
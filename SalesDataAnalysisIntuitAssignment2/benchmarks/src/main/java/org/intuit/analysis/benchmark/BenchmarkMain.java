@@ -0,0 +1,23 @@
+package org.intuit.analysis.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler always enabled, so every
+ * result reports allocation rate ({@code gc.alloc.rate.norm}) next to
+ * throughput. Accepts the usual JMH command-line options, e.g.
+ * {@code java -jar target/benchmarks.jar Parsing -p rows=1000000}.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,76 @@
+package org.intuit.analysis.benchmark;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+import org.intuit.analysis.model.SalesTable;
+import org.intuit.analysis.reader.CsvReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingestion benchmarks: {@link Sale#fromCsv} on in-memory lines and every
+ * {@link CsvReader} path on a generated file. One operation parses the
+ * whole data set.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+
+    @Benchmark
+    public void fromCsv(SalesData data, Blackhole bh) {
+        for (String line : data.lines) {
+            bh.consume(Sale.fromCsv(line));
+        }
+    }
+
+    @Benchmark
+    public void fromCsvWithDictionary(SalesData data, Blackhole bh) {
+        SalesDictionary dictionary = new SalesDictionary();
+        for (String line : data.lines) {
+            bh.consume(Sale.fromCsv(line, dictionary));
+        }
+    }
+
+    @Benchmark
+    public List<Sale> readSales(SalesData data) throws IOException {
+        return CsvReader.readSales(data.file.toString());
+    }
+
+    @Benchmark
+    public List<Sale> readSalesWithDictionary(SalesData data) throws IOException {
+        return CsvReader.readSales(data.file.toString(), new SalesDictionary());
+    }
+
+    @Benchmark
+    public List<Sale> readSalesParallel(SalesData data) throws IOException {
+        return CsvReader.readSalesParallel(data.file.toString());
+    }
+
+    @Benchmark
+    public List<Sale> readSalesMapped(SalesData data) throws IOException {
+        return CsvReader.readSalesMapped(data.file.toString());
+    }
+
+    @Benchmark
+    public List<Sale> readSalesMappedWithDictionary(SalesData data) throws IOException {
+        return CsvReader.readSalesMapped(data.file.toString(), 64 * 1024 * 1024, new SalesDictionary());
+    }
+
+    @Benchmark
+    public SalesTable readSalesTable(SalesData data) throws IOException {
+        return CsvReader.readSalesTable(data.file.toString());
+    }
+}
@@ -0,0 +1,38 @@
+package org.intuit.analysis.benchmark;
+
+import org.intuit.analysis.App;
+import org.intuit.analysis.service.SalesReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end benchmark of the {@link App} report: reading the file,
+ * computing every metric and formatting the output (to a discarding
+ * stream, so console speed does not count).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    @Benchmark
+    public SalesReport fullReport(SalesData data) throws IOException {
+        SalesReport report = App.analyze(data.file.toString());
+        App.printReport(report, DISCARD);
+        return report;
+    }
+}
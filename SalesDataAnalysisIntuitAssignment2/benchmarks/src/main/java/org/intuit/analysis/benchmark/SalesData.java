@@ -0,0 +1,59 @@
+package org.intuit.analysis.benchmark;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesTable;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Shared benchmark input: one generated data set per parameter
+ * combination, available as CSV lines, a CSV file, parsed sales and a
+ * {@link SalesTable}.
+ *
+ * <p>Override the parameters from the command line, e.g.
+ * {@code -p rows=1000000 -p skew=0.0}.</p>
+ */
+@State(Scope.Benchmark)
+public class SalesData {
+
+    @Param("100000")
+    public int rows;
+
+    @Param({"100", "10000"})
+    public int cardinality;
+
+    @Param({"0.0", "1.1"})
+    public double skew;
+
+    @Param("42")
+    public long seed;
+
+    public List<String> lines;
+    public List<Sale> sales;
+    public SalesTable table;
+    public Path file;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        SalesDataGenerator generator = new SalesDataGenerator(seed, rows, cardinality, skew);
+        lines = generator.lines();
+        sales = generator.sales();
+        table = SalesTable.from(sales);
+        file = Files.createTempFile("sales_benchmark", ".csv");
+        generator.writeCsv(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+}
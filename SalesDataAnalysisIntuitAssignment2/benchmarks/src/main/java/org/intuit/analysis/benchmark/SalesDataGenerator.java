@@ -0,0 +1,140 @@
+package org.intuit.analysis.benchmark;
+
+import org.intuit.analysis.model.Sale;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of synthetic sales data.
+ *
+ * <p>The same seed, row count, cardinality and skew always produce the
+ * same rows, so benchmark runs are comparable across builds.</p>
+ *
+ * <ul>
+ *     <li><b>cardinality</b> is the number of distinct products. Categories
+ *         (cardinality / 100), salespeople (cardinality / 10) and regions
+ *         (at most 16) scale with it.</li>
+ *     <li><b>skew</b> is a Zipf exponent applied to every key column: 0 is
+ *         uniform, around 1 gives the usual "few hot products" shape.</li>
+ * </ul>
+ *
+ * <p>Dates are spread over two years starting 2023-01-01, unit prices
+ * over 1.00 – 9999.99 and quantities over 1 – 20.</p>
+ */
+public class SalesDataGenerator {
+
+    static final String HEADER = "sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson";
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2023, 1, 1);
+    private static final int DAYS = 730;
+
+    private final long seed;
+    private final int rows;
+    private final int products;
+    private final int categories;
+    private final int regions;
+    private final int salespeople;
+    private final double skew;
+
+    public SalesDataGenerator(long seed, int rows, int cardinality, double skew) {
+        if (rows < 0 || cardinality < 1 || skew < 0) {
+            throw new IllegalArgumentException("rows >= 0, cardinality >= 1 and skew >= 0 required");
+        }
+        this.seed = seed;
+        this.rows = rows;
+        this.products = cardinality;
+        this.categories = Math.max(1, cardinality / 100);
+        this.regions = Math.min(16, cardinality);
+        this.salespeople = Math.max(1, cardinality / 10);
+        this.skew = skew;
+    }
+
+    /**
+     * Generates every row as a CSV line, without the header.
+     */
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>(rows);
+        SplittableRandom random = new SplittableRandom(seed);
+        Zipf product = new Zipf(products, skew);
+        Zipf region = new Zipf(regions, skew);
+        Zipf salesperson = new Zipf(salespeople, skew);
+        StringBuilder line = new StringBuilder(96);
+
+        for (int i = 0; i < rows; i++) {
+            int p = product.sample(random);
+            int priceCents = 100 + random.nextInt(999_900);
+
+            line.setLength(0);
+            line.append(i + 1).append(',')
+                    .append(FIRST_DAY.plusDays(random.nextInt(DAYS))).append(',')
+                    .append('P').append(p).append(',')
+                    .append("Product ").append(p).append(',')
+                    .append("Category ").append(p % categories).append(',')
+                    .append(priceCents / 100).append('.').append(priceCents % 100 / 10).append(priceCents % 10).append(',')
+                    .append(1 + random.nextInt(20)).append(',')
+                    .append("Region ").append(region.sample(random)).append(',')
+                    .append("Rep ").append(salesperson.sample(random));
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    /**
+     * Generates every row as a parsed {@link Sale}.
+     */
+    public List<Sale> sales() {
+        List<Sale> sales = new ArrayList<>(rows);
+        for (String line : lines()) {
+            sales.add(Sale.fromCsv(line));
+        }
+        return sales;
+    }
+
+    /**
+     * Writes the header and every row to {@code file}.
+     */
+    public void writeCsv(Path file) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.newLine();
+            for (String line : lines()) {
+                out.write(line);
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Zipf sampler over {@code 0..n-1} using a precomputed CDF.
+     */
+    private static final class Zipf {
+
+        private final double[] cdf;
+
+        Zipf(int n, double exponent) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 0; k < n; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cdf[k] = sum;
+            }
+            for (int k = 0; k < n; k++) {
+                cdf[k] /= sum;
+            }
+        }
+
+        int sample(SplittableRandom random) {
+            int i = Arrays.binarySearch(cdf, random.nextDouble());
+            return Math.min(i >= 0 ? i : -i - 1, cdf.length - 1);
+        }
+    }
+}
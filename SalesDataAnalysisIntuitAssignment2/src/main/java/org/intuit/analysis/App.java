@@ -1,10 +1,13 @@
 package org.intuit.analysis;
 
-import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
 import org.intuit.analysis.reader.CsvReader;
-import org.intuit.analysis.service.SalesAnalyzer;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesReport;
+import org.intuit.analysis.service.StreamingSalesAnalyzer;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.PrintStream;
 
 /**
  * Entry point for the Sales Analysis application.
@@ -12,7 +15,8 @@ import java.util.List;
  * <p>This class orchestrates the overall workflow:
  * <ul>
  *     <li>Loads the CSV file using {@link CsvReader}</li>
- *     <li>Runs 20+ analytical operations using {@link SalesAnalyzer}</li>
+ *     <li>Computes every analytical metric in a single pass using {@link SalesAggregator},
+ *         folding rows in as they are read so the file is never held in memory</li>
  *     <li>Prints a structured sales analysis report to the console</li>
  * </ul>
  *
@@ -33,93 +37,118 @@ public class App {
                 ? args[0]   // user-supplied file path
                 : "src/main/resources/sales.csv"; // default file
 
-        List<Sale> sales = CsvReader.readSales(filePath);
+        printReport(analyze(filePath), System.out);
+    }
+
+    /**
+     * Reads {@code filePath} and computes every metric the report prints.
+     *
+     * @param filePath path to the sales CSV file
+     * @return report holding all metrics
+     */
+    public static SalesReport analyze(String filePath) throws IOException {
+
+        // One dictionary for reading and aggregating: group-bys use the codes stored on each sale
+        SalesDictionary dictionary = new SalesDictionary();
+
+        // Register every metric the report prints, then fold each row in as it is parsed
+        StreamingSalesAnalyzer analyzer = new SalesAggregator(dictionary)
+                .registerAll()
+                .highValueSales(5000)
+                .topProducts(3)
+                .topRegions(2)
+                .streaming();
+        CsvReader.forEachSale(filePath, dictionary, analyzer);
+        return analyzer.snapshot();
+    }
 
-        // Create analyzer instance
-        SalesAnalyzer analyzer = new SalesAnalyzer();
+    /**
+     * Prints the full sales analysis report to {@code out}.
+     */
+    public static void printReport(SalesReport report, PrintStream out) {
 
-        System.out.println("\n============== SALES ANALYSIS REPORT ==============\n");
+        out.println("\n============== SALES ANALYSIS REPORT ==============\n");
 
-        System.out.println("Total Revenue: " + analyzer.getTotalRevenue(sales));
+        out.println("Total Revenue: " + report.getTotalRevenue());
 
-        System.out.println("Total Units Sold: " + analyzer.getTotalUnits(sales));
+        out.println("Total Units Sold: " + report.getTotalUnits());
 
-        analyzer.getHighestSale(sales).ifPresent(s ->
-                System.out.println("Highest Sale Revenue: " + s.revenue()));
+        report.getHighestSale().ifPresent(s ->
+                out.println("Highest Sale Revenue: " + s.revenue()));
 
-        analyzer.getLowestSale(sales).ifPresent(s ->
-                System.out.println("Lowest Sale Revenue: " + s.revenue()));
+        report.getLowestSale().ifPresent(s ->
+                out.println("Lowest Sale Revenue: " + s.revenue()));
 
-        System.out.println("\n------------ Revenue By Region ------------");
-        analyzer.getRevenueByRegion(sales)
+        out.println("\n------------ Revenue By Region ------------");
+        report.getRevenueByRegion()
                 .forEach((region, revenue) ->
-                        System.out.println(region + " : " + revenue));
+                        out.println(region + " : " + revenue));
 
-        System.out.println("\n------------ Revenue By Product ------------");
-        analyzer.getRevenueByProduct(sales)
+        out.println("\n------------ Revenue By Product ------------");
+        report.getRevenueByProduct()
                 .forEach((product, rev) ->
-                        System.out.println(product + " : " + rev));
+                        out.println(product + " : " + rev));
 
-        System.out.println("\n------------ Units Sold By Product ------------");
-        analyzer.getUnitsByProduct(sales)
+        out.println("\n------------ Units Sold By Product ------------");
+        report.getUnitsByProduct()
                 .forEach((product, units) ->
-                        System.out.println(product + " : " + units));
+                        out.println(product + " : " + units));
 
-        System.out.println("\n------------ Revenue By Category ------------");
-        analyzer.getRevenueByCategory(sales)
+        out.println("\n------------ Revenue By Category ------------");
+        report.getRevenueByCategory()
                 .forEach((category, rev) ->
-                        System.out.println(category + " : " + rev));
+                        out.println(category + " : " + rev));
 
-        System.out.println("\n------------ Category Summary (Revenue + Units) ------------");
-        analyzer.getCategorySummary(sales)
+        out.println("\n------------ Category Summary (Revenue + Units) ------------");
+        report.getCategorySummary()
                 .forEach((cat, summary) ->
-                        System.out.println(cat + " => " + summary));
+                        out.println(cat + " => " + summary));
 
-        System.out.println("\n------------ Product Summary (Revenue + Units + Avg Price) ------------");
-        analyzer.getProductSummary(sales)
+        out.println("\n------------ Product Summary (Revenue + Units + Avg Price) ------------");
+        report.getProductSummary()
                 .forEach((prod, summary) ->
-                        System.out.println(prod + " => " + summary));
+                        out.println(prod + " => " + summary));
 
-        System.out.println("\n------------ Monthly Revenue ------------");
-        analyzer.getMonthlyRevenue(sales)
+        out.println("\n------------ Monthly Revenue ------------");
+        report.getMonthlyRevenue()
                 .forEach((month, revenue) ->
-                        System.out.println(month + " : " + revenue));
+                        out.println(month + " : " + revenue));
 
-        System.out.println("\n------------ Monthly Sale Count ------------");
-        analyzer.getMonthlySaleCount(sales)
+        out.println("\n------------ Monthly Sale Count ------------");
+        report.getMonthlySaleCount()
                 .forEach((month, count) ->
-                        System.out.println(month + " : " + count));
+                        out.println(month + " : " + count));
 
-        System.out.println("\n------------ Daily Revenue ------------");
-        analyzer.getDailyRevenue(sales)
+        out.println("\n------------ Daily Revenue ------------");
+        report.getDailyRevenue()
                 .forEach((date, revenue) ->
-                        System.out.println(date + " : " + revenue));
+                        out.println(date + " : " + revenue));
 
-        System.out.println("\n------------ Revenue By Salesperson ------------");
-        analyzer.getRevenueBySalesperson(sales)
+        out.println("\n------------ Revenue By Salesperson ------------");
+        report.getRevenueBySalesperson()
                 .forEach((sp, revenue) ->
-                        System.out.println(sp + " : " + revenue));
+                        out.println(sp + " : " + revenue));
 
-        System.out.println("\n------------ High Value Sales (>= 5000) ------------");
-        analyzer.getHighValueSales(sales, 5000)
+        out.println("\n------------ High Value Sales (>= 5000) ------------");
+        report.getHighValueSales()
                 .forEach(s ->
-                        System.out.println("Sale Revenue: " + s.revenue()));
+                        out.println("Sale Revenue: " + s.revenue()));
 
-        System.out.println("\n------------ Top 3 Products By Revenue ------------");
-        analyzer.getTopNProductsByRevenue(sales, 3)
+        out.println("\n------------ Top 3 Products By Revenue ------------");
+        report.getTopProducts()
                 .forEach(entry ->
-                        System.out.println(entry.getKey() + ": " + entry.getValue()));
+                        out.println(entry.getKey() + ": " + entry.getValue()));
 
-        System.out.println("\n------------ Top 2 Regions By Revenue ------------");
-        analyzer.getTopRegions(sales, 2)
+        out.println("\n------------ Top 2 Regions By Revenue ------------");
+        report.getTopRegions()
                 .forEach(entry ->
-                        System.out.println(entry.getKey() + ": " + entry.getValue()));
+                        out.println(entry.getKey() + ": " + entry.getValue()));
 
-        System.out.println("\n------------ Sale Count By Region ------------");
-        analyzer.getSaleCountByRegion(sales)
+        out.println("\n------------ Sale Count By Region ------------");
+        report.getSaleCountByRegion()
                 .forEach((region, count) ->
-                        System.out.println(region + " : " + count));
+                        out.println(region + " : " + count));
 
-        System.out.println("\nAnalysis Completed Successfully.");
+        out.println("\nAnalysis Completed Successfully.");
     }
 }
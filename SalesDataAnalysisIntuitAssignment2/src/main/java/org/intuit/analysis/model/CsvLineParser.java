@@ -0,0 +1,124 @@
+package org.intuit.analysis.model;
+
+import java.time.LocalDate;
+
+/**
+ * Single-scan tokenizer used by {@link Sale#fromCsv(String)}.
+ *
+ * <p>The line is walked once by index. Field boundaries are trimmed in
+ * place and the date, price and quantity are parsed straight from char
+ * offsets, so no intermediate arrays, token strings or formatters are
+ * created. Only the text columns that {@link Sale} keeps become
+ * substrings, and with a {@link SalesDictionary} only the sale ID does.
+ * The numeric and date columns go through {@link FieldParser}, which the
+ * memory-mapped reader shares.</p>
+ *
+ * <p>The parser only accepts rows it can decode with certainty and returns
+ * {@code null} for everything else. The caller then runs the original
+ * split-based parsing, which keeps accepted values and rejected rows
+ * (including exception types and messages) exactly as before.</p>
+ */
+final class CsvLineParser {
+
+    private CsvLineParser() {
+    }
+
+    /**
+     * Parses a CSV row, or returns {@code null} if the row needs the slow path.
+     *
+     * @param dictionary dictionary for the text columns, or {@code null} to
+     *                   keep them as plain substrings
+     */
+    static Sale tryParse(String line, SalesDictionary dictionary) {
+
+        int end = line.length();
+
+        // Fields are consumed left to right; each step yields [start, stop) of one column
+        int c0 = line.indexOf(',');
+        int c1 = c0 < 0 ? -1 : line.indexOf(',', c0 + 1);
+        int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+        int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+        int c4 = c3 < 0 ? -1 : line.indexOf(',', c3 + 1);
+        int c5 = c4 < 0 ? -1 : line.indexOf(',', c4 + 1);
+        int c6 = c5 < 0 ? -1 : line.indexOf(',', c5 + 1);
+        int c7 = c6 < 0 ? -1 : line.indexOf(',', c6 + 1);
+        if (c7 < 0) {
+            return null;   // fewer than nine columns
+        }
+
+        // Ninth column stops at the next comma; extra columns are ignored like split(",")
+        int c8 = line.indexOf(',', c7 + 1);
+        if (c8 < 0) {
+            c8 = end;
+        }
+        if (c8 == c7 + 1) {
+            return null;   // split(",") drops trailing empty columns; let the slow path decide
+        }
+
+        FieldParser.CharSource chars = line::charAt;
+
+        LocalDate date = FieldParser.parseDate(chars, trimStart(line, c0 + 1, c1), trimEnd(line, c0 + 1, c1));
+        if (date == null) {
+            return null;
+        }
+
+        double unitPrice = FieldParser.parseDouble(chars, trimStart(line, c4 + 1, c5), trimEnd(line, c4 + 1, c5));
+        if (Double.isNaN(unitPrice)) {
+            return null;
+        }
+
+        long quantity = FieldParser.parseInt(chars, trimStart(line, c5 + 1, c6), trimEnd(line, c5 + 1, c6));
+        if (quantity == Long.MIN_VALUE) {
+            return null;
+        }
+
+        if (dictionary != null) {
+            return dictionary.newSale(
+                    field(line, 0, c0),                                       // saleId
+                    date,
+                    code(dictionary, Dimension.PRODUCT, line, c1 + 1, c2),
+                    code(dictionary, Dimension.PRODUCT_NAME, line, c2 + 1, c3),
+                    code(dictionary, Dimension.CATEGORY, line, c3 + 1, c4),
+                    unitPrice,
+                    (int) quantity,
+                    code(dictionary, Dimension.REGION, line, c6 + 1, c7),
+                    code(dictionary, Dimension.SALESPERSON, line, c7 + 1, c8)
+            );
+        }
+
+        return new Sale(
+                field(line, 0, c0),          // saleId
+                date,
+                field(line, c1 + 1, c2),     // productId
+                field(line, c2 + 1, c3),     // productName
+                field(line, c3 + 1, c4),     // category
+                unitPrice,
+                (int) quantity,
+                field(line, c6 + 1, c7),     // region
+                field(line, c7 + 1, c8)      // salesperson
+        );
+    }
+
+    private static int code(SalesDictionary dictionary, Dimension dim, String line, int start, int stop) {
+        return dictionary.get(dim).encode(line, trimStart(line, start, stop), trimEnd(line, start, stop));
+    }
+
+    private static String field(String line, int start, int stop) {
+        return line.substring(trimStart(line, start, stop), trimEnd(line, start, stop));
+    }
+
+    /** Same whitespace rule as {@link String#trim()}: any char up to U+0020. */
+    private static int trimStart(String line, int start, int stop) {
+        while (start < stop && line.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String line, int start, int stop) {
+        while (stop > start && line.charAt(stop - 1) <= ' ') {
+            stop--;
+        }
+        return stop;
+    }
+}
@@ -0,0 +1,14 @@
+package org.intuit.analysis.model;
+
+/**
+ * Low-cardinality text columns of a {@link Sale} that are dictionary-encoded.
+ *
+ * @see SalesDictionary
+ */
+public enum Dimension {
+    REGION,
+    PRODUCT,
+    PRODUCT_NAME,
+    CATEGORY,
+    SALESPERSON
+}
@@ -0,0 +1,45 @@
+package org.intuit.analysis.model;
+
+import java.time.LocalDate;
+
+/**
+ * A {@link Sale} built through a {@link SalesDictionary}, carrying the codes
+ * of its grouped text columns so they can be aggregated without hashing.
+ *
+ * <p>Kept apart from {@link Sale} so that sales built without a dictionary
+ * do not pay for four unused int fields.</p>
+ */
+final class EncodedSale extends Sale {
+
+    private final int productCode;
+    private final int categoryCode;
+    private final int regionCode;
+    private final int salespersonCode;
+
+    EncodedSale(String saleId, LocalDate date, String productId, String productName,
+                String category, double unitPrice, int quantity,
+                String region, String salesperson,
+                int productCode, int categoryCode, int regionCode, int salespersonCode) {
+        super(saleId, date, productId, productName, category, unitPrice, quantity, region, salesperson);
+        this.productCode = productCode;
+        this.categoryCode = categoryCode;
+        this.regionCode = regionCode;
+        this.salespersonCode = salespersonCode;
+    }
+
+    @Override
+    int code(Dimension dim) {
+        switch (dim) {
+            case REGION:
+                return regionCode;
+            case PRODUCT:
+                return productCode;
+            case CATEGORY:
+                return categoryCode;
+            case SALESPERSON:
+                return salespersonCode;
+            default:
+                return -1;
+        }
+    }
+}
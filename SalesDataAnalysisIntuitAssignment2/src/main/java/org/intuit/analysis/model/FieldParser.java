@@ -0,0 +1,139 @@
+package org.intuit.analysis.model;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Fast-path parsers for the date, price and quantity columns, shared by
+ * {@link Sale#fromCsv(String)} and the memory-mapped reader.
+ *
+ * <p>Both read a field through a {@link CharSource}: a {@code String} via
+ * {@code line::charAt} and mapped bytes via {@code buffer::get}. Every
+ * field these parsers accept is pure ASCII, so chars and UTF-8 bytes give
+ * the same result and the two ingestion paths cannot drift apart.</p>
+ *
+ * <p>Each parser only accepts input it can decode with certainty and
+ * signals everything else with a sentinel, so the caller can fall back to
+ * the original split-based parsing.</p>
+ */
+public final class FieldParser {
+
+    /**
+     * Indexed access to the characters (or ASCII bytes) of a row.
+     */
+    @FunctionalInterface
+    public interface CharSource {
+        int charAt(int index);
+    }
+
+    private static final int MAX_FAST_DIGITS = 15;  // 10^15 < 2^53, so the mantissa is exact
+
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private FieldParser() {
+    }
+
+    /**
+     * Parses a strict {@code yyyy-MM-dd} date. Anything else, including days
+     * the formatter would resolve or reject, returns {@code null}.
+     */
+    public static LocalDate parseDate(CharSource s, int from, int to) {
+        if (to - from != 10 || s.charAt(from + 4) != '-' || s.charAt(from + 7) != '-') {
+            return null;
+        }
+        int year = digits(s, from, from + 4);
+        int month = digits(s, from + 5, from + 7);
+        int day = digits(s, from + 8, from + 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1) {
+            return null;
+        }
+        // Out-of-range days are resolved (or rejected) by the formatter's SMART rules
+        if (day > 28 && day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int digits(CharSource s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a plain decimal such as {@code 1200}, {@code -3.5} or {@code .25}.
+     *
+     * <p>With at most 15 significant digits both the mantissa and the power
+     * of ten are exact doubles, so one division gives the same correctly
+     * rounded value as {@link Double#parseDouble}. Anything else returns
+     * {@code NaN}.</p>
+     */
+    public static double parseDouble(CharSource s, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        for (; i < to; i++) {
+            int ch = s.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                if (++digitCount > MAX_FAST_DIGITS) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (ch - '0');
+                if (seenDot) {
+                    fractionDigits++;
+                }
+            } else if (ch == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+
+        double value = mantissa / POW10[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses an int with at most nine digits, or returns {@link Long#MIN_VALUE}.
+     */
+    public static long parseInt(CharSource s, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        if (i == to || to - i > 9) {
+            return Long.MIN_VALUE;
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int d = s.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+}
@@ -95,21 +95,59 @@ public class Sale {
     }
 
 
+    /**
+     * Date format pattern used in CSV
+     */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
     /**
      * Parses a single CSV line and converts it into a {@link Sale} object.
      *
      * <p>This method:
      * <ul>
-     *     <li>Splits the CSV row by commas</li>
-     *     <li>Trims whitespace around each value</li>
+     *     <li>Scans the row once by index to find the comma-separated fields</li>
+     *     <li>Trims whitespace around each value in place</li>
      *     <li>Parses the date into {@link LocalDate}</li>
      *     <li>Parses numeric fields such as unit price and quantity</li>
      * </ul>
      *
+     * <p>Well-formed rows are decoded without intermediate arrays or token
+     * strings. Rows the single-scan tokenizer is unsure about are parsed
+     * with {@code split(",")}, so malformed input is rejected exactly as
+     * before.</p>
+     *
      * @param line A CSV line representing one sale (excluding header)
      * @return A fully populated Sale object
      */
     public static Sale fromCsv(String line) {
+        Sale sale = CsvLineParser.tryParse(line, null);
+        return sale != null ? sale : fromCsvSplit(line);
+    }
+
+    /**
+     * Parses a CSV line like {@link #fromCsv(String)}, taking region,
+     * product, product name, category and salesperson from
+     * {@code dictionary}.
+     *
+     * <p>The returned sale shares one String instance per distinct value
+     * with every other sale parsed through the same dictionary, and carries
+     * the codes of those values. Known values are looked up straight from
+     * the line, so no substring is created for them.</p>
+     *
+     * @param line       A CSV line representing one sale (excluding header)
+     * @param dictionary Dictionary shared by all rows of the data set
+     * @return A fully populated, dictionary-encoded Sale object
+     */
+    public static Sale fromCsv(String line, SalesDictionary dictionary) {
+        Sale sale = CsvLineParser.tryParse(line, dictionary);
+        return sale != null ? sale : dictionary.encode(fromCsvSplit(line));
+    }
+
+    /**
+     * Reference parser based on {@code split(",")}. Decides every row the
+     * fast tokenizer declines, including all malformed ones.
+     */
+    private static Sale fromCsvSplit(String line) {
 
         // Split row by commas
         String[] parts = line.split(",");
@@ -119,13 +157,10 @@ public class Sale {
                 .map(String::trim)
                 .toArray(String[]::new);
 
-        // Date format pattern used in CSV
-        DateTimeFormatter df = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
         // Construct a Sale object using parsed values
         return new Sale(
                 parts[0],                               // saleId
-                LocalDate.parse(parts[1], df),         // date
+                LocalDate.parse(parts[1], DATE_FORMAT), // date
                 parts[2],                               // productId
                 parts[3],                               // productName
                 parts[4],                               // category
@@ -146,6 +181,43 @@ public class Sale {
         return unitPrice * quantity;
     }
 
+    /**
+     * Value of a dictionary-encoded column.
+     */
+    String value(Dimension dim) {
+        switch (dim) {
+            case REGION:
+                return region;
+            case PRODUCT:
+                return productId;
+            case PRODUCT_NAME:
+                return productName;
+            case CATEGORY:
+                return category;
+            case SALESPERSON:
+                return salesperson;
+            default:
+                throw new IllegalArgumentException("Unknown dimension " + dim);
+        }
+    }
+
+    /**
+     * Stored dictionary code of a column, or -1 if the sale does not carry
+     * one. Only sales built through a {@link SalesDictionary} do, see
+     * {@link EncodedSale}.
+     */
+    int code(Dimension dim) {
+        return -1;
+    }
+
+    public String getSaleId() {
+        return saleId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
     public String getRegion() {
         return region;
     }
@@ -0,0 +1,94 @@
+package org.intuit.analysis.model;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One {@link StringDictionary} per {@link Dimension}, shared by ingestion,
+ * columnar storage and aggregation.
+ *
+ * <p>Sales parsed with a dictionary reference one canonical String
+ * instance per distinct region, product, product name, category and
+ * salesperson, and carry the int codes of those values. Aggregations that
+ * use the same dictionary group by these codes instead of hashing
+ * Strings.</p>
+ *
+ * <p>The dictionary is thread-safe, so parallel readers can share it.</p>
+ */
+public class SalesDictionary {
+
+    private final Map<Dimension, StringDictionary> dictionaries = new EnumMap<>(Dimension.class);
+
+    public SalesDictionary() {
+        for (Dimension dim : Dimension.values()) {
+            dictionaries.put(dim, new StringDictionary());
+        }
+    }
+
+    /**
+     * Dictionary of one column.
+     */
+    public StringDictionary get(Dimension dim) {
+        return dictionaries.get(dim);
+    }
+
+    /**
+     * Returns the code of {@code sale}'s value in the given column.
+     *
+     * <p>If the sale was built by this dictionary its stored code is used
+     * without hashing. The stored code is trusted only when it decodes to
+     * the very same String instance, so sales from other dictionaries or
+     * plain constructors are simply encoded.</p>
+     */
+    public int codeOf(Dimension dim, Sale sale) {
+        StringDictionary dict = dictionaries.get(dim);
+        String value = sale.value(dim);
+        int code = sale.code(dim);
+        if (code >= 0 && code < dict.size() && dict.decode(code) == value) {
+            return code;
+        }
+        return dict.encode(value);
+    }
+
+    /**
+     * Returns a sale equal to {@code sale} whose text columns are canonical
+     * instances from this dictionary and which carries their codes.
+     */
+    public Sale encode(Sale sale) {
+        return newSale(
+                sale.getSaleId(),
+                sale.getDate(),
+                codeOf(Dimension.PRODUCT, sale),
+                codeOf(Dimension.PRODUCT_NAME, sale),
+                codeOf(Dimension.CATEGORY, sale),
+                sale.getUnitPrice(),
+                sale.getQuantity(),
+                codeOf(Dimension.REGION, sale),
+                codeOf(Dimension.SALESPERSON, sale)
+        );
+    }
+
+    /**
+     * Creates a sale from already-encoded column codes.
+     */
+    public Sale newSale(String saleId, LocalDate date, int productCode, int productNameCode,
+                        int categoryCode, double unitPrice, int quantity,
+                        int regionCode, int salespersonCode) {
+        return new EncodedSale(
+                saleId,
+                date,
+                get(Dimension.PRODUCT).decode(productCode),
+                get(Dimension.PRODUCT_NAME).decode(productNameCode),
+                get(Dimension.CATEGORY).decode(categoryCode),
+                unitPrice,
+                quantity,
+                get(Dimension.REGION).decode(regionCode),
+                get(Dimension.SALESPERSON).decode(salespersonCode),
+                productCode,
+                categoryCode,
+                regionCode,
+                salespersonCode
+        );
+    }
+}
@@ -0,0 +1,201 @@
+package org.intuit.analysis.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, in-memory alternative to {@code List<Sale>}.
+ *
+ * <p>Each attribute is stored in its own primitive array:
+ * <ul>
+ *     <li>{@code double[]} unit price and {@code int[]} quantity</li>
+ *     <li>{@code int[]} epoch day instead of a {@link LocalDate} per row</li>
+ *     <li>{@code int[]} dictionary codes for region, product, product name,
+ *         category and salesperson (see {@link SalesDictionary})</li>
+ * </ul>
+ * Only the sale ID, which is unique per row, is kept as a String.</p>
+ *
+ * <p>Aggregations walk one or two arrays sequentially, which is far more
+ * cache friendly than chasing a {@link Sale} reference and its fields per
+ * row, and lets the JIT vectorise the simple loops.</p>
+ *
+ * <p>The table is append-only and not thread-safe.</p>
+ */
+public class SalesTable {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+
+    private final SalesDictionary dictionary;
+    private final Map<Dimension, int[]> codes = new EnumMap<>(Dimension.class);
+
+    private String[] saleIds;
+    private double[] unitPrices;
+    private int[] quantities;
+    private int[] epochDays;
+    private int size;
+
+    private int minEpochDay = Integer.MAX_VALUE;
+    private int maxEpochDay = Integer.MIN_VALUE;
+
+    /**
+     * Creates an empty table with its own dictionary.
+     */
+    public SalesTable() {
+        this(new SalesDictionary(), INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table that encodes its text columns with
+     * {@code dictionary}. Sales parsed with the same dictionary are added
+     * by their stored codes, without hashing any String.
+     */
+    public SalesTable(SalesDictionary dictionary) {
+        this(dictionary, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty table sized for {@code expectedRows} rows.
+     */
+    public SalesTable(SalesDictionary dictionary, int expectedRows) {
+        int capacity = Math.max(1, expectedRows);
+        this.dictionary = dictionary;
+        saleIds = new String[capacity];
+        unitPrices = new double[capacity];
+        quantities = new int[capacity];
+        epochDays = new int[capacity];
+        for (Dimension dim : DIMENSIONS) {
+            codes.put(dim, new int[capacity]);
+        }
+    }
+
+    /**
+     * Builds a table holding every sale of {@code sales}, in list order.
+     */
+    public static SalesTable from(List<Sale> sales) {
+        SalesTable table = new SalesTable(new SalesDictionary(), sales.size());
+        sales.forEach(table::add);
+        return table;
+    }
+
+    /**
+     * Appends one sale as a new row.
+     */
+    public void add(Sale sale) {
+        if (size == unitPrices.length) {
+            grow();
+        }
+
+        int epochDay = (int) sale.getDate().toEpochDay();
+
+        saleIds[size] = sale.getSaleId();
+        unitPrices[size] = sale.getUnitPrice();
+        quantities[size] = sale.getQuantity();
+        epochDays[size] = epochDay;
+        for (Dimension dim : DIMENSIONS) {
+            codes.get(dim)[size] = dictionary.codeOf(dim, sale);
+        }
+
+        minEpochDay = Math.min(minEpochDay, epochDay);
+        maxEpochDay = Math.max(maxEpochDay, epochDay);
+        size++;
+    }
+
+    private void grow() {
+        int capacity = unitPrices.length * 2;
+        saleIds = Arrays.copyOf(saleIds, capacity);
+        unitPrices = Arrays.copyOf(unitPrices, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        epochDays = Arrays.copyOf(epochDays, capacity);
+        codes.replaceAll((dim, column) -> Arrays.copyOf(column, capacity));
+    }
+
+    /**
+     * Number of rows in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Revenue of one row: unitPrice × quantity.
+     */
+    public double revenue(int row) {
+        return unitPrices[row] * quantities[row];
+    }
+
+    /**
+     * Materialises one row back into a {@link Sale}.
+     */
+    public Sale getSale(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+        return dictionary.newSale(
+                saleIds[row],
+                LocalDate.ofEpochDay(epochDays[row]),
+                codes.get(Dimension.PRODUCT)[row],
+                codes.get(Dimension.PRODUCT_NAME)[row],
+                codes.get(Dimension.CATEGORY)[row],
+                unitPrices[row],
+                quantities[row],
+                codes.get(Dimension.REGION)[row],
+                codes.get(Dimension.SALESPERSON)[row]
+        );
+    }
+
+    /**
+     * Dictionary used to encode the given column. A shared dictionary may
+     * hold values that never occur in this table.
+     */
+    public StringDictionary dictionary(Dimension dim) {
+        return dictionary.get(dim);
+    }
+
+    /**
+     * Dictionary used to encode all text columns.
+     */
+    public SalesDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /*
+     * Column accessors. They expose the backing arrays so that scans run
+     * as plain array loops; only indexes below size() are valid and the
+     * arrays must not be modified.
+     */
+
+    public int[] codes(Dimension dim) {
+        return codes.get(dim);
+    }
+
+    public double[] unitPrices() {
+        return unitPrices;
+    }
+
+    public int[] quantities() {
+        return quantities;
+    }
+
+    public int[] epochDays() {
+        return epochDays;
+    }
+
+    /**
+     * Smallest epoch day in the table; only meaningful when the table is not empty.
+     */
+    public int minEpochDay() {
+        return minEpochDay;
+    }
+
+    /**
+     * Largest epoch day in the table; only meaningful when the table is not empty.
+     */
+    public int maxEpochDay() {
+        return maxEpochDay;
+    }
+}
@@ -0,0 +1,225 @@
+package org.intuit.analysis.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Dictionary that maps each distinct string to a dense int code and to a
+ * single canonical {@code String} instance.
+ *
+ * <p>Codes are assigned in first-seen order starting at 0, so they can be
+ * used directly as array indexes. Low-cardinality columns such as region
+ * or category then cost one {@code int} per row instead of one
+ * {@code String} reference, and every row that carries the value shares
+ * the same instance.</p>
+ *
+ * <p>Values can be looked up by {@code String}, by a range of a
+ * {@link CharSequence} or by a range of UTF-8 bytes. The range lookups do
+ * not allocate when the value is already known, which is the common case
+ * during ingestion.</p>
+ *
+ * <p>The dictionary is thread-safe. Lookups of known values are lock-free;
+ * only the first occurrence of a new value takes a lock.</p>
+ */
+public class StringDictionary {
+
+    /**
+     * Immutable hash table slot. Final fields make it safe to read from a
+     * table reference obtained without synchronization.
+     */
+    private static final class Entry {
+        final String value;
+        final int hash;
+        final int code;
+
+        Entry(String value, int hash, int code) {
+            this.value = value;
+            this.hash = hash;
+            this.code = code;
+        }
+    }
+
+    // Open-addressing table, power-of-two length, kept at most half full
+    private volatile Entry[] table = new Entry[32];
+
+    private volatile String[] values = new String[16];
+    private volatile int size;
+
+    /**
+     * Returns the code for {@code value}, assigning a new one if the value
+     * has not been seen before.
+     */
+    public int encode(String value) {
+        int hash = value.hashCode();
+        Entry[] t = table;
+        int mask = t.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Entry e = t[i];
+            if (e == null) {
+                return insert(value, hash);
+            }
+            if (e.hash == hash && (e.value == value || e.value.equals(value))) {
+                return e.code;
+            }
+        }
+    }
+
+    /**
+     * Returns the code for the characters {@code chars[start, end)}.
+     * Nothing is allocated when the value is already in the dictionary.
+     */
+    public int encode(CharSequence chars, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars.charAt(i);   // same hash as String.hashCode()
+        }
+        Entry[] t = table;
+        int mask = t.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Entry e = t[i];
+            if (e == null) {
+                return insert(chars.subSequence(start, end).toString(), hash);
+            }
+            if (e.hash == hash && contentEquals(e.value, chars, start, end)) {
+                return e.code;
+            }
+        }
+    }
+
+    /**
+     * Returns the code for the UTF-8 bytes {@code bytes[start, end)}
+     * (absolute indexes). Nothing is allocated when the bytes are ASCII and
+     * the value is already in the dictionary.
+     */
+    public int encode(ByteBuffer bytes, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            byte b = bytes.get(i);
+            if (b < 0) {
+                return encode(decodeUtf8(bytes, start, end));   // non-ASCII: hash the decoded chars
+            }
+            hash = 31 * hash + b;
+        }
+        Entry[] t = table;
+        int mask = t.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Entry e = t[i];
+            if (e == null) {
+                return insert(decodeUtf8(bytes, start, end), hash);
+            }
+            if (e.hash == hash && contentEquals(e.value, bytes, start, end)) {
+                return e.code;
+            }
+        }
+    }
+
+    /**
+     * Returns the canonical instance equal to {@code value}.
+     */
+    public String canonical(String value) {
+        return decode(encode(value));
+    }
+
+    /**
+     * Returns the string for a code previously returned by one of the
+     * {@code encode} methods.
+     */
+    public String decode(int code) {
+        if (code >= 0 && code < size) {
+            return values[code];
+        }
+        // The code may come from a thread that has not yet published the
+        // new size to us; the lock gives us its writes
+        synchronized (this) {
+            if (code < 0 || code >= size) {
+                throw new IndexOutOfBoundsException("Unknown dictionary code " + code);
+            }
+            return values[code];
+        }
+    }
+
+    /**
+     * Number of distinct values; every code is in {@code [0, size())}.
+     */
+    public int size() {
+        return size;
+    }
+
+    private synchronized int insert(String value, int hash) {
+        Entry[] t = table;
+        int mask = t.length - 1;
+        int slot = hash & mask;
+        for (Entry e = t[slot]; e != null; e = t[slot]) {
+            if (e.hash == hash && e.value.equals(value)) {
+                return e.code;   // added by another thread since our lock-free probe
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int code = size;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, code * 2);
+        }
+        values[code] = value;
+        size = code + 1;
+
+        Entry entry = new Entry(value, hash, code);
+        if ((code + 1) * 2 > t.length) {
+            table = rehash(t, entry);
+        } else {
+            t[slot] = entry;
+        }
+        return code;
+    }
+
+    private static Entry[] rehash(Entry[] old, Entry added) {
+        Entry[] t = new Entry[old.length * 2];
+        int mask = t.length - 1;
+        for (Entry e : old) {
+            if (e != null) {
+                place(t, mask, e);
+            }
+        }
+        place(t, mask, added);
+        return t;
+    }
+
+    private static void place(Entry[] t, int mask, Entry e) {
+        int i = e.hash & mask;
+        while (t[i] != null) {
+            i = (i + 1) & mask;
+        }
+        t[i] = e;
+    }
+
+    private static boolean contentEquals(String value, CharSequence chars, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != chars.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contentEquals(String value, ByteBuffer bytes, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != bytes.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String decodeUtf8(ByteBuffer bytes, int start, int end) {
+        byte[] copy = new byte[end - start];
+        bytes.get(start, copy);
+        return new String(copy, StandardCharsets.UTF_8);
+    }
+}
@@ -1,11 +1,15 @@
 package org.intuit.analysis.reader;
 
 import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+import org.intuit.analysis.model.SalesTable;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -55,4 +59,198 @@ public class CsvReader {
                     .collect(Collectors.toList());          // Collect results into a List
         }
     }
+
+    /**
+     * Reads a CSV file like {@link #readSales(String)}, encoding region,
+     * product, product name, category and salesperson with {@code dictionary}.
+     *
+     * <p>Every sale then shares one String instance per distinct value and
+     * carries its int codes, which {@link org.intuit.analysis.service.SalesAggregator}
+     * and {@link SalesTable} use instead of hashing Strings when given the
+     * same dictionary.</p>
+     *
+     * @param filePath   Fully qualified path to the CSV file
+     * @param dictionary Dictionary shared by all rows
+     * @return List of dictionary-encoded Sale objects, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Sale> readSales(String filePath, SalesDictionary dictionary) throws IOException {
+
+        Objects.requireNonNull(dictionary, "dictionary");
+
+        try (Stream<String> lines = Files.lines(Path.of(filePath))) {
+
+            return lines
+                    .skip(1)
+                    .map(String::trim)
+                    .filter(trim -> !trim.isEmpty())
+                    .map(line -> Sale.fromCsv(line, dictionary))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Parses a CSV file row by row and hands each sale to {@code action}
+     * without collecting them.
+     *
+     * <p>Rows follow the same header, trimming and blank-line rules as
+     * {@link #readSales(String)}. Only one line is held at a time, so the
+     * file may be larger than the heap when the consumer does not keep the
+     * sales, e.g. a {@link org.intuit.analysis.service.StreamingSalesAnalyzer}.</p>
+     *
+     * @param filePath Fully qualified path to the CSV file
+     * @param action   receives every sale in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static void forEachSale(String filePath, Consumer<? super Sale> action) throws IOException {
+
+        try (Stream<String> lines = Files.lines(Path.of(filePath))) {
+            lines.skip(1)
+                    .map(String::trim)
+                    .filter(trim -> !trim.isEmpty())
+                    .map(Sale::fromCsv)
+                    .forEachOrdered(action);
+        }
+    }
+
+    /**
+     * Streams a CSV file like {@link #forEachSale(String, Consumer)},
+     * encoding text columns with {@code dictionary}.
+     *
+     * @see #readSales(String, SalesDictionary)
+     */
+    public static void forEachSale(String filePath, SalesDictionary dictionary,
+                                   Consumer<? super Sale> action) throws IOException {
+
+        Objects.requireNonNull(dictionary, "dictionary");
+        try (Stream<String> lines = Files.lines(Path.of(filePath))) {
+            lines.skip(1)
+                    .map(String::trim)
+                    .filter(trim -> !trim.isEmpty())
+                    .map(line -> Sale.fromCsv(line, dictionary))
+                    .forEachOrdered(action);
+        }
+    }
+
+    /**
+     * Reads a CSV file in parallel using one worker per available processor.
+     *
+     * @see #readSalesParallel(String, int)
+     */
+    public static List<Sale> readSalesParallel(String filePath) throws IOException {
+        return readSalesParallel(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Reads a CSV file in parallel and converts all rows into Sale objects.
+     *
+     * <p>The file is split into byte ranges aligned to line boundaries and
+     * each range is parsed on a {@link java.util.concurrent.ForkJoinPool}
+     * with the given parallelism. The result is identical to
+     * {@link #readSales(String)}: the header is skipped, blank lines are
+     * ignored and rows keep their file order.</p>
+     *
+     * @param filePath    Fully qualified path to the CSV file
+     * @param parallelism Number of worker threads (>= 1)
+     * @return List of Sale objects parsed from the CSV, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Sale> readSalesParallel(String filePath, int parallelism) throws IOException {
+        return readParallel(filePath, parallelism, null);
+    }
+
+    /**
+     * Reads a CSV file in parallel, encoding text columns with
+     * {@code dictionary}. The dictionary is thread-safe and shared by all
+     * workers.
+     *
+     * @see #readSalesParallel(String, int)
+     * @see #readSales(String, SalesDictionary)
+     */
+    public static List<Sale> readSalesParallel(String filePath, int parallelism,
+                                               SalesDictionary dictionary) throws IOException {
+        return readParallel(filePath, parallelism, Objects.requireNonNull(dictionary, "dictionary"));
+    }
+
+    private static List<Sale> readParallel(String filePath, int parallelism,
+                                           SalesDictionary dictionary) throws IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1 but was " + parallelism);
+        }
+        return ParallelCsvReader.read(Path.of(filePath), parallelism, dictionary);
+    }
+
+    /**
+     * Reads a CSV file through a memory-mapped, zero-copy ingestion path.
+     *
+     * @see #readSalesMapped(String, int)
+     */
+    public static List<Sale> readSalesMapped(String filePath) throws IOException {
+        return readSalesMapped(filePath, MappedCsvReader.DEFAULT_WINDOW_BYTES);
+    }
+
+    /**
+     * Reads a CSV file by memory-mapping it with {@link java.nio.channels.FileChannel#map}.
+     *
+     * <p>Fields are parsed directly from the mapped bytes instead of building
+     * a {@code String} per line and per column, which removes most of the
+     * allocation on the ingest path. The file is mapped in windows of
+     * {@code windowBytes}, so files larger than 2 GB are supported. The
+     * result is identical to {@link #readSales(String)}.</p>
+     *
+     * @param filePath    Fully qualified path to the CSV file
+     * @param windowBytes Size of each mapped window (>= 1); grown automatically
+     *                    if a single line does not fit
+     * @return List of Sale objects parsed from the CSV, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static List<Sale> readSalesMapped(String filePath, int windowBytes) throws IOException {
+        return readMapped(filePath, windowBytes, null);
+    }
+
+    /**
+     * Reads a CSV file through the memory-mapped path, looking up text
+     * columns in {@code dictionary} straight from the mapped bytes.
+     *
+     * @see #readSalesMapped(String, int)
+     * @see #readSales(String, SalesDictionary)
+     */
+    public static List<Sale> readSalesMapped(String filePath, int windowBytes,
+                                             SalesDictionary dictionary) throws IOException {
+        return readMapped(filePath, windowBytes, Objects.requireNonNull(dictionary, "dictionary"));
+    }
+
+    private static List<Sale> readMapped(String filePath, int windowBytes,
+                                         SalesDictionary dictionary) throws IOException {
+        if (windowBytes < 1) {
+            throw new IllegalArgumentException("windowBytes must be >= 1 but was " + windowBytes);
+        }
+        return MappedCsvReader.read(Path.of(filePath), windowBytes, dictionary);
+    }
+
+    /**
+     * Reads a CSV file straight into a columnar {@link SalesTable}.
+     *
+     * <p>Rows go through the same header, trimming and blank-line rules as
+     * {@link #readSales(String)}, but each parsed sale is appended to the
+     * table immediately instead of being kept in a list. Text columns are
+     * encoded with the table's dictionary while parsing, so the table adds
+     * them by code.</p>
+     *
+     * @param filePath Fully qualified path to the CSV file
+     * @return table holding every row of the CSV, in file order
+     * @throws IOException if the file cannot be read
+     */
+    public static SalesTable readSalesTable(String filePath) throws IOException {
+
+        SalesTable table = new SalesTable();
+        try (Stream<String> lines = Files.lines(Path.of(filePath))) {
+            lines.skip(1)
+                    .map(String::trim)
+                    .filter(trim -> !trim.isEmpty())
+                    .map(line -> Sale.fromCsv(line, table.getDictionary()))
+                    .forEachOrdered(table::add);
+        }
+        return table;
+    }
 }
@@ -0,0 +1,319 @@
+package org.intuit.analysis.reader;
+
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.model.FieldParser;
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Memory-mapped implementation behind {@link CsvReader#readSalesMapped(String, int)}.
+ *
+ * <p>The file is mapped as a series of read-only windows, so files larger
+ * than 2 GB are supported. Each window ends just after its last line
+ * terminator; the partial line that remains is picked up by the next
+ * window.</p>
+ *
+ * <p>Rows are parsed straight from the mapped bytes. No {@code String} is
+ * created for the line or for the date and numeric fields; only the text
+ * columns that {@link Sale} keeps are decoded. The date, price and
+ * quantity go through the same {@link FieldParser} as
+ * {@link Sale#fromCsv(String)}, and any row the byte parser is not certain
+ * about is handed to {@code Sale.fromCsv} itself, so accepted values and
+ * rejected rows are exactly the same as in {@link CsvReader#readSales(String)}.</p>
+ *
+ * <p>With a {@link SalesDictionary} the text columns are looked up straight
+ * from the mapped bytes, so a known region, product or salesperson costs
+ * no allocation at all.</p>
+ *
+ * <p>Lines holding non-ASCII bytes are checked with a reporting UTF-8
+ * decoder, so malformed input fails the read with a
+ * {@link CharacterCodingException} instead of being replaced.</p>
+ *
+ * <p>An instance holds reusable scratch buffers and is not thread-safe.</p>
+ */
+class MappedCsvReader {
+
+    static final int DEFAULT_WINDOW_BYTES = 256 * 1024 * 1024;
+
+    private static final int MAX_WINDOW_BYTES = Integer.MAX_VALUE - 8;
+
+    private static final int FIELDS = 9;
+
+    private final SalesDictionary dictionary;   // null: plain Strings per row
+    private final List<Sale> sales = new ArrayList<>();
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private byte[] scratch = new byte[128];
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();   // REPORT by default
+    private CharBuffer utf8Check = CharBuffer.allocate(128);
+
+    private MappedCsvReader(SalesDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    static List<Sale> read(Path path, int windowBytes, SalesDictionary dictionary) throws IOException {
+        return new MappedCsvReader(dictionary).readAll(path, windowBytes);
+    }
+
+    private List<Sale> readAll(Path path, int windowBytes) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            long pos = 0;
+            int window = windowBytes;
+            boolean headerPending = true;
+
+            while (pos < size) {
+
+                int len = (int) Math.min(window, size - pos);
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+                boolean lastWindow = pos + len == size;
+
+                // Only parse up to the last complete line in this window
+                int limit = lastWindow ? len : lastLineEnd(buf, len) + 1;
+                if (limit == 0) {
+                    if (window >= MAX_WINDOW_BYTES) {
+                        throw new IOException("Line longer than " + MAX_WINDOW_BYTES + " bytes at offset " + pos);
+                    }
+                    window = (int) Math.min((long) window * 2, MAX_WINDOW_BYTES);
+                    continue;
+                }
+
+                int from = 0;
+                if (headerPending) {
+                    from = skipHeader(buf, limit);
+                    checkUtf8(buf, 0, from);
+                    headerPending = false;
+                }
+
+                parseLines(buf, from, limit);
+                pos += limit;
+            }
+        }
+        return sales;
+    }
+
+    /**
+     * Returns the index just past the header line, treating {@code \n},
+     * {@code \r} and {@code \r\n} as terminators like {@link java.nio.file.Files#lines}.
+     */
+    private static int skipHeader(ByteBuffer buf, int limit) {
+        for (int i = 0; i < limit; i++) {
+            byte b = buf.get(i);
+            if (b == '\n') {
+                return i + 1;
+            }
+            if (b == '\r') {
+                return (i + 1 < limit && buf.get(i + 1) == '\n') ? i + 2 : i + 1;
+            }
+        }
+        return limit;   // header only, no data rows
+    }
+
+    /**
+     * Index of the last {@code '\n'} or {@code '\r'} in the window. A
+     * {@code \r\n} pair split across two windows only yields an extra blank
+     * line, which is skipped anyway.
+     */
+    private static int lastLineEnd(ByteBuffer buf, int len) {
+        for (int i = len - 1; i >= 0; i--) {
+            byte b = buf.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void parseLines(ByteBuffer buf, int from, int limit) throws CharacterCodingException {
+        int start = from;
+        while (start < limit) {
+            int end = start;
+            while (end < limit) {
+                byte b = buf.get(end);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                end++;
+            }
+            parseLine(buf, start, end);
+            start = end + 1;
+        }
+    }
+
+    /**
+     * Parses one raw line. Blank lines are skipped, matching the
+     * trim-and-filter step of {@link CsvReader#readSales(String)}.
+     */
+    private void parseLine(ByteBuffer buf, int start, int end) throws CharacterCodingException {
+
+        while (start < end && isWhitespace(buf.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buf.get(end - 1))) {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+        checkUtf8(buf, start, end);
+
+        Sale sale = tryParse(buf, start, end);
+        if (sale == null) {
+            String line = decode(buf, start, end);
+            sale = dictionary != null ? Sale.fromCsv(line, dictionary) : Sale.fromCsv(line);
+        }
+        sales.add(sale);
+    }
+
+    /**
+     * Byte-level fast path. Returns {@code null} whenever the row is not a
+     * plain, well-formed record so that {@link Sale#fromCsv} can decide.
+     */
+    private Sale tryParse(ByteBuffer buf, int start, int end) {
+
+        // Locate the first eight fields by their terminating comma
+        int field = 0;
+        int fieldFrom = start;
+        for (int i = start; i < end && field < FIELDS - 1; i++) {
+            if (buf.get(i) == ',') {
+                fieldStart[field] = fieldFrom;
+                fieldEnd[field] = i;
+                field++;
+                fieldFrom = i + 1;
+            }
+        }
+        if (field < FIELDS - 1) {
+            return null;
+        }
+
+        // The ninth field runs to the next comma; extra columns are ignored like split(",")
+        int last = fieldFrom;
+        while (last < end && buf.get(last) != ',') {
+            last++;
+        }
+        if (last == fieldFrom) {
+            return null;   // split(",") drops trailing empty fields; let the slow path decide
+        }
+        fieldStart[FIELDS - 1] = fieldFrom;
+        fieldEnd[FIELDS - 1] = last;
+
+        for (int f = 0; f < FIELDS; f++) {
+            int s = fieldStart[f];
+            int e = fieldEnd[f];
+            while (s < e && isWhitespace(buf.get(s))) {
+                s++;
+            }
+            while (e > s && isWhitespace(buf.get(e - 1))) {
+                e--;
+            }
+            fieldStart[f] = s;
+            fieldEnd[f] = e;
+        }
+
+        FieldParser.CharSource bytes = buf::get;
+        LocalDate date = FieldParser.parseDate(bytes, fieldStart[1], fieldEnd[1]);
+        double unitPrice = FieldParser.parseDouble(bytes, fieldStart[5], fieldEnd[5]);
+        long quantity = FieldParser.parseInt(bytes, fieldStart[6], fieldEnd[6]);
+        if (date == null || Double.isNaN(unitPrice) || quantity == Long.MIN_VALUE) {
+            return null;
+        }
+
+        if (dictionary != null) {
+            return dictionary.newSale(
+                    decode(buf, fieldStart[0], fieldEnd[0]),    // saleId
+                    date,
+                    code(Dimension.PRODUCT, buf, 2),
+                    code(Dimension.PRODUCT_NAME, buf, 3),
+                    code(Dimension.CATEGORY, buf, 4),
+                    unitPrice,
+                    (int) quantity,
+                    code(Dimension.REGION, buf, 7),
+                    code(Dimension.SALESPERSON, buf, 8)
+            );
+        }
+
+        return new Sale(
+                decode(buf, fieldStart[0], fieldEnd[0]),    // saleId
+                date,
+                decode(buf, fieldStart[2], fieldEnd[2]),    // productId
+                decode(buf, fieldStart[3], fieldEnd[3]),    // productName
+                decode(buf, fieldStart[4], fieldEnd[4]),    // category
+                unitPrice,
+                (int) quantity,
+                decode(buf, fieldStart[7], fieldEnd[7]),    // region
+                decode(buf, fieldStart[8], fieldEnd[8])     // salesperson
+        );
+    }
+
+    private int code(Dimension dim, ByteBuffer buf, int field) {
+        return dictionary.get(dim).encode(buf, fieldStart[field], fieldEnd[field]);
+    }
+
+    /**
+     * Same whitespace rule as {@link String#trim()}: any char up to U+0020.
+     * Bytes of multi-byte UTF-8 sequences are never whitespace.
+     */
+    private static boolean isWhitespace(byte b) {
+        return (b & 0xFF) <= ' ';
+    }
+
+    /**
+     * Rejects malformed UTF-8 in {@code [from, to)}. ASCII-only ranges, the
+     * common case, are accepted after a single scan.
+     */
+    private void checkUtf8(ByteBuffer buf, int from, int to) throws CharacterCodingException {
+        int i = from;
+        while (i < to && buf.get(i) >= 0) {
+            i++;
+        }
+        if (i == to) {
+            return;
+        }
+        int len = to - from;
+        if (utf8Check.capacity() < len) {
+            utf8Check = CharBuffer.allocate(Math.max(len, utf8Check.capacity() * 2));
+        }
+        utf8Check.clear();
+        utf8.reset();
+        CoderResult result = utf8.decode(buf.slice(from, len), utf8Check, true);
+        if (result.isError()) {
+            result.throwException();
+        }
+        result = utf8.flush(utf8Check);
+        if (result.isError()) {
+            result.throwException();
+        }
+    }
+
+    /**
+     * Decodes bytes already accepted by {@link #checkUtf8}.
+     */
+    private String decode(ByteBuffer buf, int from, int to) {
+        int len = to - from;
+        if (len == 0) {
+            return "";
+        }
+        if (scratch.length < len) {
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+        buf.get(from, scratch, 0, len);
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+}
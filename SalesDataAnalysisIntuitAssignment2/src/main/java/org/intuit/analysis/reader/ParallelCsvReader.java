@@ -0,0 +1,257 @@
+package org.intuit.analysis.reader;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join implementation behind {@link CsvReader#readSalesParallel(String, int)}.
+ *
+ * <p>The file body (everything after the header line) is cut into byte
+ * ranges whose boundaries always fall just after a {@code '\n'} or
+ * {@code '\r'}, so every range holds whole lines. Ranges are parsed
+ * independently on a {@link ForkJoinPool} and their results are
+ * concatenated in range order, which preserves the row order of the file.</p>
+ *
+ * <p>Neither byte occurs inside a multi-byte UTF-8 sequence, so cutting on
+ * them is safe for any UTF-8 input. Cutting a {@code \r\n} pair in two
+ * only yields an extra blank line, which is skipped anyway. Ranges are
+ * decoded with a reporting decoder, so malformed UTF-8 fails the read just
+ * like {@link java.nio.file.Files#lines} does instead of being replaced.</p>
+ */
+class ParallelCsvReader {
+
+    /** Ranges smaller than this are not worth a separate task. */
+    private static final int MIN_RANGE_BYTES = 64 * 1024;
+
+    /** Upper bound on a single range so its bytes fit comfortably in one array. */
+    private static final int MAX_RANGE_BYTES = 64 * 1024 * 1024;
+
+    /** Hard limit on a single range: a line longer than this cannot be held in one array. */
+    private static final int MAX_ARRAY_BYTES = Integer.MAX_VALUE - 8;
+
+    /** Ranges per worker, so uneven ranges still balance across the pool. */
+    private static final int RANGES_PER_WORKER = 4;
+
+    private static final int SCAN_BUFFER_BYTES = 8 * 1024;
+
+    private ParallelCsvReader() {
+    }
+
+    /**
+     * @param dictionary dictionary shared by all workers, or {@code null}
+     *                   to keep text columns as plain Strings
+     */
+    static List<Sale> read(Path path, int parallelism, SalesDictionary dictionary) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            long bodyStart = skipHeader(channel, size);
+            long[] bounds = splitPoints(channel, bodyStart, size, parallelism);
+
+            int rangeCount = bounds.length - 1;
+            if (rangeCount == 0) {
+                return new ArrayList<>();
+            }
+
+            List<List<Sale>> parts = new ArrayList<>(rangeCount);
+            for (int i = 0; i < rangeCount; i++) {
+                parts.add(null);
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new RangeTask(channel, dictionary, bounds, parts, 0, rangeCount));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+
+            // Concatenate in range order to keep file row order
+            int total = parts.stream().mapToInt(List::size).sum();
+            List<Sale> sales = new ArrayList<>(total);
+            parts.forEach(sales::addAll);
+            return sales;
+        }
+    }
+
+    /**
+     * Returns the offset of the first byte after the header line, treating
+     * {@code \n}, {@code \r} and {@code \r\n} as terminators like
+     * {@link java.nio.file.Files#lines} does.
+     */
+    private static long skipHeader(FileChannel channel, long size) throws IOException {
+        long eol = indexOfLineEnd(channel, 0, size);
+        if (eol < 0) {
+            return size;   // header only, no data rows
+        }
+        if (readByte(channel, eol) == '\r' && eol + 1 < size && readByte(channel, eol + 1) == '\n') {
+            return eol + 2;
+        }
+        return eol + 1;
+    }
+
+    /**
+     * Computes range boundaries over {@code [start, size)}. Every inner
+     * boundary sits just after a {@code '\n'} or {@code '\r'}.
+     *
+     * @throws IOException if a single line is too long to fit in one range
+     */
+    private static long[] splitPoints(FileChannel channel, long start, long size, int parallelism)
+            throws IOException {
+
+        long body = size - start;
+        long target = body / ((long) parallelism * RANGES_PER_WORKER);
+        long rangeBytes = Math.min(MAX_RANGE_BYTES, Math.max(MIN_RANGE_BYTES, target));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+
+        long pos = start;
+        while (size - pos > rangeBytes) {
+            long lineEnd = indexOfLineEnd(channel, pos + rangeBytes, size);
+            if (lineEnd < 0) {
+                break;   // last line runs to end of file
+            }
+            pos = lineEnd + 1;
+            bounds.add(pos);
+        }
+        if (pos < size) {
+            bounds.add(size);
+        }
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+            if (i > 0 && result[i] - result[i - 1] > MAX_ARRAY_BYTES) {
+                throw new IOException("Line longer than " + MAX_ARRAY_BYTES + " bytes at offset " + result[i - 1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the first {@code '\n'} or {@code '\r'} at or after {@code from}.
+     *
+     * @return offset of the terminator, or -1 if there is none
+     */
+    private static long indexOfLineEnd(FileChannel channel, long from, long size)
+            throws IOException {
+
+        ByteBuffer buf = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long pos = from;
+        while (pos < size) {
+            buf.clear();
+            int n = channel.read(buf, pos);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                byte b = buf.get(i);
+                if (b == '\n' || b == '\r') {
+                    return pos + i;
+                }
+            }
+            pos += n;
+        }
+        return -1;
+    }
+
+    private static byte readByte(FileChannel channel, long pos) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        channel.read(one, pos);
+        return one.get(0);
+    }
+
+    /**
+     * Reads and parses the bytes of one range with the same line rules as
+     * {@link CsvReader#readSales(String)}.
+     */
+    private static List<Sale> parseRange(FileChannel channel, SalesDictionary dictionary, long from, long to) {
+        byte[] bytes = new byte[(int) (to - from)];
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        try {
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, from + buf.position()) < 0) {
+                    throw new IOException("Unexpected end of file at offset " + (from + buf.position()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<Sale> sales = new ArrayList<>();
+        decode(bytes).lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty())
+                .map(line -> dictionary != null ? Sale.fromCsv(line, dictionary) : Sale.fromCsv(line))
+                .forEach(sales::add);
+        return sales;
+    }
+
+    /**
+     * Decodes strict UTF-8: malformed or unmappable input is reported as a
+     * {@link CharacterCodingException} instead of being replaced.
+     */
+    private static String decode(byte[] bytes) {
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();   // REPORT by default
+        try {
+            CharBuffer chars = decoder.decode(ByteBuffer.wrap(bytes));
+            return chars.toString();
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits the range list in halves until a single range is left, then parses it.
+     */
+    private static class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final SalesDictionary dictionary;
+        private final long[] bounds;
+        private final List<List<Sale>> parts;
+        private final int lo;
+        private final int hi;
+
+        RangeTask(FileChannel channel, SalesDictionary dictionary, long[] bounds,
+                  List<List<Sale>> parts, int lo, int hi) {
+            this.channel = channel;
+            this.dictionary = dictionary;
+            this.bounds = bounds;
+            this.parts = parts;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1) {
+                parts.set(lo, parseRange(channel, dictionary, bounds[lo], bounds[lo + 1]));
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeTask(channel, dictionary, bounds, parts, lo, mid),
+                    new RangeTask(channel, dictionary, bounds, parts, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.intuit.analysis.service;
+
+/**
+ * Kahan-compensated summation, as done by {@link java.util.stream.DoubleStream#sum()}
+ * and {@link java.util.stream.Collectors#summingDouble}.
+ *
+ * <p>A plain {@code +=} over a million prices of 0.1 drifts in the sixth
+ * decimal; the compensation term carries the low-order bits each addition
+ * loses, so long sums stay what the stream-based analyzer returned. Once a
+ * sum overflows to infinity it continues as a plain sum, like the JDK
+ * collectors.</p>
+ *
+ * <p>An instance holds one sum. The static methods update slot {@code i} of
+ * two parallel arrays, for {@link IntAggregationMap}'s flat columns.</p>
+ */
+final class CompensatedSum {
+
+    private final double[] sum = new double[1];
+    private final double[] error = new double[1];
+
+    void add(double value) {
+        add(sum, error, 0, value);
+    }
+
+    double value() {
+        return value(sum, error, 0);
+    }
+
+    /**
+     * Adds {@code value} to {@code sums[i]}, keeping the lost low-order part in {@code errors[i]}.
+     */
+    static void add(double[] sums, double[] errors, int i, double value) {
+        double s = sums[i];
+        double y = value - errors[i];
+        double t = s + y;
+        if (Double.isFinite(t)) {
+            errors[i] = (t - s) - y;
+            sums[i] = t;
+        } else {
+            errors[i] = 0;
+            sums[i] = s + value;
+        }
+    }
+
+    static double value(double[] sums, double[] errors, int i) {
+        return sums[i] - errors[i];
+    }
+}
@@ -0,0 +1,215 @@
+package org.intuit.analysis.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Open-addressing map from an {@code int} key to a revenue sum, a unit sum
+ * and a row count.
+ *
+ * <p>All state lives in flat primitive arrays: the hash table only holds
+ * slot numbers, and each slot's key, revenue, units and count sit at the
+ * same index of their own array. Adding a sale is one probe and a few
+ * primitive updates, with no boxing and no per-key holder object. Revenue
+ * is summed with a {@link CompensatedSum} term per slot, so it matches
+ * {@code Collectors.summingDouble}.</p>
+ *
+ * <p>Group-by keys are encoded as ints: dictionary codes for text columns,
+ * {@code year * 12 + month - 1} for months and the epoch day for dates.
+ * The {@code to...Map} adapters decode them back into the {@link Map}
+ * types {@link SalesReport} returns.</p>
+ *
+ * <p>Slots keep first-insertion order. Not thread-safe.</p>
+ */
+public class IntAggregationMap {
+
+    private static final int INITIAL_SLOTS = 16;
+
+    private int[] table;        // slot + 1 per bucket, 0 when empty
+    private int[] keys;
+    private double[] revenue;
+    private double[] revenueError;   // compensation term of each revenue sum
+    private long[] units;
+    private long[] counts;
+    private int size;
+
+    public IntAggregationMap() {
+        this(INITIAL_SLOTS);
+    }
+
+    /**
+     * Creates a map sized for {@code expectedKeys} keys without rehashing.
+     */
+    public IntAggregationMap(int expectedKeys) {
+        int slots = Math.max(INITIAL_SLOTS, expectedKeys);
+        keys = new int[slots];
+        revenue = new double[slots];
+        revenueError = new double[slots];
+        units = new long[slots];
+        counts = new long[slots];
+        table = new int[tableSizeFor(slots)];
+    }
+
+    /**
+     * Adds one row to {@code key}'s totals.
+     *
+     * @return slot of the key
+     */
+    public int add(int key, double saleRevenue, long quantity) {
+        int slot = slotFor(key);
+        CompensatedSum.add(revenue, revenueError, slot, saleRevenue);
+        units[slot] += quantity;
+        counts[slot]++;
+        return slot;
+    }
+
+    /**
+     * Adds already aggregated totals to {@code key}, e.g. when merging two maps.
+     */
+    public void add(int key, double revenueSum, long unitSum, long count) {
+        int slot = slotFor(key);
+        CompensatedSum.add(revenue, revenueError, slot, revenueSum);
+        units[slot] += unitSum;
+        counts[slot] += count;
+    }
+
+    /**
+     * Adds every key of {@code other} to this map.
+     */
+    public void addAll(IntAggregationMap other) {
+        for (int slot = 0; slot < other.size; slot++) {
+            add(other.keys[slot], other.revenueAt(slot), other.units[slot], other.counts[slot]);
+        }
+    }
+
+    /**
+     * Slot of {@code key}, or -1 if the key has no rows.
+     */
+    public int indexOf(int key) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    /**
+     * Number of distinct keys. Slots run from 0 to {@code size() - 1}.
+     */
+    public int size() {
+        return size;
+    }
+
+    public int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    public double revenueAt(int slot) {
+        return CompensatedSum.value(revenue, revenueError, slot);
+    }
+
+    public long unitsAt(int slot) {
+        return units[slot];
+    }
+
+    public long countAt(int slot) {
+        return counts[slot];
+    }
+
+    /*
+     * Adapters to boxed maps, for callers that need the Map types
+     * returned by SalesReport. Each call builds a new unmodifiable map.
+     */
+
+    public <K> Map<K, Double> toRevenueMap(IntFunction<K> keyDecoder) {
+        Map<K, Double> result = newMap();
+        for (int slot = 0; slot < size; slot++) {
+            result.put(keyDecoder.apply(keys[slot]), revenueAt(slot));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    public <K> Map<K, Long> toUnitsMap(IntFunction<K> keyDecoder) {
+        return toLongMap(keyDecoder, units);
+    }
+
+    public <K> Map<K, Long> toCountMap(IntFunction<K> keyDecoder) {
+        return toLongMap(keyDecoder, counts);
+    }
+
+    private <K> Map<K, Long> toLongMap(IntFunction<K> keyDecoder, long[] values) {
+        Map<K, Long> result = newMap();
+        for (int slot = 0; slot < size; slot++) {
+            result.put(keyDecoder.apply(keys[slot]), values[slot]);
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private <K, V> Map<K, V> newMap() {
+        return new HashMap<>(size * 4 / 3 + 1);
+    }
+
+    private int slotFor(int key) {
+        int mask = table.length - 1;
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return insert(key, i);
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private int insert(int key, int bucket) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            revenue = Arrays.copyOf(revenue, capacity);
+            revenueError = Arrays.copyOf(revenueError, capacity);
+            units = Arrays.copyOf(units, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        int slot = size++;
+        keys[slot] = key;
+
+        // Keep the table at most half full so probe sequences stay short
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        } else {
+            table[bucket] = slot + 1;
+        }
+        return slot;
+    }
+
+    private void rehash(int tableSize) {
+        table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int slot = 0; slot < size; slot++) {
+            int i = hash(keys[slot]) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = slot + 1;
+        }
+    }
+
+    /** Fibonacci hashing: spreads runs of consecutive codes and days over the table. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int slots) {
+        return Integer.highestOneBit(Math.max(2, slots) * 2 - 1) * 2;
+    }
+}
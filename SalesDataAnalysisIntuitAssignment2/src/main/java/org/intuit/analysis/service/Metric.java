@@ -0,0 +1,36 @@
+package org.intuit.analysis.service;
+
+/**
+ * Metrics that can be registered on a {@link SalesAggregator}.
+ *
+ * <p>Each metric describes one family of aggregates that the aggregator
+ * maintains while it walks the sales list. Only registered metrics are
+ * computed, so a report that needs a single group-by does not pay for
+ * the others.</p>
+ */
+public enum Metric {
+
+    /** Total revenue, total units and number of sales. */
+    TOTALS,
+
+    /** Highest and lowest sale by revenue. */
+    EXTREMES,
+
+    /** Revenue and sale count grouped by region. */
+    BY_REGION,
+
+    /** Revenue and units grouped by product ID. */
+    BY_PRODUCT,
+
+    /** Revenue and units grouped by category. */
+    BY_CATEGORY,
+
+    /** Revenue grouped by salesperson. */
+    BY_SALESPERSON,
+
+    /** Revenue and sale count grouped by {@link java.time.YearMonth}. */
+    BY_MONTH,
+
+    /** Revenue grouped by sale date. */
+    BY_DAY
+}
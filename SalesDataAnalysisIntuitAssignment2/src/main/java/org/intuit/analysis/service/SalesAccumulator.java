@@ -0,0 +1,118 @@
+package org.intuit.analysis.service;
+
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Running state of a single aggregation pass.
+ *
+ * <p>Every registered metric is updated from the same {@link #accept(Sale)}
+ * call, so the sales list is traversed exactly once no matter how many
+ * metrics were requested.</p>
+ *
+ * <p>Text columns are grouped by a {@link TextGroupBy}: by
+ * {@link SalesDictionary} code when the caller supplied a dictionary, so
+ * sales parsed with it supply their codes directly and no String is hashed,
+ * otherwise by the String itself. Months and days are keyed in an
+ * {@link IntAggregationMap} by {@link #monthKey} and the epoch day.</p>
+ */
+class SalesAccumulator {
+
+    final Set<Metric> metrics;
+    final double highValueThreshold;   // NaN when high-value sales are not collected
+
+    long acceptedCount;   // every sale, whether or not TOTALS is registered
+
+    long saleCount;
+    final CompensatedSum totalRevenue = new CompensatedSum();
+    long totalUnits;
+
+    Sale highest;
+    Sale lowest;
+
+    final TextGroupBy byRegion;
+    final TextGroupBy byProduct;
+    final TextGroupBy byCategory;
+    final TextGroupBy bySalesperson;
+    final IntAggregationMap byMonth = new IntAggregationMap();
+    final IntAggregationMap byDay = new IntAggregationMap();
+
+    final List<Sale> highValueSales = new ArrayList<>();
+
+    SalesAccumulator(Set<Metric> metrics, SalesDictionary dictionary, double highValueThreshold) {
+        this.metrics = metrics;
+        this.highValueThreshold = highValueThreshold;
+        this.byRegion = new TextGroupBy(Dimension.REGION, Sale::getRegion, dictionary);
+        this.byProduct = new TextGroupBy(Dimension.PRODUCT, Sale::getProductId, dictionary);
+        this.byCategory = new TextGroupBy(Dimension.CATEGORY, Sale::getCategory, dictionary);
+        this.bySalesperson = new TextGroupBy(Dimension.SALESPERSON, Sale::getSalesperson, dictionary);
+    }
+
+    /**
+     * Folds one sale into every registered aggregate.
+     */
+    void accept(Sale sale) {
+
+        acceptedCount++;
+
+        double revenue = sale.revenue();
+        int quantity = sale.getQuantity();
+
+        if (metrics.contains(Metric.TOTALS)) {
+            saleCount++;
+            totalRevenue.add(revenue);
+            totalUnits += quantity;
+        }
+
+        // Ties keep the first sale seen, matching Stream.max/min
+        if (metrics.contains(Metric.EXTREMES)) {
+            if (highest == null || revenue > highest.revenue()) {
+                highest = sale;
+            }
+            if (lowest == null || revenue < lowest.revenue()) {
+                lowest = sale;
+            }
+        }
+
+        if (metrics.contains(Metric.BY_REGION)) {
+            byRegion.add(sale, revenue, quantity);
+        }
+        if (metrics.contains(Metric.BY_PRODUCT)) {
+            byProduct.add(sale, revenue, quantity);
+        }
+        if (metrics.contains(Metric.BY_CATEGORY)) {
+            byCategory.add(sale, revenue, quantity);
+        }
+        if (metrics.contains(Metric.BY_SALESPERSON)) {
+            bySalesperson.add(sale, revenue, quantity);
+        }
+        if (metrics.contains(Metric.BY_MONTH)) {
+            byMonth.add(monthKey(sale.getDate()), revenue, quantity);
+        }
+        if (metrics.contains(Metric.BY_DAY)) {
+            byDay.add((int) sale.getDate().toEpochDay(), revenue, quantity);
+        }
+
+        if (revenue >= highValueThreshold) {   // always false for NaN
+            highValueSales.add(sale);
+        }
+    }
+
+    /**
+     * Months since year 0: {@code year * 12 + month - 1}.
+     */
+    static int monthKey(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    static YearMonth yearMonth(int monthKey) {
+        return YearMonth.of(Math.floorDiv(monthKey, 12), Math.floorMod(monthKey, 12) + 1);
+    }
+}
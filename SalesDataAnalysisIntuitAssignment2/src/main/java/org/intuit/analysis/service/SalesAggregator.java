@@ -0,0 +1,136 @@
+package org.intuit.analysis.service;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Single-pass aggregation engine for sales data.
+ *
+ * <p>Callers register every metric they need up front and then call
+ * {@link #aggregate(List)} once. All registered totals, group-bys,
+ * extremes and top-N rankings are computed in one traversal of the list
+ * and returned together as a {@link SalesReport}.</p>
+ *
+ * <pre>{@code
+ * SalesReport report = new SalesAggregator()
+ *         .register(Metric.TOTALS, Metric.BY_REGION)
+ *         .topProducts(3)
+ *         .aggregate(sales);
+ * }</pre>
+ *
+ * <p>The aggregator only holds configuration, so one instance can be
+ * reused for any number of lists. For input that should not be held in
+ * memory at once, {@link #streaming()} accepts sales as they arrive.</p>
+ *
+ * <p>When the sales were parsed with a {@link SalesDictionary}, pass the
+ * same dictionary to the constructor: text group-bys are then keyed by the
+ * codes stored on each sale. Without one they are keyed by the String
+ * values, one hash lookup per row.</p>
+ */
+public class SalesAggregator {
+
+    private final SalesDictionary dictionary;   // null: group text columns by String
+
+    private final Set<Metric> metrics = EnumSet.noneOf(Metric.class);
+    private double highValueThreshold = Double.NaN;
+    private int topProducts = -1;
+    private int topRegions = -1;
+
+    public SalesAggregator() {
+        this(null);
+    }
+
+    /**
+     * Creates an aggregator that groups text columns by the codes of
+     * {@code dictionary}.
+     */
+    public SalesAggregator(SalesDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Registers one or more metrics to compute.
+     */
+    public SalesAggregator register(Metric... toRegister) {
+        metrics.addAll(Arrays.asList(toRegister));
+        return this;
+    }
+
+    /**
+     * Registers every {@link Metric}.
+     */
+    public SalesAggregator registerAll() {
+        metrics.addAll(EnumSet.allOf(Metric.class));
+        return this;
+    }
+
+    /**
+     * Collects the sales whose revenue is at least {@code threshold}.
+     */
+    public SalesAggregator highValueSales(double threshold) {
+        this.highValueThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * Ranks the top {@code n} products by revenue. Implies {@link Metric#BY_PRODUCT}.
+     */
+    public SalesAggregator topProducts(int n) {
+        this.topProducts = requireNonNegative(n);
+        metrics.add(Metric.BY_PRODUCT);
+        return this;
+    }
+
+    /**
+     * Ranks the top {@code n} regions by revenue. Implies {@link Metric#BY_REGION}.
+     */
+    public SalesAggregator topRegions(int n) {
+        this.topRegions = requireNonNegative(n);
+        metrics.add(Metric.BY_REGION);
+        return this;
+    }
+
+    /**
+     * Computes every registered metric in a single traversal of {@code sales}.
+     *
+     * @param sales list of Sale records
+     * @return report holding all registered aggregates
+     */
+    public SalesReport aggregate(List<Sale> sales) {
+        SalesAccumulator acc = newAccumulator();
+        for (Sale sale : sales) {
+            acc.accept(sale);
+        }
+        return report(acc);
+    }
+
+    /**
+     * Starts an incremental aggregation with the metrics registered so far.
+     * Sales are then fed one at a time or in batches instead of as a list.
+     *
+     * @return a new, empty streaming analyzer
+     */
+    public StreamingSalesAnalyzer streaming() {
+        return new StreamingSalesAnalyzer(newAccumulator(), topProducts, topRegions);
+    }
+
+    SalesAccumulator newAccumulator() {
+        return new SalesAccumulator(EnumSet.copyOf(metrics), dictionary, highValueThreshold);
+    }
+
+    SalesReport report(SalesAccumulator acc) {
+        return new SalesReport(acc, topProducts, topRegions);
+    }
+
+    private static int requireNonNegative(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be >= 0 but was " + n);
+        }
+        return n;
+    }
+}
@@ -1,6 +1,10 @@
 package org.intuit.analysis.service;
 
 import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+import org.intuit.analysis.model.SalesTable;
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.model.StringDictionary;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -19,9 +23,43 @@ import java.util.stream.Collectors;
  *
  * <p>All methods are pure functions — they do not modify input lists and
  * return new immutable results.</p>
+ *
+ * <p>Each method is a thin view over a {@link SalesAggregator} pass that
+ * registers only the metric it needs. Callers that want several metrics
+ * should use {@link SalesAggregator} directly so the list is walked once.</p>
+ *
+ * <p>An analyzer created with the {@link SalesDictionary} the sales were
+ * read with groups text columns by their int codes.</p>
  */
 public class SalesAnalyzer {
 
+    /** Date spans up to this many days always use the dense per-day arrays. */
+    private static final int DENSE_DAY_SPAN = 366;
+
+    /** Above {@link #DENSE_DAY_SPAN}, dense arrays may hold at most this many slots per row. */
+    private static final int DENSE_DAYS_PER_ROW = 4;
+
+    private final SalesDictionary dictionary;   // null: group text columns by String
+
+    public SalesAnalyzer() {
+        this(null);
+    }
+
+    public SalesAnalyzer(SalesDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    private SalesAggregator aggregator() {
+        return new SalesAggregator(dictionary);
+    }
+
+    /**
+     * Runs a single-pass aggregation over {@code sales} for the given metrics.
+     */
+    private SalesReport aggregate(List<Sale> sales, Metric... metrics) {
+        return aggregator().register(metrics).aggregate(sales);
+    }
+
     /**
      * Calculates the total revenue across all sales.
      *
@@ -29,18 +67,14 @@ public class SalesAnalyzer {
      * @return sum of sale.revenue() for all records
      */
     public double getTotalRevenue(List<Sale> sales) {
-        return sales.stream()
-                .mapToDouble(Sale::revenue)   // compute revenue = unitPrice * quantity
-                .sum();                       // sum all revenue values
+        return aggregate(sales, Metric.TOTALS).getTotalRevenue();
     }
 
     /**
      * Calculates the total number of units sold across all sales.
      */
     public long getTotalUnits(List<Sale> sales) {
-        return sales.stream()
-                .mapToLong(Sale::getQuantity) // extract quantity
-                .sum();                       // sum all units
+        return aggregate(sales, Metric.TOTALS).getTotalUnits();
     }
 
     /**
@@ -49,98 +83,74 @@ public class SalesAnalyzer {
      * @return Map<Region, TotalRevenue>
      */
     public Map<String, Double> getRevenueByRegion(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getRegion,               // grouping key
-                Collectors.summingDouble(Sale::revenue) // aggregation
-        ));
+        return aggregate(sales, Metric.BY_REGION).getRevenueByRegion();
     }
 
     /**
      * Computes total revenue for each product.
      */
     public Map<String, Double> getRevenueByProduct(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getProductId,
-                Collectors.summingDouble(Sale::revenue)
-        ));
+        return aggregate(sales, Metric.BY_PRODUCT).getRevenueByProduct();
     }
 
     /**
      * Computes total units sold for each product.
      */
     public Map<String, Long> getUnitsByProduct(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getProductId,
-                Collectors.summingLong(Sale::getQuantity)
-        ));
+        return aggregate(sales, Metric.BY_PRODUCT).getUnitsByProduct();
     }
 
     /**
      * Groups sales by YearMonth and sums revenue for each month.
      */
     public Map<YearMonth, Double> getMonthlyRevenue(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                sale -> YearMonth.from(sale.getDate()), // convert LocalDate → YearMonth
-                Collectors.summingDouble(Sale::revenue)
-        ));
+        return aggregate(sales, Metric.BY_MONTH).getMonthlyRevenue();
     }
 
     /**
      * Computes revenue for each individual date.
      */
     public Map<LocalDate, Double> getDailyRevenue(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getDate,
-                Collectors.summingDouble(Sale::revenue)
-        ));
+        return aggregate(sales, Metric.BY_DAY).getDailyRevenue();
     }
 
     /**
      * Aggregates revenue based on product category.
      */
     public Map<String, Double> getRevenueByCategory(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getCategory,
-                Collectors.summingDouble(Sale::revenue)
-        ));
+        return aggregate(sales, Metric.BY_CATEGORY).getRevenueByCategory();
     }
 
     /**
      * Computes the average revenue contributed by each sale.
      */
     public double getAverageRevenuePerSale(List<Sale> sales) {
-        return sales.stream()
-                .mapToDouble(Sale::revenue)
-                .average()
-                .orElse(0);  // default value for empty list
+        return aggregate(sales, Metric.TOTALS).getAverageRevenuePerSale();
     }
 
     /**
      * Finds the sale entry with the maximum revenue.
      */
     public Optional<Sale> getHighestSale(List<Sale> sales) {
-        return sales.stream()
-                .max(Comparator.comparingDouble(Sale::revenue));
+        return aggregate(sales, Metric.EXTREMES).getHighestSale();
     }
 
     /**
      * Finds the sale entry with the minimum revenue.
      */
     public Optional<Sale> getLowestSale(List<Sale> sales) {
-        return sales.stream()
-                .min(Comparator.comparingDouble(Sale::revenue));
+        return aggregate(sales, Metric.EXTREMES).getLowestSale();
     }
 
     /**
-     * Returns the top N products ranked by total revenue.
+     * Returns the top N products ranked by total revenue. Products with
+     * equal revenue are ordered by ID. Other rankings, such as top
+     * salespeople by units, are available through {@link TopN}.
      *
      * @param n number of top products to return
      */
     public List<Map.Entry<String, Double>> getTopNProductsByRevenue(List<Sale> sales, int n) {
-        return getRevenueByProduct(sales).entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed()) // high → low revenue
-                .limit(n)
-                .collect(Collectors.toList());
+        return aggregator().topProducts(n).aggregate(sales).getTopProducts();
     }
 
 
@@ -148,10 +158,7 @@ public class SalesAnalyzer {
      * Returns the top N regions ranked by revenue.
      */
     public List<Map.Entry<String, Double>> getTopRegions(List<Sale> sales, int n) {
-        return getRevenueByRegion(sales).entrySet().stream()
-                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
-                .limit(n)
-                .collect(Collectors.toList());
+        return aggregator().topRegions(n).aggregate(sales).getTopRegions();
     }
 
 
@@ -159,10 +166,14 @@ public class SalesAnalyzer {
      * Aggregates total revenue generated by each salesperson.
      */
     public Map<String, Double> getRevenueBySalesperson(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getSalesperson,
-                Collectors.summingDouble(Sale::revenue)
-        ));
+        return aggregate(sales, Metric.BY_SALESPERSON).getRevenueBySalesperson();
+    }
+
+    /**
+     * Aggregates total units sold by each salesperson.
+     */
+    public Map<String, Long> getUnitsBySalesperson(List<Sale> sales) {
+        return aggregate(sales, Metric.BY_SALESPERSON).getUnitsBySalesperson();
     }
 
 
@@ -170,19 +181,14 @@ public class SalesAnalyzer {
      * Filters and returns sales whose revenue exceeds a threshold.
      */
     public List<Sale> getHighValueSales(List<Sale> sales, double threshold) {
-        return sales.stream()
-                .filter(s -> s.revenue() >= threshold)
-                .toList();  // Java 16 immutable list
+        return aggregator().highValueSales(threshold).aggregate(sales).getHighValueSales();
     }
 
     /**
      * Counts number of sale entries in each region.
      */
     public Map<String, Long> getSaleCountByRegion(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                Sale::getRegion,
-                Collectors.counting()
-        ));
+        return aggregate(sales, Metric.BY_REGION).getSaleCountByRegion();
     }
 
     /**
@@ -193,25 +199,7 @@ public class SalesAnalyzer {
      * </ul>
      */
     public Map<String, Map<String, Number>> getCategorySummary(List<Sale> sales) {
-
-        Map<String, Double> revenue = getRevenueByCategory(sales);
-
-        Map<String, Long> units = sales.stream().collect(Collectors.groupingBy(
-                Sale::getCategory,
-                Collectors.summingLong(Sale::getQuantity)
-        ));
-
-        Map<String, Map<String, Number>> result = new HashMap<>();
-
-        // Combine revenue + units into a nested map
-        revenue.forEach((cat, rev) -> {
-            Map<String, Number> summary = new HashMap<>();
-            summary.put("revenue", rev);
-            summary.put("units", units.get(cat));
-            result.put(cat, summary);
-        });
-
-        return result;
+        return aggregate(sales, Metric.BY_CATEGORY).getCategorySummary();
     }
 
     /**
@@ -223,33 +211,268 @@ public class SalesAnalyzer {
      * </ul>
      */
     public Map<String, Map<String, Number>> getProductSummary(List<Sale> sales) {
+        return aggregate(sales, Metric.BY_PRODUCT).getProductSummary();
+    }
 
-        Map<String, Double> revenue = getRevenueByProduct(sales);
-        Map<String, Long> units = getUnitsByProduct(sales);
+    /**
+     * Returns count of sales per month.
+     */
+    public Map<YearMonth, Long> getMonthlySaleCount(List<Sale> sales) {
+        return aggregate(sales, Metric.BY_MONTH).getMonthlySaleCount();
+    }
 
-        Map<String, Map<String, Number>> result = new HashMap<>();
 
-        revenue.forEach((productId, rev) -> {
-            Map<String, Number> summary = new HashMap<>();
-            summary.put("revenue", rev);
-            summary.put("units", units.get(productId));
-            summary.put("avg_price", rev / units.get(productId));
-            result.put(productId, summary);
-        });
+    /*
+     * ------------------------------------------------------------------
+     * Columnar overloads
+     *
+     * The methods below compute the same results as their List<Sale>
+     * counterparts over a SalesTable. Group-bys accumulate into arrays
+     * indexed by dictionary code (or by day offset for dates) and only
+     * decode keys once at the end.
+     * ------------------------------------------------------------------
+     */
 
-        return result;
+    /**
+     * Calculates the total revenue across all rows of the table.
+     */
+    public double getTotalRevenue(SalesTable table) {
+        double[] price = table.unitPrices();
+        int[] qty = table.quantities();
+        CompensatedSum total = new CompensatedSum();
+        for (int i = 0, n = table.size(); i < n; i++) {
+            total.add(price[i] * qty[i]);
+        }
+        return total.value();
     }
 
     /**
-     * Returns count of sales per month.
+     * Calculates the total number of units sold across all rows of the table.
      */
-    public Map<YearMonth, Long> getMonthlySaleCount(List<Sale> sales) {
-        return sales.stream().collect(Collectors.groupingBy(
-                sale -> YearMonth.from(sale.getDate()),
-                Collectors.counting()
-        ));
+    public long getTotalUnits(SalesTable table) {
+        int[] qty = table.quantities();
+        long total = 0;
+        for (int i = 0, n = table.size(); i < n; i++) {
+            total += qty[i];
+        }
+        return total;
+    }
+
+    public Map<String, Double> getRevenueByRegion(SalesTable table) {
+        return revenueBy(table, Dimension.REGION);
+    }
+
+    public Map<String, Double> getRevenueByProduct(SalesTable table) {
+        return revenueBy(table, Dimension.PRODUCT);
+    }
+
+    public Map<String, Long> getUnitsByProduct(SalesTable table) {
+        return unitsBy(table, Dimension.PRODUCT);
+    }
+
+    public Map<YearMonth, Double> getMonthlyRevenue(SalesTable table) {
+        IntAggregationMap byMonth = new IntAggregationMap();
+        forEachDay(table, (day, revenue, count) ->
+                byMonth.add(SalesAccumulator.monthKey(LocalDate.ofEpochDay(day)), revenue, 0, count));
+        return byMonth.toRevenueMap(SalesAccumulator::yearMonth);
+    }
+
+    public Map<LocalDate, Double> getDailyRevenue(SalesTable table) {
+        Map<LocalDate, Double> result = new HashMap<>();
+        forEachDay(table, (day, revenue, count) -> result.put(LocalDate.ofEpochDay(day), revenue));
+        return Collections.unmodifiableMap(result);
     }
 
+    public Map<String, Double> getRevenueByCategory(SalesTable table) {
+        return revenueBy(table, Dimension.CATEGORY);
+    }
+
+    public double getAverageRevenuePerSale(SalesTable table) {
+        return table.size() == 0 ? 0 : getTotalRevenue(table) / table.size();
+    }
+
+    /**
+     * Finds the row with the maximum revenue; ties keep the first row.
+     */
+    public Optional<Sale> getHighestSale(SalesTable table) {
+        int best = -1;
+        for (int i = 0, n = table.size(); i < n; i++) {
+            if (best < 0 || table.revenue(i) > table.revenue(best)) {
+                best = i;
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(table.getSale(best));
+    }
+
+    /**
+     * Finds the row with the minimum revenue; ties keep the first row.
+     */
+    public Optional<Sale> getLowestSale(SalesTable table) {
+        int best = -1;
+        for (int i = 0, n = table.size(); i < n; i++) {
+            if (best < 0 || table.revenue(i) < table.revenue(best)) {
+                best = i;
+            }
+        }
+        return best < 0 ? Optional.empty() : Optional.of(table.getSale(best));
+    }
+
+    public List<Map.Entry<String, Double>> getTopNProductsByRevenue(SalesTable table, int n) {
+        return SalesReport.top(getRevenueByProduct(table), n);
+    }
+
+    public List<Map.Entry<String, Double>> getTopRegions(SalesTable table, int n) {
+        return SalesReport.top(getRevenueByRegion(table), n);
+    }
+
+    public Map<String, Double> getRevenueBySalesperson(SalesTable table) {
+        return revenueBy(table, Dimension.SALESPERSON);
+    }
+
+    public Map<String, Long> getUnitsBySalesperson(SalesTable table) {
+        return unitsBy(table, Dimension.SALESPERSON);
+    }
+
+    /**
+     * Materialises the rows whose revenue is at least {@code threshold}.
+     */
+    public List<Sale> getHighValueSales(SalesTable table, double threshold) {
+        List<Sale> result = new ArrayList<>();
+        for (int i = 0, n = table.size(); i < n; i++) {
+            if (table.revenue(i) >= threshold) {
+                result.add(table.getSale(i));
+            }
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public Map<String, Long> getSaleCountByRegion(SalesTable table) {
+        return decode(table.dictionary(Dimension.REGION), countBy(table, Dimension.REGION), null);
+    }
+
+    public Map<String, Map<String, Number>> getCategorySummary(SalesTable table) {
+        return SalesReport.categorySummary(revenueBy(table, Dimension.CATEGORY), unitsBy(table, Dimension.CATEGORY));
+    }
+
+    public Map<String, Map<String, Number>> getProductSummary(SalesTable table) {
+        return SalesReport.productSummary(revenueBy(table, Dimension.PRODUCT), unitsBy(table, Dimension.PRODUCT));
+    }
+
+    public Map<YearMonth, Long> getMonthlySaleCount(SalesTable table) {
+        Map<YearMonth, Long> result = new HashMap<>();
+        forEachDay(table, (day, revenue, count) ->
+                result.merge(YearMonth.from(LocalDate.ofEpochDay(day)), count, Long::sum));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Map<String, Double> revenueBy(SalesTable table, Dimension dim) {
+        int[] codes = table.codes(dim);
+        double[] price = table.unitPrices();
+        int[] qty = table.quantities();
+        double[] sums = new double[table.dictionary(dim).size()];
+        double[] errors = new double[sums.length];
+        for (int i = 0, n = table.size(); i < n; i++) {
+            CompensatedSum.add(sums, errors, codes[i], price[i] * qty[i]);
+        }
+        long[] counts = countBy(table, dim);
+        StringDictionary dict = table.dictionary(dim);
+        Map<String, Double> result = new HashMap<>();
+        for (int code = 0; code < sums.length; code++) {
+            if (counts[code] > 0) {
+                result.put(dict.decode(code), CompensatedSum.value(sums, errors, code));
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Map<String, Long> unitsBy(SalesTable table, Dimension dim) {
+        int[] codes = table.codes(dim);
+        int[] qty = table.quantities();
+        long[] sums = new long[table.dictionary(dim).size()];
+        for (int i = 0, n = table.size(); i < n; i++) {
+            sums[codes[i]] += qty[i];
+        }
+        return decode(table.dictionary(dim), sums, countBy(table, dim));
+    }
+
+    private static long[] countBy(SalesTable table, Dimension dim) {
+        int[] codes = table.codes(dim);
+        long[] counts = new long[table.dictionary(dim).size()];
+        for (int i = 0, n = table.size(); i < n; i++) {
+            counts[codes[i]]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Decodes per-code values, keeping only codes that occur in the table
+     * (a shared dictionary may know values this table never saw).
+     *
+     * @param counts rows per code, or {@code null} when {@code values} are the counts
+     */
+    private static Map<String, Long> decode(StringDictionary dict, long[] values, long[] counts) {
+        long[] occurrences = counts != null ? counts : values;
+        Map<String, Long> result = new HashMap<>();
+        for (int code = 0; code < values.length; code++) {
+            if (occurrences[code] > 0) {
+                result.put(dict.decode(code), values[code]);
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Receives the totals of one day that had at least one sale.
+     */
+    @FunctionalInterface
+    private interface DayAction {
+        void accept(int epochDay, double revenue, long count);
+    }
+
+    /**
+     * Visits every day that had at least one sale.
+     *
+     * <p>When the date span is comparable to the row count the totals go
+     * into flat arrays indexed by day offset. A sparse span, e.g. one
+     * outlier date decades away from the rest, would make those arrays far
+     * larger than the table, so it is aggregated in an
+     * {@link IntAggregationMap} keyed by epoch day instead.</p>
+     */
+    private static void forEachDay(SalesTable table, DayAction action) {
+        int n = table.size();
+        if (n == 0) {
+            return;
+        }
+        int[] days = table.epochDays();
+        double[] price = table.unitPrices();
+        int[] qty = table.quantities();
+        int min = table.minEpochDay();
+        long span = (long) table.maxEpochDay() - min + 1;
+
+        if (span > Math.max(DENSE_DAY_SPAN, (long) n * DENSE_DAYS_PER_ROW)) {
+            IntAggregationMap byDay = new IntAggregationMap();
+            for (int i = 0; i < n; i++) {
+                byDay.add(days[i], price[i] * qty[i], qty[i]);
+            }
+            for (int slot = 0; slot < byDay.size(); slot++) {
+                action.accept(byDay.keyAt(slot), byDay.revenueAt(slot), byDay.countAt(slot));
+            }
+            return;
+        }
+
+        double[] sums = new double[(int) span];
+        double[] errors = new double[(int) span];
+        long[] counts = new long[(int) span];
+        for (int i = 0; i < n; i++) {
+            CompensatedSum.add(sums, errors, days[i] - min, price[i] * qty[i]);
+            counts[days[i] - min]++;
+        }
+        for (int d = 0; d < sums.length; d++) {
+            if (counts[d] > 0) {
+                action.accept(min + d, CompensatedSum.value(sums, errors, d), counts[d]);
+            }
+        }
+    }
 
     /**
      * Generic method that groups any type of data based on a classifier function.
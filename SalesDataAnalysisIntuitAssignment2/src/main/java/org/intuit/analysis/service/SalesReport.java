@@ -0,0 +1,245 @@
+package org.intuit.analysis.service;
+
+import org.intuit.analysis.model.Sale;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * Immutable result of a {@link SalesAggregator} pass.
+ *
+ * <p>The report exposes every aggregate that was registered on the
+ * aggregator. Asking for a metric that was not registered throws an
+ * {@link IllegalStateException} instead of silently returning an empty
+ * result.</p>
+ */
+public class SalesReport {
+
+    private final Set<Metric> metrics;
+
+    private final long saleCount;
+    private final double totalRevenue;
+    private final long totalUnits;
+
+    private final Sale highest;
+    private final Sale lowest;
+
+    private final Map<String, Double> revenueByRegion;
+    private final Map<String, Long> saleCountByRegion;
+    private final Map<String, Double> revenueByProduct;
+    private final Map<String, Long> unitsByProduct;
+    private final Map<String, Double> revenueByCategory;
+    private final Map<String, Long> unitsByCategory;
+    private final Map<String, Double> revenueBySalesperson;
+    private final Map<String, Long> unitsBySalesperson;
+    private final Map<YearMonth, Double> monthlyRevenue;
+    private final Map<YearMonth, Long> monthlySaleCount;
+    private final Map<LocalDate, Double> dailyRevenue;
+
+    private final List<Sale> highValueSales;   // null when not collected
+    private final List<Map.Entry<String, Double>> topProducts;  // null when not requested
+    private final List<Map.Entry<String, Double>> topRegions;   // null when not requested
+
+    /**
+     * Builds the report from a finished accumulator.
+     *
+     * @param acc         state of the completed pass
+     * @param topProducts number of top products to rank, or negative to skip
+     * @param topRegions  number of top regions to rank, or negative to skip
+     */
+    SalesReport(SalesAccumulator acc, int topProducts, int topRegions) {
+
+        this.metrics = EnumSet.copyOf(acc.metrics);
+
+        this.saleCount = acc.saleCount;
+        this.totalRevenue = acc.totalRevenue.value();
+        this.totalUnits = acc.totalUnits;
+        this.highest = acc.highest;
+        this.lowest = acc.lowest;
+
+        this.revenueByRegion = acc.byRegion.toRevenueMap();
+        this.saleCountByRegion = acc.byRegion.toCountMap();
+        this.revenueByProduct = acc.byProduct.toRevenueMap();
+        this.unitsByProduct = acc.byProduct.toUnitsMap();
+        this.revenueByCategory = acc.byCategory.toRevenueMap();
+        this.unitsByCategory = acc.byCategory.toUnitsMap();
+        this.revenueBySalesperson = acc.bySalesperson.toRevenueMap();
+        this.unitsBySalesperson = acc.bySalesperson.toUnitsMap();
+        this.monthlyRevenue = acc.byMonth.toRevenueMap(SalesAccumulator::yearMonth);
+        this.monthlySaleCount = acc.byMonth.toCountMap(SalesAccumulator::yearMonth);
+        this.dailyRevenue = acc.byDay.toRevenueMap(LocalDate::ofEpochDay);
+
+        this.highValueSales = Double.isNaN(acc.highValueThreshold)
+                ? null
+                : List.copyOf(acc.highValueSales);
+
+        this.topProducts = topProducts < 0 ? null : top(revenueByProduct, topProducts);
+        this.topRegions = topRegions < 0 ? null : top(revenueByRegion, topRegions);
+    }
+
+    public long getSaleCount() {
+        require(Metric.TOTALS);
+        return saleCount;
+    }
+
+    public double getTotalRevenue() {
+        require(Metric.TOTALS);
+        return totalRevenue;
+    }
+
+    public long getTotalUnits() {
+        require(Metric.TOTALS);
+        return totalUnits;
+    }
+
+    /**
+     * Average revenue per sale, or 0 when there were no sales.
+     */
+    public double getAverageRevenuePerSale() {
+        require(Metric.TOTALS);
+        return saleCount == 0 ? 0 : totalRevenue / saleCount;
+    }
+
+    public Optional<Sale> getHighestSale() {
+        require(Metric.EXTREMES);
+        return Optional.ofNullable(highest);
+    }
+
+    public Optional<Sale> getLowestSale() {
+        require(Metric.EXTREMES);
+        return Optional.ofNullable(lowest);
+    }
+
+    public Map<String, Double> getRevenueByRegion() {
+        require(Metric.BY_REGION);
+        return revenueByRegion;
+    }
+
+    public Map<String, Long> getSaleCountByRegion() {
+        require(Metric.BY_REGION);
+        return saleCountByRegion;
+    }
+
+    public Map<String, Double> getRevenueByProduct() {
+        require(Metric.BY_PRODUCT);
+        return revenueByProduct;
+    }
+
+    public Map<String, Long> getUnitsByProduct() {
+        require(Metric.BY_PRODUCT);
+        return unitsByProduct;
+    }
+
+    public Map<String, Double> getRevenueByCategory() {
+        require(Metric.BY_CATEGORY);
+        return revenueByCategory;
+    }
+
+    public Map<String, Long> getUnitsByCategory() {
+        require(Metric.BY_CATEGORY);
+        return unitsByCategory;
+    }
+
+    public Map<String, Double> getRevenueBySalesperson() {
+        require(Metric.BY_SALESPERSON);
+        return revenueBySalesperson;
+    }
+
+    public Map<String, Long> getUnitsBySalesperson() {
+        require(Metric.BY_SALESPERSON);
+        return unitsBySalesperson;
+    }
+
+    public Map<YearMonth, Double> getMonthlyRevenue() {
+        require(Metric.BY_MONTH);
+        return monthlyRevenue;
+    }
+
+    public Map<YearMonth, Long> getMonthlySaleCount() {
+        require(Metric.BY_MONTH);
+        return monthlySaleCount;
+    }
+
+    public Map<LocalDate, Double> getDailyRevenue() {
+        require(Metric.BY_DAY);
+        return dailyRevenue;
+    }
+
+    /**
+     * Summary for each category containing total revenue and total units.
+     */
+    public Map<String, Map<String, Number>> getCategorySummary() {
+        require(Metric.BY_CATEGORY);
+        return categorySummary(revenueByCategory, unitsByCategory);
+    }
+
+    /**
+     * Summary for each product containing total revenue, total units and
+     * average price (revenue / units).
+     */
+    public Map<String, Map<String, Number>> getProductSummary() {
+        require(Metric.BY_PRODUCT);
+        return productSummary(revenueByProduct, unitsByProduct);
+    }
+
+    /**
+     * Sales whose revenue is at least the threshold given to
+     * {@link SalesAggregator#highValueSales(double)}, in input order.
+     */
+    public List<Sale> getHighValueSales() {
+        if (highValueSales == null) {
+            throw new IllegalStateException("High-value sales were not registered on the aggregator");
+        }
+        return highValueSales;
+    }
+
+    public List<Map.Entry<String, Double>> getTopProducts() {
+        if (topProducts == null) {
+            throw new IllegalStateException("Top products were not registered on the aggregator");
+        }
+        return topProducts;
+    }
+
+    public List<Map.Entry<String, Double>> getTopRegions() {
+        if (topRegions == null) {
+            throw new IllegalStateException("Top regions were not registered on the aggregator");
+        }
+        return topRegions;
+    }
+
+    private void require(Metric metric) {
+        if (!metrics.contains(metric)) {
+            throw new IllegalStateException("Metric " + metric + " was not registered on the aggregator");
+        }
+    }
+
+    static Map<String, Map<String, Number>> categorySummary(Map<String, Double> revenue, Map<String, Long> units) {
+        Map<String, Map<String, Number>> result = new HashMap<>();
+
+        // Combine revenue + units into a nested map
+        revenue.forEach((cat, rev) -> {
+            Map<String, Number> summary = new HashMap<>();
+            summary.put("revenue", rev);
+            summary.put("units", units.get(cat));
+            result.put(cat, summary);
+        });
+        return result;
+    }
+
+    static Map<String, Map<String, Number>> productSummary(Map<String, Double> revenue, Map<String, Long> units) {
+        Map<String, Map<String, Number>> result = new HashMap<>();
+        revenue.forEach((productId, rev) -> {
+            Map<String, Number> summary = new HashMap<>();
+            summary.put("revenue", rev);
+            summary.put("units", units.get(productId));
+            summary.put("avg_price", rev / units.get(productId));
+            result.put(productId, summary);
+        });
+        return result;
+    }
+
+    static List<Map.Entry<String, Double>> top(Map<String, Double> revenue, int n) {
+        return TopN.of(revenue, n);   // high → low revenue, ties by name
+    }
+}
@@ -0,0 +1,75 @@
+package org.intuit.analysis.service;
+
+import org.intuit.analysis.model.Sale;
+
+import java.util.function.Consumer;
+
+/**
+ * Incremental counterpart of {@link SalesAggregator#aggregate(java.util.List)}.
+ *
+ * <p>Sales are folded into the aggregates as they arrive, one at a time or
+ * in batches, and {@link #snapshot()} returns a {@link SalesReport} of
+ * everything accepted so far. The rows themselves are not retained, so
+ * memory grows with the number of distinct regions, products, months and
+ * so on rather than with the number of rows. The only exception is the
+ * high-value list, which holds every qualifying sale when it is
+ * registered.</p>
+ *
+ * <pre>{@code
+ * StreamingSalesAnalyzer analyzer = new SalesAggregator().registerAll().streaming();
+ * CsvReader.forEachSale(path, analyzer);
+ * SalesReport report = analyzer.snapshot();
+ * }</pre>
+ *
+ * <p>The analyzer is thread-safe. Producers may call {@link #accept(Sale)}
+ * concurrently, and a snapshot never observes half of a batch.</p>
+ */
+public class StreamingSalesAnalyzer implements Consumer<Sale> {
+
+    private final SalesAccumulator accumulator;
+    private final int topProducts;
+    private final int topRegions;
+
+    /**
+     * Created through {@link SalesAggregator#streaming()}, which fixes the
+     * registered metrics at that point.
+     */
+    StreamingSalesAnalyzer(SalesAccumulator accumulator, int topProducts, int topRegions) {
+        this.accumulator = accumulator;
+        this.topProducts = topProducts;
+        this.topRegions = topRegions;
+    }
+
+    /**
+     * Folds one sale into every registered aggregate.
+     */
+    @Override
+    public synchronized void accept(Sale sale) {
+        accumulator.accept(sale);
+    }
+
+    /**
+     * Folds a batch of sales into every registered aggregate. The batch is
+     * applied atomically with respect to {@link #snapshot()}.
+     */
+    public synchronized void acceptAll(Iterable<? extends Sale> sales) {
+        for (Sale sale : sales) {
+            accumulator.accept(sale);
+        }
+    }
+
+    /**
+     * Returns a report of every sale accepted so far. The report is an
+     * independent copy and is not affected by sales accepted afterwards.
+     */
+    public synchronized SalesReport snapshot() {
+        return new SalesReport(accumulator, topProducts, topRegions);
+    }
+
+    /**
+     * Number of sales accepted so far.
+     */
+    public synchronized long getAcceptedCount() {
+        return accumulator.acceptedCount;
+    }
+}
@@ -0,0 +1,89 @@
+package org.intuit.analysis.service;
+
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+import org.intuit.analysis.model.StringDictionary;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Revenue, units and row count per value of one text column.
+ *
+ * <p>With a caller-supplied {@link SalesDictionary} the values are keyed by
+ * code in an {@link IntAggregationMap}, so sales parsed with that dictionary
+ * are grouped without hashing a String. Without one, sales carry no usable
+ * codes, and encoding them into a throwaway dictionary first would cost a
+ * second lookup per row; they are keyed by the String itself instead, one
+ * {@link HashMap} lookup per row like {@code Collectors.groupingBy}.</p>
+ *
+ * <p>Not thread-safe.</p>
+ */
+final class TextGroupBy {
+
+    /** Running totals of one String key. */
+    private static final class Totals {
+        final CompensatedSum revenue = new CompensatedSum();
+        long units;
+        long count;
+    }
+
+    private final Dimension dim;
+    private final Function<Sale, String> valueOf;
+    private final SalesDictionary dictionary;      // null: keyed by String
+    private final IntAggregationMap byCode;
+    private final Map<String, Totals> byValue;
+
+    /**
+     * @param valueOf    getter of the column, e.g. {@code Sale::getRegion}
+     * @param dictionary caller's dictionary, or null to key by String
+     */
+    TextGroupBy(Dimension dim, Function<Sale, String> valueOf, SalesDictionary dictionary) {
+        this.dim = dim;
+        this.valueOf = valueOf;
+        this.dictionary = dictionary;
+        this.byCode = dictionary != null ? new IntAggregationMap() : null;
+        this.byValue = dictionary != null ? null : new HashMap<>();
+    }
+
+    void add(Sale sale, double revenue, long quantity) {
+        if (byCode != null) {
+            byCode.add(dictionary.codeOf(dim, sale), revenue, quantity);
+            return;
+        }
+        String value = valueOf.apply(sale);
+        Totals totals = byValue.get(value);
+        if (totals == null) {
+            totals = new Totals();
+            byValue.put(value, totals);
+        }
+        totals.revenue.add(revenue);
+        totals.units += quantity;
+        totals.count++;
+    }
+
+    Map<String, Double> toRevenueMap() {
+        return byCode != null ? byCode.toRevenueMap(codes()::decode) : toMap(totals -> totals.revenue.value());
+    }
+
+    Map<String, Long> toUnitsMap() {
+        return byCode != null ? byCode.toUnitsMap(codes()::decode) : toMap(totals -> totals.units);
+    }
+
+    Map<String, Long> toCountMap() {
+        return byCode != null ? byCode.toCountMap(codes()::decode) : toMap(totals -> totals.count);
+    }
+
+    private StringDictionary codes() {
+        return dictionary.get(dim);
+    }
+
+    private <V> Map<String, V> toMap(Function<Totals, V> value) {
+        Map<String, V> result = new HashMap<>(byValue.size() * 4 / 3 + 1);
+        byValue.forEach((key, totals) -> result.put(key, value.apply(totals)));
+        return Collections.unmodifiableMap(result);
+    }
+}
@@ -0,0 +1,80 @@
+package org.intuit.analysis.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Top-N selection with a bounded min-heap.
+ *
+ * <p>Only the best {@code n} candidates are kept while the input is
+ * scanned: the heap's head is the weakest of them and is replaced when a
+ * better one arrives. Selecting from {@code K} candidates costs
+ * O(K log n) time and O(n) memory instead of sorting all {@code K}.</p>
+ *
+ * <p>The result is always fully ordered, best first. Ranking grouped
+ * values breaks ties by ascending key, so equal revenues or units come
+ * back in the same order on every run.</p>
+ *
+ * <pre>{@code
+ * TopN.of(report.getUnitsBySalesperson(), 3);   // top salespeople by units
+ * TopN.of(report.getDailyRevenue(), 5);         // top days by revenue
+ * }</pre>
+ */
+public final class TopN {
+
+    private TopN() {
+    }
+
+    /**
+     * Returns the {@code n} entries with the highest values, highest first.
+     * Entries with equal values are ordered by ascending key.
+     *
+     * @param values any grouping key mapped to its metric
+     * @param n      number of entries to return (>= 0)
+     * @return immutable entries; fewer than {@code n} if the map is smaller
+     */
+    public static <K extends Comparable<? super K>, V extends Comparable<? super V>>
+    List<Map.Entry<K, V>> of(Map<K, V> values, int n) {
+        Comparator<Map.Entry<K, V>> best = Map.Entry.<K, V>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey());
+
+        List<Map.Entry<K, V>> top = of(values.entrySet(), n, best);
+        top.replaceAll(e -> Map.entry(e.getKey(), e.getValue()));   // detach from the source map
+        return top;
+    }
+
+    /**
+     * Returns the {@code n} best items of {@code items} according to
+     * {@code order}, best first.
+     *
+     * @param order orders items best first; items it considers equal keep
+     *              no particular order, so make it total for stable results
+     * @param n     number of items to return (>= 0)
+     */
+    public static <T> List<T> of(Iterable<? extends T> items, int n, Comparator<? super T> order) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must be >= 0 but was " + n);
+        }
+        if (n == 0) {
+            return new ArrayList<>();
+        }
+
+        // Reversed order puts the weakest kept item at the head of the heap
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(n, 1024) + 1, order.reversed());
+        for (T item : items) {
+            if (heap.size() < n) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+}
@@ -42,4 +42,143 @@ public class CsvReaderTest {
 
         Files.deleteIfExists(tempFile);
     }
+
+    @Test
+    public void testReadSalesParallel_matchesSequentialRead() throws Exception {
+        // Arrange: large enough to be split into several byte ranges,
+        // with blank lines and CRLF endings sprinkled in
+        StringBuilder csv = new StringBuilder("sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson\r\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i).append(",2024-01-").append(String.format("%02d", i % 28 + 1))
+                    .append(",P").append(i % 50).append(",Product,Cat").append(i % 7)
+                    .append(",").append(i % 100).append(".25,").append(i % 9 + 1)
+                    .append(",R").append(i % 4).append(",S").append(i % 11)
+                    .append(i % 10 == 0 ? "\n\n   \n" : "\r\n");
+        }
+
+        Path tempFile = Files.createTempFile("sales_parallel_test", ".csv");
+        Files.writeString(tempFile, csv.toString());
+
+        // Act
+        List<Sale> sequential = CsvReader.readSales(tempFile.toString());
+        List<Sale> parallel = CsvReader.readSalesParallel(tempFile.toString(), 4);
+
+        // Assert: same rows in the same order
+        assertEquals(20_000, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Sale expected = sequential.get(i);
+            Sale actual = parallel.get(i);
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getProductId(), actual.getProductId());
+            assertEquals(expected.getSalesperson(), actual.getSalesperson());
+            assertEquals(expected.revenue(), actual.revenue());
+        }
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testReadSalesParallel_headerOnlyAndInvalidParallelism() throws Exception {
+        Path tempFile = Files.createTempFile("sales_header_only", ".csv");
+        Files.writeString(tempFile, "sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson");
+
+        assertTrue(CsvReader.readSalesParallel(tempFile.toString(), 2).isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> CsvReader.readSalesParallel(tempFile.toString(), 0));
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testReadSalesParallel_splitsCrOnlyFilesAndRejectsMalformedUtf8() throws Exception {
+        // Arrange: CR-only line endings, large enough for several ranges
+        StringBuilder csv = new StringBuilder("sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson\r");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(i).append(",2024-01-01,P").append(i % 50).append(",Product,Cat1,")
+                    .append(i % 100).append(".5,2,R").append(i % 4).append(",S1\r");
+        }
+        Path tempFile = Files.createTempFile("sales_parallel_cr", ".csv");
+        Files.writeString(tempFile, csv.toString());
+
+        // Act + Assert: same rows as the sequential read
+        List<Sale> sequential = CsvReader.readSales(tempFile.toString());
+        List<Sale> parallel = CsvReader.readSalesParallel(tempFile.toString(), 4);
+        assertEquals(20_000, parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).getProductId(), parallel.get(i).getProductId());
+            assertEquals(sequential.get(i).revenue(), parallel.get(i).revenue());
+        }
+
+        // A lone 0xFF byte is not UTF-8 and must not be silently replaced
+        Files.write(tempFile, "header\n1,2024-01-01,P1,A\u00FF,C,1,2,APAC,Alice\n"
+                .getBytes(java.nio.charset.StandardCharsets.ISO_8859_1));
+        assertThrows(java.nio.charset.CharacterCodingException.class,
+                () -> CsvReader.readSalesParallel(tempFile.toString(), 2));
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testReadSalesMapped_matchesSequentialReadAcrossWindows() throws Exception {
+        // Arrange: mixed line endings, padding and values that need the slow path
+        String csvContent = String.join("\r\n",
+                "sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson",
+                "1,2024-01-01,P1,Product A,Cat1,100.5,2,APAC,Alice",
+                "",
+                "  2 , 2024-02-29 , P2 , Produkt Ü , Cat2 , 1e2 , +3 , EMEA , Bob  ",
+                "3,2023-02-29,P3,Product C,Cat3,0.1,1,US,Carol,extra",
+                "4,2024-03-10,P4,Product D,Cat4,-12.75,10,LATAM,Dan"
+        ) + "\n";
+
+        Path tempFile = Files.createTempFile("sales_mapped_test", ".csv");
+        Files.writeString(tempFile, csvContent);
+
+        // Act: a tiny window forces many remaps and lines split across windows
+        List<Sale> expected = CsvReader.readSales(tempFile.toString());
+        List<Sale> mapped = CsvReader.readSalesMapped(tempFile.toString(), 16);
+
+        // Assert
+        assertEquals(4, expected.size());
+        assertEquals(expected.size(), mapped.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getDate(), mapped.get(i).getDate());
+            assertEquals(expected.get(i).getProductId(), mapped.get(i).getProductId());
+            assertEquals(expected.get(i).getCategory(), mapped.get(i).getCategory());
+            assertEquals(expected.get(i).getUnitPrice(), mapped.get(i).getUnitPrice());
+            assertEquals(expected.get(i).getQuantity(), mapped.get(i).getQuantity());
+            assertEquals(expected.get(i).getRegion(), mapped.get(i).getRegion());
+            assertEquals(expected.get(i).getSalesperson(), mapped.get(i).getSalesperson());
+        }
+        assertEquals(LocalDate.of(2023, 2, 28), mapped.get(2).getDate()); // SMART date resolution
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testReadSalesMapped_rejectsMalformedRowsLikeSequentialRead() throws Exception {
+        Path tempFile = Files.createTempFile("sales_mapped_bad", ".csv");
+
+        Files.writeString(tempFile, "header\n1,2024-01-01,P1,A,C,abc,2,APAC,Alice\n");
+        assertThrows(NumberFormatException.class, () -> CsvReader.readSalesMapped(tempFile.toString()));
+
+        Files.writeString(tempFile, "header\n1,2024-13-01,P1,A,C,1,2,APAC,Alice\n");
+        assertThrows(java.time.format.DateTimeParseException.class,
+                () -> CsvReader.readSalesMapped(tempFile.toString()));
+
+        Files.writeString(tempFile, "header\n1,2024-01-01,P1,A,C,1,2,APAC,\n");
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> CsvReader.readSalesMapped(tempFile.toString()));
+
+        // Malformed UTF-8 is reported, not replaced, on both the fast and the slow path
+        Files.write(tempFile, "header\n1,2024-01-01,P1,A\u00FF,C,1,2,APAC,Alice\n"
+                .getBytes(java.nio.charset.StandardCharsets.ISO_8859_1));
+        assertThrows(java.nio.charset.CharacterCodingException.class,
+                () -> CsvReader.readSalesMapped(tempFile.toString()));
+        Files.write(tempFile, "header\n1,2024-01-01,P1,A\u00FF,C,1e2,2,APAC,Alice\n"
+                .getBytes(java.nio.charset.StandardCharsets.ISO_8859_1));
+        assertThrows(java.nio.charset.CharacterCodingException.class,
+                () -> CsvReader.readSalesMapped(tempFile.toString()));
+
+        Files.deleteIfExists(tempFile);
+    }
 }
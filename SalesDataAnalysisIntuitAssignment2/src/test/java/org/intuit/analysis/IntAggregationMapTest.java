@@ -0,0 +1,73 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.service.IntAggregationMap;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntAggregationMapTest {
+
+    @Test
+    public void testSumsMatchBoxedMapsAcrossRehashes() {
+        IntAggregationMap map = new IntAggregationMap();
+        Map<Integer, Double> revenue = new HashMap<>();
+        Map<Integer, Long> units = new HashMap<>();
+        Map<Integer, Long> counts = new HashMap<>();
+
+        // Negative keys, consecutive runs and far-apart keys, enough to grow several times
+        for (int i = 0; i < 50_000; i++) {
+            int key = (i % 3 == 0) ? -(i % 701) : (i % 5 == 0 ? i * 7919 : i % 1_000);
+            double r = (i % 97) * 1.25;
+            int q = i % 9 + 1;
+            map.add(key, r, q);
+            revenue.merge(key, r, Double::sum);
+            units.merge(key, (long) q, Long::sum);
+            counts.merge(key, 1L, Long::sum);
+        }
+
+        assertEquals(revenue.size(), map.size());
+        assertEquals(revenue, map.toRevenueMap(Integer::valueOf));
+        assertEquals(units, map.toUnitsMap(Integer::valueOf));
+        assertEquals(counts, map.toCountMap(Integer::valueOf));
+        assertEquals(-1, map.indexOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testSlotsKeepInsertionOrderAndMerge() {
+        IntAggregationMap first = new IntAggregationMap();
+        first.add(42, 10.0, 1);
+        first.add(7, 5.0, 2);
+        first.add(42, 2.5, 3);
+
+        assertEquals(2, first.size());
+        assertEquals(42, first.keyAt(0));
+        assertEquals(7, first.keyAt(1));
+        assertEquals(12.5, first.revenueAt(first.indexOf(42)));
+        assertEquals(4, first.unitsAt(first.indexOf(42)));
+        assertEquals(2, first.countAt(first.indexOf(42)));
+
+        IntAggregationMap second = new IntAggregationMap(1);
+        second.add(7, 1.0, 1);
+        second.add(99, 3.0, 1);
+        first.addAll(second);
+
+        assertEquals(3, first.size());
+        assertEquals(6.0, first.revenueAt(first.indexOf(7)));
+        assertEquals(2, first.countAt(first.indexOf(7)));
+    }
+
+    @Test
+    public void testAdapterDecodesKeys() {
+        IntAggregationMap byDay = new IntAggregationMap();
+        LocalDate day = LocalDate.of(1965, 3, 1);   // negative epoch day
+        byDay.add((int) day.toEpochDay(), 100.0, 2);
+
+        assertEquals(Map.of(day, 100.0), byDay.toRevenueMap(LocalDate::ofEpochDay));
+        assertThrows(UnsupportedOperationException.class,
+                () -> byDay.toCountMap(LocalDate::ofEpochDay).clear());
+    }
+}
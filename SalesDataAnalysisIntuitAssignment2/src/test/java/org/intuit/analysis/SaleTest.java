@@ -0,0 +1,70 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.FieldParser;
+import org.intuit.analysis.model.Sale;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SaleTest {
+
+    @Test
+    public void testFromCsv_parsesAndTrimsFields() {
+        Sale sale = Sale.fromCsv("  7 , 2024-02-29 ,P9 , Name ,Cat ,  19.99 , -4 ,APAC ,  Alice  ");
+
+        assertEquals(LocalDate.of(2024, 2, 29), sale.getDate());
+        assertEquals("P9", sale.getProductId());
+        assertEquals("Cat", sale.getCategory());
+        assertEquals(19.99, sale.getUnitPrice());
+        assertEquals(-4, sale.getQuantity());
+        assertEquals("APAC", sale.getRegion());
+        assertEquals("Alice", sale.getSalesperson());
+    }
+
+    @Test
+    public void testFromCsv_matchesJdkParsingForEdgeValues() {
+        // Exact decimal rounding on the fast path
+        assertEquals(Double.parseDouble("0.1"), Sale.fromCsv("1,2024-01-01,P,N,C,0.1,1,R,S").getUnitPrice());
+        assertEquals(Double.parseDouble("123456.789012345"),
+                Sale.fromCsv("1,2024-01-01,P,N,C,123456.789012345,1,R,S").getUnitPrice());
+
+        // Inputs only the JDK parsers understand
+        assertEquals(1000.0, Sale.fromCsv("1,2024-01-01,P,N,C,1e3,1,R,S").getUnitPrice());
+        assertEquals(0.12345678901234568,
+                Sale.fromCsv("1,2024-01-01,P,N,C,0.123456789012345678,1,R,S").getUnitPrice());
+
+        // SMART resolution of day-of-month, extra columns ignored
+        assertEquals(LocalDate.of(2023, 2, 28), Sale.fromCsv("1,2023-02-30,P,N,C,1,1,R,S,extra").getDate());
+    }
+
+    @Test
+    public void testFromCsv_rejectsMalformedRowsAsBefore() {
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> Sale.fromCsv("1,2024-01-01,P,N,C,1,1,R"));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> Sale.fromCsv("1,2024-01-01,P,N,C,1,1,R,,,"));
+        assertThrows(DateTimeParseException.class, () -> Sale.fromCsv("1,2024-1-01,P,N,C,1,1,R,S"));
+        assertThrows(DateTimeParseException.class, () -> Sale.fromCsv("1,2024-02-32,P,N,C,1,1,R,S"));
+        assertThrows(NumberFormatException.class, () -> Sale.fromCsv("1,2024-01-01,P,N,C,abc,1,R,S"));
+        assertThrows(NumberFormatException.class, () -> Sale.fromCsv("1,2024-01-01,P,N,C,1,1.5,R,S"));
+        assertThrows(NumberFormatException.class, () -> Sale.fromCsv("1,2024-01-01,P,N,C,1,99999999999,R,S"));
+    }
+
+    @Test
+    public void testFieldParser_sameResultForCharsAndBytes() {
+        String[] fields = {"2024-02-29", "2023-02-29", "-12.75", ".25", "1e3", "+42", "1234567890", "Ü.5", ""};
+        for (String field : fields) {
+            FieldParser.CharSource chars = field::charAt;
+            ByteBuffer buf = ByteBuffer.wrap(field.getBytes(StandardCharsets.UTF_8));
+            FieldParser.CharSource bytes = buf::get;
+            int byteLen = buf.limit();
+
+            assertEquals(FieldParser.parseDate(chars, 0, field.length()), FieldParser.parseDate(bytes, 0, byteLen), field);
+            assertEquals(FieldParser.parseDouble(chars, 0, field.length()), FieldParser.parseDouble(bytes, 0, byteLen), field);
+            assertEquals(FieldParser.parseInt(chars, 0, field.length()), FieldParser.parseInt(bytes, 0, byteLen), field);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesTable;
+import org.intuit.analysis.service.Metric;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesAnalyzer;
+import org.intuit.analysis.service.SalesReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesAggregatorTest {
+
+    private List<Sale> sales;
+
+    @BeforeEach
+    public void setup() {
+        sales = List.of(
+                new Sale("1", LocalDate.of(2024,1,1), "P1","ProdA","Cat1", 100, 2,"APAC","A"),
+                new Sale("2", LocalDate.of(2024,1,1), "P2","ProdB","Cat2", 200, 3,"EMEA","B"),
+                new Sale("3", LocalDate.of(2024,2,1), "P1","ProdA","Cat1", 150, 1,"APAC","A"),
+                new Sale("4", LocalDate.of(2024,2,5), "P3","ProdC","Cat3", 300, 2,"US","C")
+        );
+    }
+
+    /**
+     * Long sums stay compensated like the stream collectors the analyzer used to call.
+     */
+    @Test
+    public void testRevenueSumsAreCompensated() {
+        List<Sale> tenths = Collections.nCopies(1_000_000,
+                new Sale("1", LocalDate.of(2024,1,1), "P1","ProdA","Cat1", 0.1, 1,"APAC","A"));
+        double streamTotal = tenths.stream().mapToDouble(Sale::revenue).sum();
+        Map<String, Double> streamByRegion = tenths.stream()
+                .collect(Collectors.groupingBy(Sale::getRegion, Collectors.summingDouble(Sale::revenue)));
+        assertEquals(100000.0, streamTotal);
+
+        SalesAnalyzer analyzer = new SalesAnalyzer();
+        assertEquals(streamTotal, analyzer.getTotalRevenue(tenths));
+        assertEquals(streamByRegion, analyzer.getRevenueByRegion(tenths));
+        assertEquals(streamTotal, analyzer.getMonthlyRevenue(tenths).get(YearMonth.of(2024,1)));
+
+        SalesTable table = SalesTable.from(tenths);
+        assertEquals(streamTotal, analyzer.getTotalRevenue(table));
+        assertEquals(streamByRegion, analyzer.getRevenueByRegion(table));
+        assertEquals(streamTotal, analyzer.getDailyRevenue(table).get(LocalDate.of(2024,1,1)));
+    }
+
+    @Test
+    public void testAllMetricsInOnePass() {
+        SalesReport report = new SalesAggregator()
+                .registerAll()
+                .highValueSales(600)
+                .topProducts(2)
+                .topRegions(1)
+                .aggregate(sales);
+
+        assertEquals(4, report.getSaleCount());
+        assertEquals(1550.0, report.getTotalRevenue());
+        assertEquals(8, report.getTotalUnits());
+        assertEquals(1550.0 / 4, report.getAverageRevenuePerSale());
+        assertEquals(600.0, report.getHighestSale().get().revenue());
+        assertEquals(150.0, report.getLowestSale().get().revenue());
+
+        assertEquals(350.0, report.getRevenueByRegion().get("APAC"));
+        assertEquals(2L, report.getSaleCountByRegion().get("APAC"));
+        assertEquals(3L, report.getUnitsByProduct().get("P1"));
+        assertEquals(3L, report.getUnitsByCategory().get("Cat1"));
+        assertEquals(350.0, report.getRevenueBySalesperson().get("A"));
+        assertEquals(800.0, report.getMonthlyRevenue().get(YearMonth.of(2024,1)));
+        assertEquals(2L, report.getMonthlySaleCount().get(YearMonth.of(2024,2)));
+        assertEquals(800.0, report.getDailyRevenue().get(LocalDate.of(2024,1,1)));
+        assertEquals(2, report.getHighValueSales().size());
+
+        List<Map.Entry<String, Double>> top = report.getTopProducts();
+        assertEquals(2, top.size());
+        assertEquals("P2", top.get(0).getKey());
+        assertEquals("EMEA", report.getTopRegions().get(0).getKey());
+    }
+
+    @Test
+    public void testUnregisteredMetricIsRejected() {
+        SalesReport report = new SalesAggregator()
+                .register(Metric.BY_REGION)
+                .aggregate(sales);
+
+        assertEquals(600.0, report.getRevenueByRegion().get("EMEA"));
+        assertThrows(IllegalStateException.class, report::getTotalRevenue);
+        assertThrows(IllegalStateException.class, report::getTopProducts);
+        assertThrows(IllegalStateException.class, report::getHighValueSales);
+    }
+
+    @Test
+    public void testEmptyInput() {
+        SalesReport report = new SalesAggregator().registerAll().aggregate(List.of());
+
+        assertEquals(0.0, report.getTotalRevenue());
+        assertEquals(0.0, report.getAverageRevenuePerSale());
+        assertTrue(report.getHighestSale().isEmpty());
+        assertTrue(report.getRevenueByProduct().isEmpty());
+    }
+}
@@ -0,0 +1,113 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesDictionary;
+import org.intuit.analysis.model.StringDictionary;
+import org.intuit.analysis.reader.CsvReader;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesReport;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesDictionaryTest {
+
+    @Test
+    public void testCodesAreDenseAndAgreeAcrossLookups() {
+        StringDictionary dict = new StringDictionary();
+
+        assertEquals(0, dict.encode("APAC"));
+        assertEquals(1, dict.encode("EMEA"));
+        assertEquals(0, dict.encode("APAC"));
+
+        // Char-range and byte-range lookups find the same entries
+        assertEquals(1, dict.encode("x,EMEA,y", 2, 6));
+        ByteBuffer bytes = ByteBuffer.wrap("US;Zürich".getBytes(StandardCharsets.UTF_8));
+        assertEquals(2, dict.encode(bytes, 0, 2));
+        assertEquals(3, dict.encode(bytes, 3, bytes.limit()));
+        assertEquals(3, dict.encode("Zürich"));
+
+        assertEquals(4, dict.size());
+        assertEquals("Zürich", dict.decode(3));
+    }
+
+    @Test
+    public void testParsedSalesShareCanonicalInstances() {
+        SalesDictionary dictionary = new SalesDictionary();
+
+        Sale first = Sale.fromCsv("1,2024-01-01,P1,Product A,Cat1,100,2,APAC,Alice", dictionary);
+        Sale second = Sale.fromCsv("2, 2024-01-02 ,P1,Product A,Cat1,50,1, APAC ,Bob", dictionary);
+        Sale slowPath = Sale.fromCsv("3,2024-01-03,P1,Product A,Cat1,1e2,1,APAC,Alice", dictionary);
+
+        assertSame(first.getRegion(), second.getRegion());
+        assertSame(first.getProductId(), slowPath.getProductId());
+        assertSame(first.getSalesperson(), slowPath.getSalesperson());
+        assertEquals(100.0, slowPath.getUnitPrice());
+
+        assertEquals(1, dictionary.get(Dimension.REGION).size());
+        assertEquals(2, dictionary.get(Dimension.SALESPERSON).size());
+    }
+
+    @Test
+    public void testReadersWithDictionaryMatchPlainRead() throws Exception {
+        StringBuilder csv = new StringBuilder("sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson\n");
+        for (int i = 0; i < 5_000; i++) {
+            csv.append(i).append(",2024-03-").append(String.format("%02d", i % 28 + 1))
+                    .append(",P").append(i % 40).append(",Product ").append(i % 40)
+                    .append(",Cat").append(i % 6).append(",").append(i % 90).append(".5,")
+                    .append(i % 7 + 1).append(",R").append(i % 5).append(",S").append(i % 13).append("\n");
+        }
+        Path tempFile = Files.createTempFile("sales_dictionary_test", ".csv");
+        Files.writeString(tempFile, csv.toString());
+
+        List<Sale> plain = CsvReader.readSales(tempFile.toString());
+
+        SalesDictionary dictionary = new SalesDictionary();
+        List<Sale> sequential = CsvReader.readSales(tempFile.toString(), dictionary);
+        List<Sale> parallel = CsvReader.readSalesParallel(tempFile.toString(), 4, dictionary);
+        List<Sale> mapped = CsvReader.readSalesMapped(tempFile.toString(), 4096, dictionary);
+
+        assertEquals(plain.size(), sequential.size());
+        assertEquals(plain.size(), parallel.size());
+        assertEquals(plain.size(), mapped.size());
+        for (int i = 0; i < plain.size(); i++) {
+            assertEquals(plain.get(i).getRegion(), sequential.get(i).getRegion());
+            assertEquals(plain.get(i).getProductName(), mapped.get(i).getProductName());
+            assertEquals(plain.get(i).revenue(), parallel.get(i).revenue());
+            assertSame(sequential.get(i).getSalesperson(), parallel.get(i).getSalesperson());
+            assertSame(sequential.get(i).getCategory(), mapped.get(i).getCategory());
+        }
+        assertEquals(5, dictionary.get(Dimension.REGION).size());
+
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testAggregatorWithDictionaryMatchesPlainAggregation() {
+        SalesDictionary dictionary = new SalesDictionary();
+        List<Sale> plain = List.of(
+                new Sale("1", LocalDate.of(2024, 1, 1), "P1", "A", "Cat1", 100, 2, "APAC", "Alice"),
+                new Sale("2", LocalDate.of(2024, 1, 2), "P2", "B", "Cat2", 200, 1, "EMEA", "Bob"),
+                new Sale("3", LocalDate.of(2024, 2, 1), "P1", "A", "Cat1", 50, 4, "APAC", "Bob")
+        );
+        // Mix encoded sales with plain ones: the latter are encoded on the way in
+        List<Sale> mixed = List.of(dictionary.encode(plain.get(0)), plain.get(1), dictionary.encode(plain.get(2)));
+
+        SalesReport expected = new SalesAggregator().registerAll().topProducts(1).aggregate(plain);
+        SalesReport actual = new SalesAggregator(dictionary).registerAll().topProducts(1).aggregate(mixed);
+
+        assertEquals(expected.getRevenueByRegion(), actual.getRevenueByRegion());
+        assertEquals(expected.getUnitsByCategory(), actual.getUnitsByCategory());
+        assertEquals(expected.getRevenueBySalesperson(), actual.getRevenueBySalesperson());
+        assertEquals(expected.getTopProducts(), actual.getTopProducts());
+        assertEquals(400.0, actual.getRevenueByRegion().get("APAC"));
+    }
+}
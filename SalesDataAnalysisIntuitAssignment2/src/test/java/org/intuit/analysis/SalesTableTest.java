@@ -0,0 +1,102 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.model.SalesTable;
+import org.intuit.analysis.model.Dimension;
+import org.intuit.analysis.service.SalesAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SalesTableTest {
+
+    private List<Sale> sales;
+    private SalesTable table;
+    private SalesAnalyzer analyzer;
+
+    @BeforeEach
+    public void setup() {
+        analyzer = new SalesAnalyzer();
+
+        sales = List.of(
+                new Sale("1", LocalDate.of(2024,1,1), "P1","ProdA","Cat1", 100, 2,"APAC","A"),
+                new Sale("2", LocalDate.of(2024,1,1), "P2","ProdB","Cat2", 200, 3,"EMEA","B"),
+                new Sale("3", LocalDate.of(2024,2,1), "P1","ProdA","Cat1", 150, 1,"APAC","A"),
+                new Sale("4", LocalDate.of(2024,2,5), "P3","ProdC","Cat3", 300, 2,"US","C"),
+                new Sale("5", LocalDate.of(2024,3,9), "P2","ProdB","Cat2", 600, 1,"EMEA","A")
+        );
+        table = SalesTable.from(sales);
+    }
+
+    @Test
+    public void testDictionaryEncoding() {
+        assertEquals(5, table.size());
+        assertEquals(3, table.dictionary(Dimension.REGION).size());
+        assertEquals(3, table.dictionary(Dimension.PRODUCT).size());
+
+        // Rows with the same value share one code
+        int[] regions = table.codes(Dimension.REGION);
+        assertEquals(regions[0], regions[2]);
+        assertEquals("EMEA", table.dictionary(Dimension.REGION).decode(regions[4]));
+    }
+
+    @Test
+    public void testRowRoundTrip() {
+        Sale row = table.getSale(3);
+        assertEquals("4", row.getSaleId());
+        assertEquals(LocalDate.of(2024,2,5), row.getDate());
+        assertEquals("ProdC", row.getProductName());
+        assertEquals(600.0, row.revenue());
+        assertThrows(IndexOutOfBoundsException.class, () -> table.getSale(5));
+    }
+
+    @Test
+    public void testColumnarOverloadsMatchListResults() {
+        assertEquals(analyzer.getTotalRevenue(sales), analyzer.getTotalRevenue(table));
+        assertEquals(analyzer.getTotalUnits(sales), analyzer.getTotalUnits(table));
+        assertEquals(analyzer.getAverageRevenuePerSale(sales), analyzer.getAverageRevenuePerSale(table));
+        assertEquals(analyzer.getRevenueByRegion(sales), analyzer.getRevenueByRegion(table));
+        assertEquals(analyzer.getRevenueByProduct(sales), analyzer.getRevenueByProduct(table));
+        assertEquals(analyzer.getUnitsByProduct(sales), analyzer.getUnitsByProduct(table));
+        assertEquals(analyzer.getRevenueByCategory(sales), analyzer.getRevenueByCategory(table));
+        assertEquals(analyzer.getRevenueBySalesperson(sales), analyzer.getRevenueBySalesperson(table));
+        assertEquals(analyzer.getSaleCountByRegion(sales), analyzer.getSaleCountByRegion(table));
+        assertEquals(analyzer.getMonthlyRevenue(sales), analyzer.getMonthlyRevenue(table));
+        assertEquals(analyzer.getMonthlySaleCount(sales), analyzer.getMonthlySaleCount(table));
+        assertEquals(analyzer.getDailyRevenue(sales), analyzer.getDailyRevenue(table));
+        assertEquals(analyzer.getCategorySummary(sales), analyzer.getCategorySummary(table));
+        assertEquals(analyzer.getProductSummary(sales), analyzer.getProductSummary(table));
+        assertEquals(analyzer.getTopNProductsByRevenue(sales, 2), analyzer.getTopNProductsByRevenue(table, 2));
+        assertEquals(analyzer.getTopRegions(sales, 2), analyzer.getTopRegions(table, 2));
+
+        assertEquals("2", analyzer.getHighestSale(table).get().getSaleId()); // first of the 600 ties
+        assertEquals("3", analyzer.getLowestSale(table).get().getSaleId());
+        assertEquals(3, analyzer.getHighValueSales(table, 600).size());
+    }
+
+    @Test
+    public void testOutlierDateUsesSparseDailyTotals() {
+        // A year-1900 row next to 2024 data spans ~45k days for six rows
+        List<Sale> withOutlier = new java.util.ArrayList<>(sales);
+        withOutlier.add(new Sale("6", LocalDate.of(1900,1,1), "P1","ProdA","Cat1", 10, 1,"APAC","A"));
+        SalesTable sparse = SalesTable.from(withOutlier);
+
+        assertEquals(analyzer.getMonthlyRevenue(withOutlier), analyzer.getMonthlyRevenue(sparse));
+        assertEquals(analyzer.getMonthlySaleCount(withOutlier), analyzer.getMonthlySaleCount(sparse));
+        assertEquals(analyzer.getDailyRevenue(withOutlier), analyzer.getDailyRevenue(sparse));
+    }
+
+    @Test
+    public void testEmptyTable() {
+        SalesTable empty = new SalesTable();
+        assertEquals(0.0, analyzer.getTotalRevenue(empty));
+        assertEquals(0.0, analyzer.getAverageRevenuePerSale(empty));
+        assertTrue(analyzer.getHighestSale(empty).isEmpty());
+        assertTrue(analyzer.getMonthlyRevenue(empty).isEmpty());
+        assertTrue(analyzer.getMonthlySaleCount(empty).isEmpty());
+    }
+}
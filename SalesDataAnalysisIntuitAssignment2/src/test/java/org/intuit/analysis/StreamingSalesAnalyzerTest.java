@@ -0,0 +1,92 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.reader.CsvReader;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesReport;
+import org.intuit.analysis.service.StreamingSalesAnalyzer;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamingSalesAnalyzerTest {
+
+    private static Sale sale(int i) {
+        return new Sale(String.valueOf(i), LocalDate.of(2024, i % 12 + 1, i % 28 + 1),
+                "P" + i % 17, "Product", "Cat" + i % 5, i % 40 + 0.5, i % 6 + 1,
+                "R" + i % 4, "S" + i % 9);
+    }
+
+    @Test
+    public void testSnapshotsMatchBatchAggregation() {
+        List<Sale> sales = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            sales.add(sale(i));
+        }
+        SalesAggregator aggregator = new SalesAggregator().registerAll().topProducts(3).highValueSales(200);
+        StreamingSalesAnalyzer streaming = aggregator.streaming();
+
+        streaming.acceptAll(sales.subList(0, 400));
+        SalesReport partial = streaming.snapshot();
+        sales.subList(400, 1_000).forEach(streaming);
+
+        // The earlier snapshot is unaffected by later rows
+        assertEquals(400, partial.getSaleCount());
+        assertEquals(aggregator.aggregate(sales.subList(0, 400)).getRevenueByRegion(), partial.getRevenueByRegion());
+
+        SalesReport expected = aggregator.aggregate(sales);
+        SalesReport actual = streaming.snapshot();
+        assertEquals(1_000, streaming.getAcceptedCount());
+        assertEquals(expected.getTotalRevenue(), actual.getTotalRevenue());
+        assertEquals(expected.getMonthlyRevenue(), actual.getMonthlyRevenue());
+        assertEquals(expected.getTopProducts(), actual.getTopProducts());
+        assertEquals(expected.getHighValueSales(), actual.getHighValueSales());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        StreamingSalesAnalyzer streaming = new SalesAggregator().registerAll().streaming();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 2_500;
+            pool.submit(() -> {
+                for (int i = 0; i < 2_500; i++) {
+                    streaming.accept(sale(offset + i));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        SalesReport report = streaming.snapshot();
+        assertEquals(10_000, report.getSaleCount());
+        assertEquals(10_000L, report.getSaleCountByRegion().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    public void testForEachSaleFeedsAnalyzer() throws Exception {
+        Path tempFile = Files.createTempFile("sales_streaming_test", ".csv");
+        Files.writeString(tempFile, String.join("\n",
+                "sale_id,date,product_id,product_name,category,unit_price,quantity,region,salesperson",
+                "1,2024-01-01,P1,Product A,Cat1,100.5,2,APAC,Alice",
+                "",
+                "2,2024-02-10,P2,Product B,Cat2,200.0,3,EMEA,Bob"));
+
+        StreamingSalesAnalyzer streaming = new SalesAggregator().registerAll().streaming();
+        CsvReader.forEachSale(tempFile.toString(), streaming);
+
+        assertEquals(2, streaming.getAcceptedCount());
+        assertEquals(801.0, streaming.snapshot().getTotalRevenue());
+
+        Files.deleteIfExists(tempFile);
+    }
+}
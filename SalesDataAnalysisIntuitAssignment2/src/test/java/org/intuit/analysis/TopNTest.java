@@ -0,0 +1,66 @@
+package org.intuit.analysis;
+
+import org.intuit.analysis.model.Sale;
+import org.intuit.analysis.service.SalesAggregator;
+import org.intuit.analysis.service.SalesReport;
+import org.intuit.analysis.service.Metric;
+import org.intuit.analysis.service.TopN;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopNTest {
+
+    @Test
+    public void testMatchesFullSortWithDeterministicTies() {
+        Random random = new Random(42);
+        Map<String, Double> revenue = new HashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            revenue.put("P" + i, (double) random.nextInt(500));   // many equal values
+        }
+
+        List<Map.Entry<String, Double>> expected = revenue.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(25)
+                .collect(Collectors.toList());
+
+        assertEquals(expected, TopN.of(revenue, 25));
+        assertEquals(revenue.size(), TopN.of(revenue, 20_000).size());
+        assertTrue(TopN.of(revenue, 0).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> TopN.of(revenue, -1));
+    }
+
+    @Test
+    public void testRanksAnyKeyAndMetric() {
+        List<Sale> sales = List.of(
+                new Sale("1", LocalDate.of(2024, 1, 1), "P1", "A", "Cat1", 100, 5, "APAC", "Bob"),
+                new Sale("2", LocalDate.of(2024, 1, 2), "P2", "B", "Cat2", 900, 1, "EMEA", "Alice"),
+                new Sale("3", LocalDate.of(2024, 1, 3), "P1", "A", "Cat1", 100, 5, "APAC", "Carol"),
+                new Sale("4", LocalDate.of(2024, 1, 3), "P3", "C", "Cat3", 10, 2, "US", "Alice")
+        );
+        SalesReport report = new SalesAggregator()
+                .register(Metric.BY_SALESPERSON, Metric.BY_DAY)
+                .aggregate(sales);
+
+        // Bob and Carol tie on units: ascending name decides
+        List<Map.Entry<String, Long>> topSellers = TopN.of(report.getUnitsBySalesperson(), 2);
+        assertEquals(List.of(Map.entry("Bob", 5L), Map.entry("Carol", 5L)), topSellers);
+
+        List<Map.Entry<LocalDate, Double>> topDays = TopN.of(report.getDailyRevenue(), 1);
+        assertEquals(LocalDate.of(2024, 1, 2), topDays.get(0).getKey());
+
+        // Plain items with a custom order
+        List<Sale> cheapest = TopN.of(sales, 2, Comparator.comparingDouble(Sale::revenue)
+                .thenComparing(Sale::getSaleId));
+        assertEquals(List.of("4", "1"), cheapest.stream().map(Sale::getSaleId).collect(Collectors.toList()));
+    }
+}